@@ -8,6 +8,7 @@ plugins {
     id("com.github.spotbugs") version "6.4.6"
     id("io.freefair.lombok") version "9.1.0"
     id("com.google.cloud.tools.jib") version "3.5.1"
+    id("me.champeau.jmh") version "0.7.3"
     application
 }
 
@@ -45,7 +46,9 @@ val versions = mapOf(
     "modelmapper" to "3.2.6",
     "lombok" to "1.18.42",
     "awaitility" to "4.3.0",
-    "temporal" to "1.32.1"
+    "temporal" to "1.32.1",
+    "jmh" to "1.37",
+    "hdrhistogram" to "2.2.2"
 )
 
 dependencies {
@@ -54,12 +57,16 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-validation")
     implementation("org.springframework.boot:spring-boot-starter-actuator")
+    implementation("io.micrometer:micrometer-registry-prometheus")
+    implementation("io.micrometer:micrometer-tracing-bridge-otel")
+    // Only active when management.otlp.tracing.endpoint is set
+    implementation("io.opentelemetry:opentelemetry-exporter-otlp")
+    implementation("com.github.ben-manes.caffeine:caffeine")
     implementation("org.springframework.kafka:spring-kafka")
 
     implementation("org.liquibase:liquibase-core")
-    runtimeOnly("org.postgresql:postgresql")
-
-    implementation("org.modelmapper:modelmapper:${versions["modelmapper"]}")
+    // CopyManager for partition archives
+    implementation("org.postgresql:postgresql")
 
     implementation("io.temporal:temporal-spring-boot-starter:${versions["temporal"]}")
 
@@ -81,6 +88,13 @@ dependencies {
     testImplementation("org.testcontainers:spock:${versions["testcontainers"]}")
     testImplementation("org.testcontainers:postgresql:${versions["testcontainers"]}")
     testImplementation("org.testcontainers:kafka:${versions["testcontainers"]}")
+
+    // Baseline for MappingBenchmark: the reflective mapping the hand-written mappers replaced
+    jmh("org.modelmapper:modelmapper:${versions["modelmapper"]}")
+    jmh("com.h2database:h2")
+
+    "loadtestImplementation"("org.hdrhistogram:HdrHistogram:${versions["hdrhistogram"]}")
+    "loadtestImplementation"("com.fasterxml.jackson.core:jackson-databind")
 }
 
 openApiGenerate {
@@ -107,6 +121,7 @@ sourceSets {
             srcDir(layout.buildDirectory.dir("generated/src/main/java"))
         }
     }
+    create("loadtest")
 }
 
 tasks.compileJava {
@@ -124,6 +139,25 @@ tasks.withType<com.github.spotbugs.snom.SpotBugsTask>().configureEach {
     }
 }
 
+jmh {
+    jmhVersion = versions["jmh"]
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    // e.g. ./gradlew jmh -PjmhIncludes=LedgerBenchmark
+    (findProperty("jmhIncludes") as String?)?.let { includes = listOf(it) }
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+}
+
+// e.g. ./gradlew loadTest --args="--rate=500 --duration-seconds=120"
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Runs the open-loop load generator against a running service"
+    classpath = sourceSets["loadtest"].runtimeClasspath
+    mainClass.set("com.payment.loadtest.LoadGenerator")
+}
+
 tasks.test {
     useJUnitPlatform()
     finalizedBy(tasks.jacocoTestReport)
@@ -0,0 +1,60 @@
+package com.payment.benchmark;
+
+import com.payment.exception.business.InsufficientBalanceException;
+import com.payment.model.Account;
+import com.payment.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Money} balance arithmetic in {@link Account}. The balance is reset every iteration so debits never run dry.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountBenchmark {
+
+    private static final Money AMOUNT = Money.parse("12.34", "EUR");
+    private static final Money TOO_MUCH = Money.parse("10000000000000000.00", "EUR");
+
+    private Account account;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        account = new Account(UUID.randomUUID(), Money.parse("1000000000000000.00", "EUR"));
+    }
+
+    @Benchmark
+    public Money credit() {
+        account.credit(AMOUNT);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public Money debit() {
+        account.debit(AMOUNT);
+        return account.getBalance();
+    }
+
+    /**
+     * Rejected debit; dominated by building the exception and its message.
+     */
+    @Benchmark
+    public Object debitInsufficient() {
+        try {
+            account.debit(TOO_MUCH);
+            return account;
+        } catch (InsufficientBalanceException e) {
+            return e;
+        }
+    }
+}
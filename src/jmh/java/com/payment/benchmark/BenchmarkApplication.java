@@ -0,0 +1,66 @@
+package com.payment.benchmark;
+
+import com.payment.config.JpaConfig;
+import com.payment.ledger.LockingTransferExecutor;
+import com.payment.model.Payment;
+import com.payment.observability.PaymentMetrics;
+import com.payment.observability.PaymentTracing;
+import com.payment.repository.AccountStatisticsRepository;
+import com.payment.repository.PaymentOutboxRepository;
+import com.payment.repository.PaymentRepository;
+import com.payment.temporal.activity.LedgerActivitiesImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Persistence and ledger beans only, on in-memory H2 (profile {@code jmh}): no Kafka, Temporal or web layer. The
+ * schema is generated from the entities because the Liquibase changelog is PostgreSQL-specific. Meters go to a
+ * {@link SimpleMeterRegistry} and spans to the no-op tracer, as on the hot path in production minus the export.
+ */
+@SpringBootConfiguration
+@ImportAutoConfiguration({
+    DataSourceAutoConfiguration.class,
+    HibernateJpaAutoConfiguration.class,
+    TransactionAutoConfiguration.class,
+    JdbcTemplateAutoConfiguration.class,
+    SqlInitializationAutoConfiguration.class
+})
+@EntityScan(basePackageClasses = Payment.class)
+@EnableJpaRepositories(basePackageClasses = PaymentRepository.class)
+@Import({
+    JpaConfig.class,
+    PaymentOutboxRepository.class,
+    AccountStatisticsRepository.class,
+    PaymentMetrics.class,
+    PaymentTracing.class,
+    LockingTransferExecutor.class,
+    LedgerActivitiesImpl.class
+})
+class BenchmarkApplication {
+
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+            .profiles("jmh")
+            .web(WebApplicationType.NONE)
+            .run();
+    }
+}
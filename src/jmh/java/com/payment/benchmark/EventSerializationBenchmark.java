@@ -0,0 +1,122 @@
+package com.payment.benchmark;
+
+import com.payment.config.KafkaConfig;
+import com.payment.event.BinaryPaymentEventDeserializer;
+import com.payment.event.BinaryPaymentEventSerializer;
+import com.payment.event.PaymentCompletedEvent;
+import com.payment.exception.ErrorCode;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PaymentCompletedEvent} serialization and deserialization with the JSON and the binary value serializer.
+ * The {@code valueBytes} and {@code headerBytes} secondary results report the size of the last serialized event;
+ * JSON also needs the {@code __TypeId__} header, binary needs none.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventSerializationBenchmark {
+
+    private static final String TOPIC = KafkaConfig.PAYMENT_NOTIFICATIONS_TOPIC;
+
+    @Param({"json", "binary"})
+    public String format;
+
+    private Serializer<Object> serializer;
+    private Deserializer<PaymentCompletedEvent> deserializer;
+    private PaymentCompletedEvent success;
+    private PaymentCompletedEvent failure;
+    private RecordHeaders successHeaders;
+    private byte[] successBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+
+        public long valueBytes;
+        public long headerBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            valueBytes = 0;
+            headerBytes = 0;
+        }
+    }
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        if (format.equals("json")) {
+            serializer = new JsonSerializer<>();
+            JsonDeserializer<PaymentCompletedEvent> json = new JsonDeserializer<>(PaymentCompletedEvent.class);
+            json.addTrustedPackages("com.payment.event");
+            deserializer = json;
+        } else {
+            serializer = (Serializer<Object>) (Serializer<?>) new BinaryPaymentEventSerializer();
+            deserializer = new BinaryPaymentEventDeserializer();
+        }
+
+        success = PaymentCompletedEvent.success(
+            UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("150.00"), "EUR");
+        failure = PaymentCompletedEvent.failure(
+            UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("150.00"), "EUR",
+            ErrorCode.INSUFFICIENT_BALANCE, "Insufficient balance. Available: 10.00, Required: 150.00");
+        successHeaders = new RecordHeaders();
+        successBytes = serializer.serialize(TOPIC, successHeaders, success);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] success(Size size) {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] bytes = serializer.serialize(TOPIC, headers, success);
+        record(size, bytes, headers);
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] failure(Size size) {
+        RecordHeaders headers = new RecordHeaders();
+        byte[] bytes = serializer.serialize(TOPIC, headers, failure);
+        record(size, bytes, headers);
+        return bytes;
+    }
+
+    @Benchmark
+    public PaymentCompletedEvent deserializeSuccess() {
+        return deserializer.deserialize(TOPIC, successHeaders, successBytes);
+    }
+
+    private static void record(Size size, byte[] bytes, RecordHeaders headers) {
+        size.valueBytes = bytes.length;
+        long headerBytes = 0;
+        for (var header : headers) {
+            headerBytes += header.key().length() + header.value().length;
+        }
+        size.headerBytes = headerBytes;
+    }
+}
@@ -0,0 +1,80 @@
+package com.payment.benchmark;
+
+import com.payment.model.Account;
+import com.payment.model.Money;
+import com.payment.model.Payment;
+import com.payment.repository.AccountRepository;
+import com.payment.repository.PaymentRepository;
+import com.payment.temporal.activity.LedgerActivities;
+import com.payment.temporal.activity.TransferResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LedgerActivities#executeTransfer} with the locking engine on in-memory H2: one transaction with the account
+ * locks, balance updates, payment update, outbox insert and statistics merge. Absolute numbers are not comparable to
+ * PostgreSQL; use them to spot regressions in the Java side of the transfer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LedgerBenchmark {
+
+    private static final Money AMOUNT = Money.parse("0.01", "EUR");
+
+    private ConfigurableApplicationContext context;
+    private LedgerActivities ledgerActivities;
+    private PaymentRepository paymentRepository;
+    private UUID senderAccountId;
+    private UUID receiverAccountId;
+
+    private UUID paymentId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        ledgerActivities = context.getBean(LedgerActivities.class);
+        paymentRepository = context.getBean(PaymentRepository.class);
+
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        senderAccountId = UUID.randomUUID();
+        receiverAccountId = UUID.randomUUID();
+        accountRepository.save(new Account(senderAccountId, Money.parse("1000000000.00", "EUR")));
+        accountRepository.save(new Account(receiverAccountId, Money.zero("EUR")));
+    }
+
+    /**
+     * A transfer takes far longer than the per-invocation bookkeeping, so a fresh payment per call is affordable.
+     */
+    @Setup(Level.Invocation)
+    public void createPayment() {
+        Payment payment = Payment.create(
+            UUID.randomUUID().toString(), senderAccountId, receiverAccountId, AMOUNT);
+        paymentId = paymentRepository.save(payment).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransferResult executeTransfer() {
+        TransferResult result = ledgerActivities.executeTransfer(paymentId);
+        if (!result.successful()) {
+            throw new IllegalStateException("Transfer failed: " + result.errorMessage());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,134 @@
+package com.payment.benchmark;
+
+import com.payment.api.model.AccountResponse;
+import com.payment.api.model.PaymentResponse;
+import com.payment.exception.ErrorCode;
+import com.payment.mapper.AccountMapper;
+import com.payment.mapper.PaymentMapper;
+import com.payment.model.Account;
+import com.payment.model.Money;
+import com.payment.model.Payment;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Field;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping: the hand-written mappers against the ModelMapper configuration they replaced. The
+ * {@code page} benchmarks map a {@code listPayments} page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+
+    @Param({"100"})
+    int pageSize;
+
+    private ModelMapper modelMapper;
+    private final AccountMapper accountMapper = new AccountMapper();
+    private final PaymentMapper paymentMapper = new PaymentMapper();
+
+    private Account account;
+    private List<Payment> page;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        modelMapper = ModelMapperBaseline.create();
+        account = new Account(UUID.randomUUID(), Money.parse("1234.56", "EUR"));
+
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Payment payment = Payment.create(
+                "key-" + i, UUID.randomUUID(), UUID.randomUUID(), Money.parse(i + ".50", "EUR"));
+            if (i % 10 == 0) {
+                payment.markFailed(ErrorCode.INSUFFICIENT_BALANCE, "Insufficient balance");
+            } else {
+                payment.markCompleted();
+            }
+            setAuditTimestamps(payment, Instant.now());
+            page.add(payment);
+        }
+
+        verifySameOutput();
+    }
+
+    @Benchmark
+    public AccountResponse accountModelMapper() {
+        return modelMapper.map(account, AccountResponse.class);
+    }
+
+    @Benchmark
+    public AccountResponse accountMapper() {
+        return accountMapper.toResponse(account);
+    }
+
+    @Benchmark
+    public List<PaymentResponse> pageModelMapper() {
+        List<PaymentResponse> responses = new ArrayList<>(page.size());
+        for (Payment payment : page) {
+            responses.add(modelMapper.map(payment, PaymentResponse.class));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<PaymentResponse> pageMapper() {
+        List<PaymentResponse> responses = new ArrayList<>(page.size());
+        for (Payment payment : page) {
+            responses.add(paymentMapper.toResponse(payment));
+        }
+        return responses;
+    }
+
+    /**
+     * Fails the run if the two paths disagree; timestamps are compared as instants since only the offset may differ.
+     */
+    private void verifySameOutput() {
+        if (!modelMapper.map(account, AccountResponse.class).equals(accountMapper.toResponse(account))) {
+            throw new IllegalStateException("Account mapping differs from ModelMapper");
+        }
+        if (!modelMapper.map(page.getFirst(), com.payment.api.model.PaymentAcceptedResponse.class)
+            .equals(paymentMapper.toAcceptedResponse(page.getFirst()))) {
+            throw new IllegalStateException("Accepted response mapping differs from ModelMapper");
+        }
+        for (Payment payment : page) {
+            PaymentResponse expected = modelMapper.map(payment, PaymentResponse.class);
+            PaymentResponse actual = paymentMapper.toResponse(payment);
+            if (!sameInstant(expected.getCreatedAt(), actual.getCreatedAt())
+                || !sameInstant(expected.getUpdatedAt(), actual.getUpdatedAt())) {
+                throw new IllegalStateException("Timestamps differ from ModelMapper for " + payment.getId());
+            }
+            expected.setCreatedAt(actual.getCreatedAt());
+            expected.setUpdatedAt(actual.getUpdatedAt());
+            if (!expected.equals(actual)) {
+                throw new IllegalStateException("Payment mapping differs from ModelMapper: " + expected + " / " + actual);
+            }
+        }
+    }
+
+    private static boolean sameInstant(OffsetDateTime a, OffsetDateTime b) {
+        return a == null ? b == null : b != null && a.toInstant().equals(b.toInstant());
+    }
+
+    private static void setAuditTimestamps(Payment payment, Instant timestamp) throws ReflectiveOperationException {
+        for (String name : List.of("createdAt", "updatedAt")) {
+            Field field = Payment.class.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(payment, timestamp);
+        }
+    }
+}
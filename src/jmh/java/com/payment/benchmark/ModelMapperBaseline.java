@@ -1,37 +1,30 @@
-package com.payment.config;
+package com.payment.benchmark;
 
 import com.payment.api.model.AccountResponse;
 import com.payment.api.model.PaymentAcceptedResponse;
 import com.payment.api.model.PaymentResponse;
 import com.payment.model.Account;
+import com.payment.model.Money;
 import com.payment.model.Payment;
 import com.payment.model.PaymentStatus;
 import org.modelmapper.Converter;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-import java.math.BigDecimal;
 
 /**
- * Configuration for ModelMapper, a library that simplifies object-to-object mapping.
- * <p>
- * ModelMapper is used in this application to map between domain entities and API response DTOs.
- * It reduces boilerplate code by automatically mapping properties with matching names.
- *
- * @see org.modelmapper.ModelMapper
+ * The ModelMapper configuration the services used before {@code com.payment.mapper}, kept as a benchmark baseline.
  */
-@Configuration
-public class ModelMapperConfig {
+final class ModelMapperBaseline {
+
+    private ModelMapperBaseline() {
+    }
 
-    @Bean
-    public ModelMapper modelMapper() {
+    static ModelMapper create() {
         ModelMapper mapper = new ModelMapper();
         mapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
 
-        Converter<BigDecimal, String> bigDecimalToString =
-            ctx -> ctx.getSource() != null ? ctx.getSource().toPlainString() : null;
+        Converter<Money, String> moneyToString =
+            ctx -> ctx.getSource() != null ? ctx.getSource().toString() : null;
 
         Converter<Enum<?>, String> enumToString =
             ctx -> ctx.getSource() != null ? ctx.getSource().name() : null;
@@ -42,7 +35,7 @@ public class ModelMapperConfig {
         // Account -> AccountResponse
         mapper.createTypeMap(Account.class, AccountResponse.class)
             .addMapping(Account::getId, AccountResponse::setAccountId)
-            .addMappings(m -> m.using(bigDecimalToString).map(Account::getBalance, AccountResponse::setBalance));
+            .addMappings(m -> m.using(moneyToString).map(Account::getBalance, AccountResponse::setBalance));
 
         // Payment -> PaymentAcceptedResponse
         mapper.createTypeMap(Payment.class, PaymentAcceptedResponse.class)
@@ -53,7 +46,7 @@ public class ModelMapperConfig {
         mapper.createTypeMap(Payment.class, PaymentResponse.class)
             .addMapping(Payment::getId, PaymentResponse::setPaymentId)
             .addMappings(m -> {
-                m.using(bigDecimalToString).map(Payment::getAmount, PaymentResponse::setAmount);
+                m.using(moneyToString).map(Payment::getAmount, PaymentResponse::setAmount);
                 m.using(paymentStatusConverter).map(Payment::getStatus, PaymentResponse::setStatus);
                 m.using(enumToString).map(Payment::getErrorCode, PaymentResponse::setErrorCode);
             });
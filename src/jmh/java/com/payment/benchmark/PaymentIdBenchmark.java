@@ -0,0 +1,32 @@
+package com.payment.benchmark;
+
+import com.payment.model.Uuids;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of generating a payment id: random (version 4) against time-ordered (version 7). The effect of the id on
+ * inserts and index size is measured in the database by {@code src/jmh/sql/payment-insert-benchmark.sql}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PaymentIdBenchmark {
+
+    @Benchmark
+    public UUID random() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID timeOrdered() {
+        return Uuids.timeOrdered();
+    }
+}
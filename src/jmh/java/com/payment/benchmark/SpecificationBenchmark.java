@@ -0,0 +1,70 @@
+package com.payment.benchmark;
+
+import com.payment.model.Payment;
+import com.payment.model.PaymentStatus;
+import com.payment.repository.PaymentSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building the {@code listPayments} query from {@link PaymentSpecification#searchBy}: the criteria tree alone, and
+ * the tree turned into an executable Hibernate query (without running it).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpecificationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private CriteriaBuilder criteriaBuilder;
+    private final UUID senderAccountId = UUID.randomUUID();
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<Payment> criteria() {
+        return criteria(PaymentSpecification.searchBy(senderAccountId, PaymentStatus.COMPLETED));
+    }
+
+    @Benchmark
+    public TypedQuery<Payment> typedQuery() {
+        Specification<Payment> spec = PaymentSpecification.searchBy(senderAccountId, PaymentStatus.COMPLETED);
+        return entityManager.createQuery(criteria(spec));
+    }
+
+    private CriteriaQuery<Payment> criteria(Specification<Payment> spec) {
+        CriteriaQuery<Payment> query = criteriaBuilder.createQuery(Payment.class);
+        Root<Payment> root = query.from(Payment.class);
+        query.where(spec.toPredicate(root, query, criteriaBuilder));
+        return query;
+    }
+}
@@ -0,0 +1,19 @@
+-- Tables written through JDBC only, so not covered by the entity-generated schema
+CREATE TABLE IF NOT EXISTS payment_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    payment_id UUID NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS account_daily_statistics (
+    account_id UUID NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    day DATE NOT NULL,
+    slot INTEGER NOT NULL,
+    sent_count BIGINT NOT NULL,
+    sent_amount DECIMAL(19,2) NOT NULL,
+    received_count BIGINT NOT NULL,
+    received_amount DECIMAL(19,2) NOT NULL,
+    PRIMARY KEY (account_id, currency, day, slot)
+);
@@ -0,0 +1,78 @@
+-- Insert throughput and index size of the payment table with random (v4) and time-ordered (v7) ids.
+--
+--   psql -h localhost -U postgres -d payments -v rows=5000000 -f src/jmh/sql/payment-insert-benchmark.sql
+--
+-- Requires PostgreSQL 18 (uuidv7()). Runs in its own schema, which is dropped at the end; nothing in public is
+-- touched. Rows are inserted in batches of 10,000 per statement into a table shaped like payment (same columns,
+-- primary key and idempotency index, unpartitioned), with ids generated in creation order as the service does.
+
+\set ON_ERROR_STOP on
+\if :{?rows}
+\else
+    \set rows 5000000
+\endif
+\timing on
+
+DROP SCHEMA IF EXISTS payment_id_benchmark CASCADE;
+CREATE SCHEMA payment_id_benchmark;
+SET search_path TO payment_id_benchmark;
+
+CREATE TABLE payment_v4 (
+    id UUID NOT NULL PRIMARY KEY,
+    idempotency_key VARCHAR(255) NOT NULL,
+    sender_account_id UUID NOT NULL,
+    receiver_account_id UUID NOT NULL,
+    amount DECIMAL(19, 2) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    error_code VARCHAR(50),
+    error_message VARCHAR(500),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
+);
+CREATE UNIQUE INDEX payment_v4_idempotency_key ON payment_v4 (idempotency_key);
+
+CREATE TABLE payment_v7 (LIKE payment_v4 INCLUDING DEFAULTS);
+ALTER TABLE payment_v7 ADD PRIMARY KEY (id);
+CREATE UNIQUE INDEX payment_v7_idempotency_key ON payment_v7 (idempotency_key);
+
+CREATE PROCEDURE fill(p_table TEXT, p_id_function TEXT, p_rows BIGINT)
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_batch CONSTANT INT := 10000;
+    v_from BIGINT := 1;
+BEGIN
+    WHILE v_from <= p_rows LOOP
+        EXECUTE format(
+            'INSERT INTO %I (id, idempotency_key, sender_account_id, receiver_account_id, amount, currency, status,'
+            ' created_at, updated_at)'
+            ' SELECT %s(), ''key-'' || g, gen_random_uuid(), gen_random_uuid(), 10.00, ''EUR'', ''COMPLETED'','
+            ' now(), now()'
+            ' FROM generate_series($1, $2) g',
+            p_table, p_id_function)
+        USING v_from, least(v_from + v_batch - 1, p_rows);
+        COMMIT;
+        v_from := v_from + v_batch;
+    END LOOP;
+END
+$$;
+
+\echo 'random ids (v4)'
+CALL fill('payment_v4', 'gen_random_uuid', :rows);
+
+\echo 'time-ordered ids (v7)'
+CALL fill('payment_v7', 'uuidv7', :rows);
+
+\timing off
+
+SELECT c.relname                               AS relation,
+       pg_size_pretty(pg_relation_size(c.oid)) AS size
+FROM pg_class c
+         JOIN pg_namespace n ON n.oid = c.relnamespace
+WHERE n.nspname = 'payment_id_benchmark'
+  AND c.relkind IN ('r', 'i')
+ORDER BY c.relname;
+
+RESET search_path;
+DROP SCHEMA payment_id_benchmark CASCADE;
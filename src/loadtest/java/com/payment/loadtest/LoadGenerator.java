@@ -0,0 +1,242 @@
+package com.payment.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for the payment API.
+ * <p>
+ * Payments are submitted at a constant arrival rate, each on its own virtual thread, so a slow service builds up
+ * concurrency instead of slowing the generator down. Latencies are measured from the moment a request was due, not
+ * from when it was actually sent, which keeps queueing delay in the numbers (no coordinated omission). Every
+ * accepted payment is polled until it is COMPLETED or FAILED to measure end-to-end time.
+ * <p>
+ * Run with {@code ./gradlew loadTest --args="--rate=500 --duration-seconds=120 --receiver-zipf=1.2"}; see
+ * {@link LoadTestConfig} for all options.
+ */
+public final class LoadGenerator {
+
+    private static final int RECENT_REQUESTS = 10_000;
+
+    private final LoadTestConfig config;
+    private final PaymentClient client;
+    private final List<UUID> accounts;
+    private final ZipfSampler senders;
+    private final ZipfSampler receivers;
+
+    private final Histogram submitLatency = new ConcurrentHistogram(3);
+    private final Histogram endToEndLatency = new ConcurrentHistogram(3);
+    private final Map<Integer, LongAdder> httpStatuses = new ConcurrentHashMap<>();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder duplicateMismatches = new LongAdder();
+
+    private final AtomicReferenceArray<SentPayment> recent = new AtomicReferenceArray<>(RECENT_REQUESTS);
+    private final AtomicLong recentCount = new AtomicLong();
+
+    private LoadGenerator(LoadTestConfig config, PaymentClient client, List<UUID> accounts) {
+        this.config = config;
+        this.client = client;
+        this.accounts = accounts;
+        this.senders = new ZipfSampler(accounts.size(), config.senderZipf());
+        this.receivers = new ZipfSampler(accounts.size(), config.receiverZipf());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        PaymentClient client = new PaymentClient(config.baseUrl());
+
+        System.out.printf("Creating %d accounts on %s%n", config.accounts(), config.baseUrl());
+        List<UUID> accounts = createAccounts(client, config);
+
+        System.out.printf("Submitting %d payments/s for %ds%n", config.rate(), config.duration().toSeconds());
+        var generator = new LoadGenerator(config, client, accounts);
+        long elapsed = generator.run();
+        generator.report(System.out, elapsed);
+    }
+
+    private static List<UUID> createAccounts(PaymentClient client, LoadTestConfig config) throws Exception {
+        List<Future<UUID>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.accounts(); i++) {
+                futures.add(executor.submit(() -> client.createAccount(config.initialBalance())));
+            }
+        }
+        List<UUID> accounts = new ArrayList<>(futures.size());
+        for (Future<UUID> future : futures) {
+            accounts.add(future.get());
+        }
+        return accounts;
+    }
+
+    /**
+     * @return nanoseconds from the first submission until the last payment was resolved
+     */
+    private long run() {
+        long interval = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        long total = config.rate() * config.duration().toSeconds();
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long due = start + i * interval;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                executor.execute(() -> execute(due));
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void execute(long due) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            SentPayment replay = random.nextDouble() < config.duplicateRatio() ? pickRecent(random) : null;
+            if (replay != null) {
+                replay(replay, due);
+            } else {
+                submitNew(random, due);
+            }
+        } catch (IOException e) {
+            errors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submitNew(ThreadLocalRandom random, long due) throws IOException, InterruptedException {
+        int senderIndex = senders.sample(random);
+        int receiverIndex = receivers.sample(random);
+        if (receiverIndex == senderIndex) {
+            receiverIndex = (receiverIndex + 1) % accounts.size();
+        }
+        Map<String, Object> payment = Map.of(
+            "senderAccountId", accounts.get(senderIndex),
+            "receiverAccountId", accounts.get(receiverIndex),
+            "amount", BigDecimal.valueOf(random.nextInt(1, 1001), 2).toPlainString(),
+            "currency", "EUR"
+        );
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        PaymentClient.Submission submission = client.submit(idempotencyKey, payment);
+        record(submitLatency, due);
+        httpStatuses.computeIfAbsent(submission.httpStatus(), status -> new LongAdder()).increment();
+        if (!submission.accepted()) {
+            return;
+        }
+
+        remember(new SentPayment(idempotencyKey, payment, submission.paymentId()));
+        awaitCompletion(submission, due);
+    }
+
+    /**
+     * Replays an earlier request; the service must answer with the same payment.
+     */
+    private void replay(SentPayment original, long due) throws IOException, InterruptedException {
+        PaymentClient.Submission submission = client.submit(original.idempotencyKey(), original.payment());
+        record(submitLatency, due);
+        httpStatuses.computeIfAbsent(submission.httpStatus(), status -> new LongAdder()).increment();
+        duplicates.increment();
+        if (submission.accepted() && !original.paymentId().equals(submission.paymentId())) {
+            duplicateMismatches.increment();
+        }
+    }
+
+    private void awaitCompletion(PaymentClient.Submission submission, long due)
+        throws IOException, InterruptedException {
+
+        String status = submission.status();
+        long deadline = due + config.completionTimeout().toNanos();
+        while (!isTerminal(status)) {
+            if (System.nanoTime() > deadline) {
+                timedOut.increment();
+                return;
+            }
+            Thread.sleep(config.pollInterval());
+            status = client.status(submission.paymentId());
+        }
+        record(endToEndLatency, due);
+        ("COMPLETED".equals(status) ? completed : failed).increment();
+    }
+
+    private static boolean isTerminal(String status) {
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+
+    private void remember(SentPayment payment) {
+        recent.set((int) (recentCount.getAndIncrement() % RECENT_REQUESTS), payment);
+    }
+
+    private SentPayment pickRecent(ThreadLocalRandom random) {
+        long count = recentCount.get();
+        if (count == 0) {
+            return null;
+        }
+        return recent.get(random.nextInt((int) Math.min(count, RECENT_REQUESTS)));
+    }
+
+    private static void record(Histogram histogram, long due) {
+        histogram.recordValue(TimeUnit.NANOSECONDS.toMicros(Math.max(0, System.nanoTime() - due)));
+    }
+
+    private void report(PrintStream out, long elapsedNanos) {
+        long submitted = submitLatency.getTotalCount();
+        out.println();
+        out.println("=== Results ===");
+        out.printf("Submitted:          %d (%.1f/s achieved)%n",
+            submitted, submitted / (elapsedNanos / 1e9));
+        out.printf("HTTP statuses:      %s%n", new TreeMap<>(httpStatuses));
+        out.printf("Completed:          %d%n", completed.sum());
+        out.printf("Failed:             %d%n", failed.sum());
+        out.printf("Timed out:          %d%n", timedOut.sum());
+        out.printf("Errors:             %d%n", errors.sum());
+        out.printf("Duplicates:         %d (%d answered with a different payment)%n",
+            duplicates.sum(), duplicateMismatches.sum());
+        out.println();
+        printPercentiles(out, "Submit (ms)", submitLatency);
+        printPercentiles(out, "Submit to COMPLETED/FAILED (ms)", endToEndLatency);
+    }
+
+    private static void printPercentiles(PrintStream out, String title, Histogram histogram) {
+        out.println(title);
+        if (histogram.getTotalCount() == 0) {
+            out.println("  no samples");
+            return;
+        }
+        for (double percentile : new double[]{50, 90, 99, 99.9, 99.99}) {
+            out.printf("  p%-6s %10.2f%n", format(percentile), histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf("  %-7s %10.2f%n", "max", histogram.getMaxValue() / 1000.0);
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private record SentPayment(String idempotencyKey, Map<String, Object> payment, UUID paymentId) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.payment.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, parsed from {@code --name=value} arguments.
+ *
+ * @param baseUrl        service under test
+ * @param rate           payments submitted per second, independent of how fast the service answers
+ * @param duration       how long payments are submitted
+ * @param accounts       number of accounts created for the run
+ * @param initialBalance balance of each account
+ * @param senderZipf     Zipf exponent for picking senders; 0 is uniform
+ * @param receiverZipf   Zipf exponent for picking receivers; higher values concentrate credits on a few hot accounts
+ * @param duplicateRatio share of submissions that replay an earlier request with the same idempotency key
+ * @param pollInterval   delay between status polls of a submitted payment
+ * @param completionTimeout how long a payment may take to reach COMPLETED or FAILED before it counts as timed out
+ */
+record LoadTestConfig(
+    URI baseUrl,
+    int rate,
+    Duration duration,
+    int accounts,
+    String initialBalance,
+    double senderZipf,
+    double receiverZipf,
+    double duplicateRatio,
+    Duration pollInterval,
+    Duration completionTimeout
+) {
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        var config = new LoadTestConfig(
+            URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+            Integer.parseInt(values.getOrDefault("rate", "200")),
+            Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration-seconds", "60"))),
+            Integer.parseInt(values.getOrDefault("accounts", "1000")),
+            values.getOrDefault("initial-balance", "1000000.00"),
+            Double.parseDouble(values.getOrDefault("sender-zipf", "0")),
+            Double.parseDouble(values.getOrDefault("receiver-zipf", "1.1")),
+            Double.parseDouble(values.getOrDefault("duplicate-ratio", "0.05")),
+            Duration.ofMillis(Long.parseLong(values.getOrDefault("poll-interval-ms", "50"))),
+            Duration.ofSeconds(Long.parseLong(values.getOrDefault("completion-timeout-seconds", "30")))
+        );
+        if (config.accounts() < 2) {
+            throw new IllegalArgumentException("At least two accounts are needed");
+        }
+        if (config.duplicateRatio() < 0 || config.duplicateRatio() >= 1) {
+            throw new IllegalArgumentException("duplicate-ratio must be in [0, 1)");
+        }
+        return config;
+    }
+}
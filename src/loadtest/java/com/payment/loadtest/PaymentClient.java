@@ -0,0 +1,87 @@
+package com.payment.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+/**
+ * Blocking calls against the payment API; meant to be used from virtual threads.
+ */
+final class PaymentClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final URI baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .connectTimeout(REQUEST_TIMEOUT)
+        .build();
+
+    PaymentClient(URI baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    UUID createAccount(String balance) throws IOException, InterruptedException {
+        JsonNode body = send(post("/api/v1/accounts", Map.of("balance", balance, "currency", "EUR"))
+            .build(), 201);
+        return UUID.fromString(body.get("accountId").asText());
+    }
+
+    /**
+     * @return the response status and, for accepted payments, the payment id and status
+     */
+    Submission submit(String idempotencyKey, Map<String, Object> payment) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(
+            post("/api/v1/payments", payment).header("Idempotency-Key", idempotencyKey).build(),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 202) {
+            return new Submission(response.statusCode(), null, null);
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        return new Submission(
+            response.statusCode(),
+            UUID.fromString(body.get("paymentId").asText()),
+            body.get("status").asText());
+    }
+
+    String status(UUID paymentId) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/api/v1/payments/" + paymentId))
+            .timeout(REQUEST_TIMEOUT)
+            .GET()
+            .build();
+        return send(request, 200).get("status").asText();
+    }
+
+    private HttpRequest.Builder post(String path, Map<String, ?> body) throws IOException {
+        return HttpRequest.newBuilder(baseUrl.resolve(path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+    }
+
+    private JsonNode send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expectedStatus) {
+            throw new IOException(request.method() + " " + request.uri() + " returned " + response.statusCode()
+                + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    record Submission(int httpStatus, UUID paymentId, String status) {
+
+        boolean accepted() {
+            return httpStatus == 202;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Account cache settings ({@code payment.account-cache.*}).
+ *
+ * @param maxSize    maximum number of accounts kept in each cache
+ * @param balanceTtl how long a balance read by {@code GET /accounts/{id}} may be served from memory; 0 disables the
+ *                   balance cache
+ */
+@ConfigurationProperties(prefix = "payment.account-cache")
+public record AccountCacheProperties(
+    @DefaultValue("100000") long maxSize,
+    @DefaultValue("0s") Duration balanceTtl
+) {
+}
@@ -0,0 +1,77 @@
+package com.payment.config;
+
+import com.payment.datasource.ConcurrencyLimitingDataSource;
+import com.payment.datasource.ReadReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Builds the application's {@link DataSource} from the primary Hikari pool and, when configured, a replica pool.
+ * <p>
+ * In virtual-thread mode each pool gets its own {@link ConcurrencyLimitingDataSource} (see
+ * {@link VirtualThreadConfig}). With {@code payment.read-replica.enabled} the pools are combined by a
+ * {@link ReadReplicaRoutingDataSource}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource hikariDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "payment.read-replica.enabled", havingValue = "true")
+    @ConfigurationProperties("payment.read-replica.hikari")
+    public HikariDataSource replicaHikariDataSource(ReadReplicaProperties properties) {
+        return DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(properties.url())
+            .username(properties.username())
+            .password(properties.password())
+            .build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("hikariDataSource") HikariDataSource pool,
+                                 @Qualifier("replicaHikariDataSource") ObjectProvider<HikariDataSource> replicaPool,
+                                 VirtualThreadProperties virtualThreads,
+                                 Environment environment,
+                                 MeterRegistry meterRegistry) {
+        boolean limited = Threading.VIRTUAL.isActive(environment);
+        DataSource primary = limited ? limit(pool, "primary", virtualThreads, meterRegistry) : pool;
+
+        HikariDataSource replica = replicaPool.getIfAvailable();
+        if (replica == null) {
+            return primary;
+        }
+        return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(
+            primary, limited ? limit(replica, "replica", virtualThreads, meterRegistry) : replica));
+    }
+
+    private static DataSource limit(HikariDataSource pool,
+                                    String name,
+                                    VirtualThreadProperties properties,
+                                    MeterRegistry meterRegistry) {
+        VirtualThreadProperties.DbLimiter limiter = properties.dbLimiter();
+        int maxConcurrent = limiter.maxConcurrent() > 0 ? limiter.maxConcurrent() : pool.getMaximumPoolSize();
+        return new ConcurrencyLimitingDataSource(
+            pool, name, maxConcurrent, limiter.maxWaiting(), limiter.acquireTimeout(), meterRegistry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Completion event settings ({@code payment.events.*}).
+ *
+ * @param format wire format of {@link KafkaConfig#PAYMENT_NOTIFICATIONS_TOPIC} values: JSON with type headers
+ *               ({@code json}) or the versioned binary layout of {@code BinaryPaymentEventSerializer}
+ *               ({@code binary}); consumers have to switch deserializers together with it
+ */
+@ConfigurationProperties(prefix = "payment.events")
+public record EventProperties(
+    @DefaultValue("json") Format format
+) {
+
+    public enum Format {
+        JSON,
+        BINARY
+    }
+}
@@ -0,0 +1,15 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Payment export settings ({@code payment.export.*}).
+ *
+ * @param fetchSize rows the JDBC cursor fetches per round trip; bounds the rows held in memory at once
+ */
+@ConfigurationProperties(prefix = "payment.export")
+public record ExportProperties(
+    @DefaultValue("1000") int fetchSize
+) {
+}
@@ -0,0 +1,19 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-key cache settings ({@code payment.idempotency.cache.*}).
+ *
+ * @param maxSize maximum number of idempotency keys kept in memory
+ * @param ttl     how long a key is kept after it was last written
+ */
+@ConfigurationProperties(prefix = "payment.idempotency.cache")
+public record IdempotencyCacheProperties(
+    @DefaultValue("100000") long maxSize,
+    @DefaultValue("10m") Duration ttl
+) {
+}
@@ -1,9 +1,14 @@
 package com.payment.config;
 
+import com.payment.event.BinaryPaymentEventSerializer;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 
 
 @Configuration
@@ -18,4 +23,16 @@ public class KafkaConfig {
             .replicas(1)
             .build();
     }
+
+    /**
+     * Replaces the configured JSON value serializer. Completion events are the only values the producer sends.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "payment.events", name = "format", havingValue = "binary")
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaProducerFactoryCustomizer binaryEventSerializerCustomizer() {
+        Serializer<?> serializer = new BinaryPaymentEventSerializer();
+        return producerFactory -> ((DefaultKafkaProducerFactory<Object, Object>) producerFactory)
+            .setValueSerializer((Serializer<Object>) serializer);
+    }
 }
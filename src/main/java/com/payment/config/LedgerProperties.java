@@ -0,0 +1,55 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Ledger engine settings ({@code payment.ledger.*}).
+ *
+ * @param engine how transfers are applied: one transaction per payment ({@code locking}), many payments per
+ *               transaction ({@code batching}) or one database function call per payment ({@code sql})
+ * @param batch  micro-batching settings, only used by the {@code batching} engine
+ * @param lanes  per-sender execution lanes in front of the engine
+ */
+@ConfigurationProperties(prefix = "payment.ledger")
+public record LedgerProperties(
+    @DefaultValue("locking") Engine engine,
+    @DefaultValue Batch batch,
+    @DefaultValue Lanes lanes
+) {
+
+    public enum Engine {
+        LOCKING,
+        BATCHING,
+        SQL
+    }
+
+    /**
+     * @param maxSize       transfers applied per database transaction at most
+     * @param maxWait       how long the first transfer of a batch waits for others to join
+     * @param resultTimeout how long a caller waits for its batch; kept below the activity start-to-close timeout
+     */
+    public record Batch(
+        @DefaultValue("200") int maxSize,
+        @DefaultValue("5ms") Duration maxWait,
+        @DefaultValue("8s") Duration resultTimeout
+    ) {
+    }
+
+    /**
+     * @param enabled       route transfers through single-writer lanes keyed by sender account
+     * @param count         number of lanes, which is also the number of transfers running at once; kept below the
+     *                      connection pool size
+     * @param queueCapacity transfers waiting per lane at most; further transfers fail and are retried by Temporal
+     * @param resultTimeout how long a caller waits for its lane; kept below the activity start-to-close timeout
+     */
+    public record Lanes(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("8") int count,
+        @DefaultValue("1000") int queueCapacity,
+        @DefaultValue("8s") Duration resultTimeout
+    ) {
+    }
+}
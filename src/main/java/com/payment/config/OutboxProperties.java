@@ -0,0 +1,21 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Completion event outbox settings ({@code payment.outbox.*}).
+ *
+ * @param batchSize   outbox rows relayed to Kafka per transaction
+ * @param sendTimeout how long the relay waits for Kafka to acknowledge a batch
+ * @param retention   how long published rows are kept before they are purged
+ */
+@ConfigurationProperties(prefix = "payment.outbox")
+public record OutboxProperties(
+    @DefaultValue("500") int batchSize,
+    @DefaultValue("10s") Duration sendTimeout,
+    @DefaultValue("1d") Duration retention
+) {
+}
@@ -0,0 +1,32 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Period;
+
+/**
+ * Payment table partition maintenance settings ({@code payment.partitions.*}).
+ *
+ * @param monthsAhead monthly partitions kept ready after the current month
+ * @param archive     archiving of old partitions
+ */
+@ConfigurationProperties(prefix = "payment.partitions")
+public record PartitionProperties(
+    @DefaultValue("3") int monthsAhead,
+    @DefaultValue Archive archive
+) {
+
+    /**
+     * @param enabled   write old partitions to {@code directory} and drop them; meant for a single instance
+     * @param retention how long a partition stays in the database, counted from its month
+     * @param directory where the gzip-compressed CSV files are written
+     */
+    public record Archive(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("12m") Period retention,
+        @DefaultValue("archive") Path directory
+    ) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Payment processing settings ({@code payment.processing.*}).
+ *
+ * @param inline   synchronous execution of new payments in the submitting request
+ * @param workflow how payments are handed to Temporal
+ */
+@ConfigurationProperties(prefix = "payment.processing")
+public record PaymentProcessingProperties(
+    @DefaultValue Inline inline,
+    @DefaultValue Workflow workflow
+) {
+
+    /**
+     * @param enabled whether new payments are processed before the submit call returns; Temporal is then only used
+     *                when the inline attempt fails or times out
+     * @param timeout how long the request waits for the inline attempt before handing the payment to Temporal
+     */
+    public record Inline(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("2s") Duration timeout
+    ) {
+    }
+
+    /**
+     * @param mode               one workflow per payment, or one long-running workflow per sender account
+     * @param maxBatchSize       per-sender mode: most payments transferred by one activity call
+     * @param continueAsNewAfter per-sender mode: payments after which the workflow continues as new, capping its
+     *                           history
+     * @param idleTimeout        per-sender mode: how long the workflow waits for the next payment before it completes
+     */
+    public record Workflow(
+        @DefaultValue("per-payment") WorkflowMode mode,
+        @DefaultValue("50") int maxBatchSize,
+        @DefaultValue("1000") int continueAsNewAfter,
+        @DefaultValue("5m") Duration idleTimeout
+    ) {
+    }
+
+    public enum WorkflowMode {
+        PER_PAYMENT,
+        PER_SENDER
+    }
+}
@@ -0,0 +1,25 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Read replica for the query endpoints ({@code payment.read-replica.*}). The replica's own pool is sized through
+ * {@code payment.read-replica.hikari.*}.
+ *
+ * @param enabled         whether a replica pool is created and queries are routed to it
+ * @param url             JDBC URL of the replica
+ * @param username        replica user
+ * @param password        replica password
+ * @param primaryFallback whether a row missing on the replica is looked up on the primary again, so a payment can be
+ *                        fetched right after it was submitted despite replication lag
+ */
+@ConfigurationProperties(prefix = "payment.read-replica")
+public record ReadReplicaProperties(
+    @DefaultValue("false") boolean enabled,
+    String url,
+    String username,
+    String password,
+    @DefaultValue("true") boolean primaryFallback
+) {
+}
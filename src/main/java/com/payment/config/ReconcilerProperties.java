@@ -0,0 +1,21 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Stuck payment reconciliation settings ({@code payment.reconciler.*}).
+ *
+ * @param enabled    whether the reconciler sweeps on a schedule; an on-demand sweep through the API always works
+ * @param stuckAfter how long a payment may stay PENDING or PROCESSING before its workflow is started again
+ * @param batchSize  in-flight payments read per query during a sweep
+ */
+@ConfigurationProperties(prefix = "payment.reconciler")
+public record ReconcilerProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("5m") Duration stuckAfter,
+    @DefaultValue("500") int batchSize
+) {
+}
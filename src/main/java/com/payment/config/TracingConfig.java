@@ -0,0 +1,23 @@
+package com.payment.config;
+
+import com.payment.observability.PaymentTracing;
+import com.payment.observability.TraceContextPropagator;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.spring.boot.TemporalOptionsCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Propagates traces through Temporal. Workers use the client's context propagators, so registering it on the client
+ * covers workflow starts, activity scheduling and activity execution.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public TemporalOptionsCustomizer<WorkflowClientOptions.Builder> traceContextPropagation(PaymentTracing tracing) {
+        return builder -> builder.setContextPropagators(List.of(new TraceContextPropagator(tracing)));
+    }
+}
@@ -0,0 +1,49 @@
+package com.payment.config;
+
+import com.payment.datasource.ConcurrencyLimitingDataSource;
+import com.payment.observability.PinnedThreadMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.temporal.spring.boot.WorkerOptionsCustomizer;
+import io.temporal.worker.WorkerOptions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Virtual-thread mode, enabled with {@code spring.threads.virtual.enabled=true}.
+ * <p>
+ * Spring Boot itself moves Tomcat request handling, {@code @Scheduled} tasks (including the outbox relay, which
+ * blocks on Kafka send acknowledgements) and Kafka listener containers to virtual threads. This configuration adds
+ * the Temporal activity worker of {@link TemporalConfig#PAYMENT_TASK_QUEUE} and records carrier pinning with
+ * {@link PinnedThreadMonitor}. {@link DataSourceConfig} puts a {@link ConcurrencyLimitingDataSource} in front of each
+ * Hikari pool so that thousands of cheap threads do not all queue inside it.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public WorkerOptionsCustomizer virtualThreadWorkerOptions() {
+        return new WorkerOptionsCustomizer() {
+
+            @Override
+            public WorkerOptions.Builder customize(WorkerOptions.Builder builder) {
+                return builder;
+            }
+
+            @Override
+            public WorkerOptions.Builder customize(WorkerOptions.Builder builder, String workerName, String taskQueue) {
+                if (!TemporalConfig.PAYMENT_TASK_QUEUE.equals(taskQueue)) {
+                    return builder;
+                }
+                return builder.setUsingVirtualThreadsOnActivityWorker(true);
+            }
+        };
+    }
+
+    @Bean
+    public PinnedThreadMonitor pinnedThreadMonitor(VirtualThreadProperties properties, MeterRegistry meterRegistry) {
+        return new PinnedThreadMonitor(meterRegistry, properties.pinnedEventThreshold());
+    }
+}
@@ -0,0 +1,33 @@
+package com.payment.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for virtual-thread mode ({@code payment.virtual-threads.*}), only used with
+ * {@code spring.threads.virtual.enabled=true}.
+ *
+ * @param dbLimiter            admission limits in front of the connection pool
+ * @param pinnedEventThreshold shortest carrier pinning that is recorded
+ */
+@ConfigurationProperties(prefix = "payment.virtual-threads")
+public record VirtualThreadProperties(
+    @DefaultValue DbLimiter dbLimiter,
+    @DefaultValue("20ms") Duration pinnedEventThreshold
+) {
+
+    /**
+     * @param maxConcurrent  callers holding a connection at once; 0 uses the pool's {@code maximum-pool-size}
+     * @param maxWaiting     callers waiting for a connection before new ones are rejected
+     * @param acquireTimeout how long a caller waits before it is rejected; kept well below Hikari's
+     *                       {@code connection-timeout}
+     */
+    public record DbLimiter(
+        @DefaultValue("0") int maxConcurrent,
+        @DefaultValue("500") int maxWaiting,
+        @DefaultValue("2s") Duration acquireTimeout
+    ) {
+    }
+}
@@ -3,6 +3,7 @@ package com.payment.controller;
 import com.payment.api.AccountsApi;
 import com.payment.api.model.AccountRequest;
 import com.payment.api.model.AccountResponse;
+import com.payment.api.model.AccountStatisticsResponse;
 import com.payment.service.AccountService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 @RestController
@@ -30,4 +32,10 @@ public class AccountsApiController implements AccountsApi {
         AccountResponse response = accountService.getAccount(accountId);
         return ResponseEntity.ok(response);
     }
+
+    @Override
+    public ResponseEntity<AccountStatisticsResponse> getAccountStatistics(UUID accountId, LocalDate from, LocalDate to) {
+        AccountStatisticsResponse response = accountService.getStatistics(accountId, from, to);
+        return ResponseEntity.ok(response);
+    }
 }
@@ -0,0 +1,55 @@
+package com.payment.controller;
+
+import com.payment.model.PaymentStatus;
+import com.payment.repository.PaymentExportFilter;
+import com.payment.service.PaymentExportFormat;
+import com.payment.service.PaymentExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Streaming payment export. Not part of {@code api/openapi.yaml}: the generated interfaces can only return a
+ * complete body or a {@code Resource}, while this endpoint writes rows as the database cursor delivers them.
+ * <p>
+ * Filters are validated before the response starts. A failure after that can no longer change the status, so it
+ * cuts the response short instead.
+ */
+@RestController
+@RequiredArgsConstructor
+public class PaymentExportController {
+
+    private final PaymentExportService exportService;
+
+    @GetMapping("/api/v1/payments/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+        @RequestParam(required = false) UUID senderAccountId,
+        @RequestParam(required = false) PaymentStatus status,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+        @RequestParam(defaultValue = "NDJSON") PaymentExportFormat format) {
+
+        PaymentExportFilter filter = new PaymentExportFilter(
+            senderAccountId,
+            status,
+            from != null ? from.toInstant() : null,
+            to != null ? to.toInstant() : null
+        );
+        exportService.validate(filter);
+
+        return ResponseEntity.ok()
+            .contentType(format.mediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("payments." + format.extension()).build().toString())
+            .body(out -> exportService.export(filter, format, out));
+    }
+}
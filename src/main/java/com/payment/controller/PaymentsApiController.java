@@ -1,11 +1,17 @@
 package com.payment.controller;
 
 import com.payment.api.PaymentsApi;
+import com.payment.api.model.PaginationMode;
 import com.payment.api.model.PaymentAcceptedResponse;
+import com.payment.api.model.PaymentBatchRequest;
+import com.payment.api.model.PaymentBatchResponse;
 import com.payment.api.model.PaymentListResponse;
 import com.payment.api.model.PaymentRequest;
 import com.payment.api.model.PaymentResponse;
+import com.payment.api.model.ReconciliationResponse;
 import com.payment.model.PaymentStatus;
+import com.payment.service.PaymentBatchService;
+import com.payment.service.PaymentReconciler;
 import com.payment.service.PaymentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -15,6 +21,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
 import java.util.UUID;
 
 @RestController
@@ -22,6 +29,8 @@ import java.util.UUID;
 public class PaymentsApiController implements PaymentsApi {
 
     private final PaymentService paymentService;
+    private final PaymentBatchService paymentBatchService;
+    private final PaymentReconciler paymentReconciler;
 
     @Override
     public ResponseEntity<PaymentAcceptedResponse> submitPayment(
@@ -32,6 +41,12 @@ public class PaymentsApiController implements PaymentsApi {
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
 
+    @Override
+    public ResponseEntity<PaymentBatchResponse> submitPaymentBatch(PaymentBatchRequest paymentBatchRequest) {
+        PaymentBatchResponse response = paymentBatchService.submitBatch(paymentBatchRequest.getItems());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
     @Override
     public ResponseEntity<PaymentResponse> getPayment(UUID paymentId) {
         PaymentResponse response = paymentService.getPayment(paymentId);
@@ -42,10 +57,30 @@ public class PaymentsApiController implements PaymentsApi {
     public ResponseEntity<PaymentListResponse> listPayments(
         UUID senderAccountId,
         com.payment.api.model.PaymentStatus status,
+        PaginationMode pagination,
+        String cursor,
         @PageableDefault(sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
 
         PaymentStatus domainStatus = status != null ? PaymentStatus.valueOf(status.name()) : null;
-        PaymentListResponse response = paymentService.listPayments(senderAccountId, domainStatus, pageable);
+        PaymentListResponse response = pagination == PaginationMode.CURSOR
+            ? paymentService.listPaymentsByCursor(senderAccountId, domainStatus, cursor, pageable.getPageSize())
+            : paymentService.listPayments(senderAccountId, domainStatus, pageable);
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<PaymentListResponse> listInFlightPayments(Integer minAgeSeconds, String cursor, Integer size) {
+        PaymentListResponse response = paymentService.listInFlightPayments(
+            Duration.ofSeconds(minAgeSeconds), cursor, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @Override
+    public ResponseEntity<ReconciliationResponse> reconcileInFlightPayments() {
+        PaymentReconciler.Result result = paymentReconciler.reconcile();
+        ReconciliationResponse response = new ReconciliationResponse();
+        response.setStuck(result.stuck());
+        response.setRedriven(result.redriven());
         return ResponseEntity.ok(response);
     }
 }
@@ -0,0 +1,137 @@
+package com.payment.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control in front of a connection pool.
+ * <p>
+ * At most {@code maxConcurrent} callers hold a connection and at most {@code maxWaiting} wait for one. A caller
+ * beyond that, or one that waits longer than {@code acquireTimeout}, gets a {@link SQLTransientConnectionException}
+ * straight away instead of parking in the pool until its {@code connection-timeout}. The permit is returned when
+ * the connection is closed.
+ * <p>
+ * Exposes {@code payment.db.limiter.active}, {@code payment.db.limiter.waiting} and
+ * {@code payment.db.limiter.rejected}, tagged with the {@code pool} they limit.
+ */
+public class ConcurrencyLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final int maxWaiting;
+    private final long acquireTimeoutNanos;
+    private final Counter rejected;
+
+    public ConcurrencyLimitingDataSource(DataSource target,
+                                         String pool,
+                                         int maxConcurrent,
+                                         int maxWaiting,
+                                         Duration acquireTimeout,
+                                         MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+
+        Gauge.builder("payment.db.limiter.active", permits, p -> maxConcurrent - p.availablePermits())
+            .description("Callers holding a database connection")
+            .tag("pool", pool)
+            .register(meterRegistry);
+        Gauge.builder("payment.db.limiter.waiting", waiting, AtomicInteger::get)
+            .description("Callers waiting for a database connection")
+            .tag("pool", pool)
+            .register(meterRegistry);
+        this.rejected = Counter.builder("payment.db.limiter.rejected")
+            .description("Connection requests rejected because too many callers were waiting")
+            .tag("pool", pool)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return withPermit(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return withPermit(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            rejected.increment();
+            throw new SQLTransientConnectionException("Too many callers waiting for a database connection");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new SQLTransientConnectionException("Timed out waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private Connection withPermit(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+            ConnectionProxy.class.getClassLoader(),
+            new Class<?>[]{ConnectionProxy.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "getTargetConnection" -> target;
+                case "close" -> {
+                    try {
+                        target.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                    yield null;
+                }
+                default -> {
+                    try {
+                        yield method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }
+            });
+    }
+}
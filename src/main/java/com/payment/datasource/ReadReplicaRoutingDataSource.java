@@ -0,0 +1,55 @@
+package com.payment.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions that run inside {@link ReplicaReads} to the replica pool and everything else to the
+ * primary.
+ * <p>
+ * Routing is opt-in rather than applied to every read-only transaction: Spring Data runs each repository call
+ * outside a transaction as a read-only one, and paths such as idempotency lookups or account existence checks must
+ * see rows committed a moment ago.
+ * <p>
+ * Must be wrapped in a {@link LazyConnectionDataSourceProxy}. Hibernate takes its connection when the transaction
+ * begins, before Spring marks the transaction read-only, so the pool may only be chosen once the first statement
+ * runs.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> REPLICA_READS = new ThreadLocal<>();
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.<Object, Object>of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    static <T> T onReplica(Supplier<T> action) {
+        Boolean previous = REPLICA_READS.get();
+        REPLICA_READS.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            REPLICA_READS.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean replica = Boolean.TRUE.equals(REPLICA_READS.get())
+            && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return replica ? Target.REPLICA : Target.PRIMARY;
+    }
+}
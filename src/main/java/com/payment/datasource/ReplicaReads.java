@@ -0,0 +1,47 @@
+package com.payment.datasource;
+
+import com.payment.config.ReadReplicaProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Runs queries that may be served by the read replica. Only read-only transactions whose first statement runs inside
+ * {@link #read} go to the replica; without {@code payment.read-replica.enabled} everything runs on the primary.
+ * <p>
+ * Exposes {@code payment.read-replica.fallbacks}, the lookups repeated on the primary.
+ */
+@Component
+public class ReplicaReads {
+
+    private final boolean primaryFallback;
+    private final Counter fallbacks;
+
+    public ReplicaReads(ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.primaryFallback = properties.enabled() && properties.primaryFallback();
+        this.fallbacks = Counter.builder("payment.read-replica.fallbacks")
+            .description("Lookups repeated on the primary because the row was missing on the replica")
+            .register(meterRegistry);
+    }
+
+    public <T> T read(Supplier<T> query) {
+        return ReadReplicaRoutingDataSource.onReplica(query);
+    }
+
+    /**
+     * Looks a row up on the replica and, when it is missing there and {@code primary-fallback} is set, once more on
+     * the primary: it may have been written too recently to be replicated. Must be called outside a transaction, or
+     * the second lookup reuses the replica connection of the first.
+     */
+    public <T> Optional<T> find(Supplier<Optional<T>> query) {
+        Optional<T> found = read(query);
+        if (found.isPresent() || !primaryFallback) {
+            return found;
+        }
+        fallbacks.increment();
+        return query.get();
+    }
+}
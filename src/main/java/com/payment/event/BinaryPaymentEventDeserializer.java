@@ -0,0 +1,70 @@
+package com.payment.event;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Reads events written by {@link BinaryPaymentEventSerializer}, for consumers of the topic when
+ * {@code payment.events.format=binary}:
+ * {@code value.deserializer=com.payment.event.BinaryPaymentEventDeserializer}.
+ */
+public class BinaryPaymentEventDeserializer implements Deserializer<PaymentCompletedEvent> {
+
+    @Override
+    public PaymentCompletedEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        try {
+            byte version = buffer.get();
+            if (version != BinaryPaymentEventSerializer.VERSION_1) {
+                throw new SerializationException("Unsupported payment event schema version: " + version);
+            }
+            return readVersion1(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new SerializationException("Truncated payment event: " + data.length + " bytes", e);
+        }
+    }
+
+    private static PaymentCompletedEvent readVersion1(ByteBuffer buffer) {
+        UUID paymentId = getUuid(buffer);
+        UUID senderAccountId = getUuid(buffer);
+        UUID receiverAccountId = getUuid(buffer);
+        byte status = buffer.get();
+        int scale = buffer.get();
+        BigDecimal amount = BigDecimal.valueOf(buffer.getLong(), scale);
+        byte[] currency = new byte[3];
+        buffer.get(currency);
+        short errorCode = buffer.getShort();
+        short messageLength = buffer.getShort();
+        String errorMessage = null;
+        if (messageLength >= 0) {
+            byte[] message = new byte[messageLength];
+            buffer.get(message);
+            errorMessage = new String(message, StandardCharsets.UTF_8);
+        }
+
+        return new PaymentCompletedEvent(
+            paymentId,
+            senderAccountId,
+            receiverAccountId,
+            amount,
+            new String(currency, StandardCharsets.US_ASCII),
+            BinaryPaymentEventSerializer.status(status),
+            BinaryPaymentEventSerializer.errorCode(errorCode),
+            errorMessage
+        );
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
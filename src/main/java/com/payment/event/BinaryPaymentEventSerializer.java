@@ -0,0 +1,118 @@
+package com.payment.event;
+
+import com.payment.exception.ErrorCode;
+import com.payment.model.PaymentStatus;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of {@link PaymentCompletedEvent}, read back by {@link BinaryPaymentEventDeserializer}.
+ * <p>
+ * Version 1 layout, big-endian:
+ * <pre>
+ * byte     schema version (1)
+ * 16 bytes paymentId, senderAccountId, receiverAccountId (most significant bits first)
+ * byte     status (0 PENDING, 1 PROCESSING, 2 COMPLETED, 3 FAILED)
+ * byte     amount scale
+ * long     amount unscaled value
+ * 3 bytes  currency, ASCII
+ * short    errorCode numeric code, 0 if none
+ * short    errorMessage length in UTF-8 bytes, -1 if none, followed by the bytes
+ * </pre>
+ * A success event takes 66 bytes. Amounts must fit a long unscaled value, which at scale 2 covers up to
+ * 92,233,720,368,547,758.07; larger ones fail to serialize. New fields go into a new version; the deserializer
+ * keeps reading old ones.
+ */
+public class BinaryPaymentEventSerializer implements Serializer<PaymentCompletedEvent> {
+
+    static final byte VERSION_1 = 1;
+    static final int FIXED_SIZE_V1 = 1 + 3 * 16 + 1 + 1 + Long.BYTES + 3 + Short.BYTES + Short.BYTES;
+
+    @Override
+    public byte[] serialize(String topic, PaymentCompletedEvent event) {
+        if (event == null) {
+            return null;
+        }
+
+        byte[] currency = event.currency().getBytes(StandardCharsets.US_ASCII);
+        if (currency.length != 3) {
+            throw new SerializationException("Currency is not a 3-letter code: " + event.currency());
+        }
+        byte[] message = event.errorMessage() != null
+            ? event.errorMessage().getBytes(StandardCharsets.UTF_8)
+            : null;
+        if (message != null && message.length > Short.MAX_VALUE) {
+            throw new SerializationException("Error message too long: " + message.length + " bytes");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_SIZE_V1 + (message != null ? message.length : 0));
+        buffer.put(VERSION_1);
+        putUuid(buffer, event.paymentId());
+        putUuid(buffer, event.senderAccountId());
+        putUuid(buffer, event.receiverAccountId());
+        buffer.put(statusCode(event.status()));
+        putAmount(buffer, event.amount());
+        buffer.put(currency);
+        buffer.putShort(event.errorCode() != null ? (short) event.errorCode().getNumericCode() : 0);
+        if (message != null) {
+            buffer.putShort((short) message.length);
+            buffer.put(message);
+        } else {
+            buffer.putShort((short) -1);
+        }
+        return buffer.array();
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid.getMostSignificantBits());
+        buffer.putLong(uuid.getLeastSignificantBits());
+    }
+
+    private static void putAmount(ByteBuffer buffer, BigDecimal amount) {
+        if (amount.scale() < 0 || amount.scale() > Byte.MAX_VALUE) {
+            throw new SerializationException("Amount scale out of range: " + amount);
+        }
+        try {
+            buffer.put((byte) amount.scale());
+            buffer.putLong(amount.unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new SerializationException("Amount does not fit a scaled long: " + amount, e);
+        }
+    }
+
+    static byte statusCode(PaymentStatus status) {
+        return switch (status) {
+            case PENDING -> 0;
+            case PROCESSING -> 1;
+            case COMPLETED -> 2;
+            case FAILED -> 3;
+        };
+    }
+
+    static PaymentStatus status(byte code) {
+        return switch (code) {
+            case 0 -> PaymentStatus.PENDING;
+            case 1 -> PaymentStatus.PROCESSING;
+            case 2 -> PaymentStatus.COMPLETED;
+            case 3 -> PaymentStatus.FAILED;
+            default -> throw new SerializationException("Unknown payment status code: " + code);
+        };
+    }
+
+    static ErrorCode errorCode(short numericCode) {
+        if (numericCode == 0) {
+            return null;
+        }
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            if (errorCode.getNumericCode() == numericCode) {
+                return errorCode;
+            }
+        }
+        throw new SerializationException("Unknown error code: " + numericCode);
+    }
+}
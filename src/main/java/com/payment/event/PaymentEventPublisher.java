@@ -0,0 +1,106 @@
+package com.payment.event;
+
+import com.payment.config.KafkaConfig;
+import com.payment.observability.PaymentTracing;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends completion events to {@link KafkaConfig#PAYMENT_NOTIFICATIONS_TOPIC} without blocking the caller.
+ * <p>
+ * Callers fire many sends and then wait on the returned futures, so the producer can batch records per partition
+ * (see {@code spring.kafka.producer.*}). The future completes when the broker acknowledged the record, or
+ * exceptionally when the producer gave up after {@code delivery.timeout.ms}. The partition is picked here, with the
+ * producer's own hash of the key, so in-flight sends and their latency can be tagged with it. The topic's partition
+ * count is looked up once and cached; partitions added to the topic later are used after a restart.
+ */
+@Component
+public class PaymentEventPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<Integer, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private volatile int partitionCount;
+
+    public PaymentEventPublisher(KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CompletableFuture<SendResult<String, Object>> publish(PaymentCompletedEvent event) {
+        return publish(event, null);
+    }
+
+    /**
+     * Publishes the event with a {@code traceparent} header, so consumers continue the trace of the payment's
+     * submission. No header is added when {@code traceParent} is {@code null}.
+     */
+    public CompletableFuture<SendResult<String, Object>> publish(PaymentCompletedEvent event, String traceParent) {
+        String key = event.paymentId().toString();
+        int partition = partitionFor(key);
+        ProducerRecord<String, Object> record =
+            new ProducerRecord<>(KafkaConfig.PAYMENT_NOTIFICATIONS_TOPIC, partition, key, event);
+        if (traceParent != null) {
+            record.headers().add(PaymentTracing.TRACE_PARENT, traceParent.getBytes(StandardCharsets.US_ASCII));
+        }
+        AtomicInteger partitionInFlight = inFlight(partition);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        partitionInFlight.incrementAndGet();
+        CompletableFuture<SendResult<String, Object>> send;
+        try {
+            send = kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            partitionInFlight.decrementAndGet();
+            sample.stop(sendTimer(partition, "failure"));
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return send.whenComplete((result, error) -> {
+            partitionInFlight.decrementAndGet();
+            sample.stop(sendTimer(partition, error == null ? "success" : "failure"));
+        });
+    }
+
+    private int partitionFor(String key) {
+        int partitions = partitionCount;
+        if (partitions == 0) {
+            partitions = kafkaTemplate.partitionsFor(KafkaConfig.PAYMENT_NOTIFICATIONS_TOPIC).size();
+            partitionCount = partitions;
+        }
+        // Same as the default partitioner for keyed records
+        return Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8))) % partitions;
+    }
+
+    private AtomicInteger inFlight(int partition) {
+        return inFlight.computeIfAbsent(partition, p -> {
+            AtomicInteger count = new AtomicInteger();
+            Gauge.builder("payment.events.in-flight", count, AtomicInteger::get)
+                .tag("partition", String.valueOf(p))
+                .description("Completion events sent to Kafka and not yet acknowledged")
+                .register(meterRegistry);
+            return count;
+        });
+    }
+
+    private Timer sendTimer(int partition, String outcome) {
+        return Timer.builder("payment.events.send")
+            .tag("partition", String.valueOf(partition))
+            .tag("outcome", outcome)
+            .description("Time from handing a completion event to the producer until the broker acknowledged it")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+}
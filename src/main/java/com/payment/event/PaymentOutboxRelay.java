@@ -0,0 +1,158 @@
+package com.payment.event;
+
+import com.payment.config.OutboxProperties;
+import com.payment.model.PaymentStatus;
+import com.payment.observability.PaymentMetrics;
+import com.payment.repository.PaymentOutboxRepository;
+import com.payment.repository.PaymentOutboxRepository.OutboxEntry;
+import com.payment.service.IdempotencyCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes completion events from the payment outbox to Kafka.
+ * <p>
+ * Each run drains the outbox batch by batch: a batch is locked, handed to the producer in one go, and the entries
+ * Kafka acknowledged are marked published in the same transaction. Entries whose send failed stay in the outbox and
+ * are retried on the next run, so delivery is at-least-once.
+ * <p>
+ * Unlike the legacy notification activity, the relay does wait for the acknowledgements, on its scheduler thread: the
+ * entries stay locked until they are marked published, so the transaction cannot end earlier. Since the whole batch
+ * is sent first, it waits once per batch rather than once per send.
+ */
+@Component
+@Slf4j
+public class PaymentOutboxRelay {
+
+    private final PaymentOutboxRepository outboxRepository;
+    private final PaymentEventPublisher eventPublisher;
+    private final IdempotencyCache idempotencyCache;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxProperties properties;
+    private final PaymentMetrics metrics;
+
+    public PaymentOutboxRelay(
+        PaymentOutboxRepository outboxRepository,
+        PaymentEventPublisher eventPublisher,
+        IdempotencyCache idempotencyCache,
+        PlatformTransactionManager transactionManager,
+        OutboxProperties properties,
+        PaymentMetrics metrics) {
+
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.idempotencyCache = idempotencyCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.poll-interval:200ms}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+        } while (relayed == properties.batchSize());
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.purge-interval:1h}")
+    public void purgePublished() {
+        int purged = outboxRepository.deletePublishedOlderThan(properties.retention());
+        if (purged > 0) {
+            log.info("Purged {} published outbox entries", purged);
+        }
+    }
+
+    /**
+     * Returns the number of entries removed from the outbox. Less than a full batch means the outbox is drained or
+     * Kafka is struggling; either way the next run picks up the rest.
+     */
+    int relayBatch() {
+        List<OutboxEntry> entries = outboxRepository.lockUnpublished(properties.batchSize());
+        if (entries.isEmpty()) {
+            return 0;
+        }
+
+        Map<OutboxEntry, CompletableFuture<?>> sends = new LinkedHashMap<>();
+        List<Long> skipped = new ArrayList<>();
+        for (OutboxEntry entry : entries) {
+            idempotencyCache.statusChanged(entry.idempotencyKey(), entry.paymentId(), entry.status());
+            PaymentCompletedEvent event = toEvent(entry);
+            if (event == null) {
+                log.warn("Skipping outbox entry for payment {} in status {}", entry.paymentId(), entry.status());
+                skipped.add(entry.id());
+                continue;
+            }
+            sends.put(entry, eventPublisher.publish(event, entry.traceParent()));
+        }
+
+        awaitSends(sends.values());
+
+        List<Long> published = new ArrayList<>(skipped);
+        sends.forEach((entry, send) -> {
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                published.add(entry.id());
+                metrics.recordCompletion(entry.status(), entry.completionLatency());
+            }
+        });
+        outboxRepository.markPublished(published);
+
+        if (published.size() < entries.size()) {
+            log.warn("Published {} of {} outbox entries, the rest will be retried",
+                published.size(), entries.size());
+        } else {
+            log.debug("Published {} outbox entries", published.size());
+        }
+        return published.size();
+    }
+
+    private void awaitSends(Iterable<CompletableFuture<?>> sends) {
+        long deadline = System.nanoTime() + properties.sendTimeout().toNanos();
+        for (CompletableFuture<?> send : sends) {
+            try {
+                send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Failed to publish completion event", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static PaymentCompletedEvent toEvent(OutboxEntry entry) {
+        if (entry.status() == PaymentStatus.COMPLETED) {
+            return PaymentCompletedEvent.success(
+                entry.paymentId(),
+                entry.senderAccountId(),
+                entry.receiverAccountId(),
+                entry.amount(),
+                entry.currency()
+            );
+        }
+        if (entry.status() == PaymentStatus.FAILED) {
+            return PaymentCompletedEvent.failure(
+                entry.paymentId(),
+                entry.senderAccountId(),
+                entry.receiverAccountId(),
+                entry.amount(),
+                entry.currency(),
+                entry.errorCode(),
+                entry.errorMessage()
+            );
+        }
+        return null;
+    }
+}
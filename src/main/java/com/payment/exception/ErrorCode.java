@@ -23,9 +23,12 @@ public enum ErrorCode {
     // Validation errors (3xxx)
     VALIDATION_ERROR(3001, HttpStatus.BAD_REQUEST),
     INVALID_AMOUNT(3002, HttpStatus.BAD_REQUEST),
+    INVALID_CURSOR(3004, HttpStatus.BAD_REQUEST),
+    INVALID_DATE_RANGE(3005, HttpStatus.BAD_REQUEST),
 
     // System errors (5xxx)
-    INTERNAL_ERROR(5001, HttpStatus.INTERNAL_SERVER_ERROR);
+    INTERNAL_ERROR(5001, HttpStatus.INTERNAL_SERVER_ERROR),
+    SERVICE_UNAVAILABLE(5002, HttpStatus.SERVICE_UNAVAILABLE);
 
     private final int numericCode;
     private final HttpStatus httpStatus;
@@ -2,10 +2,14 @@ package com.payment.exception;
 
 import com.payment.api.model.ErrorResponse;
 import com.payment.exception.validation.PaymentValidationException;
+import com.payment.observability.PaymentMetrics;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -13,9 +17,12 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import java.time.OffsetDateTime;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private final PaymentMetrics metrics;
+
     @ExceptionHandler(PaymentException.class)
     public ResponseEntity<ErrorResponse> handlePaymentException(PaymentException ex, HttpServletRequest request) {
         return buildErrorResponse(ex.getErrorCode(), ex.getMessage(), request);
@@ -40,6 +47,12 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ErrorCode.VALIDATION_ERROR, message, request);
     }
 
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailable(Exception ex, HttpServletRequest request) {
+        log.warn("Database connection not available: {}", ex.getMessage());
+        return buildErrorResponse(ErrorCode.SERVICE_UNAVAILABLE, "Service is busy, please retry", request);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGeneric(Exception ex, HttpServletRequest request) {
         log.error("Unexpected error", ex);
@@ -47,6 +60,7 @@ public class GlobalExceptionHandler {
     }
 
     private ResponseEntity<ErrorResponse> buildErrorResponse(ErrorCode errorCode, String message, HttpServletRequest request) {
+        metrics.recordError(PaymentMetrics.ErrorSource.API, errorCode);
         HttpStatus status = errorCode.getHttpStatus();
 
         ErrorResponse error = new ErrorResponse();
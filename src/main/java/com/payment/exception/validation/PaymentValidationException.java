@@ -1,9 +1,11 @@
 package com.payment.exception.validation;
 
 import com.payment.exception.ErrorCode;
+import com.payment.model.Money;
 import lombok.Getter;
 
-import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.UUID;
 
 @Getter
@@ -16,7 +18,7 @@ public class PaymentValidationException extends RuntimeException {
         this.errorCode = errorCode;
     }
 
-    public static PaymentValidationException invalidAmount(BigDecimal amount) {
+    public static PaymentValidationException invalidAmount(Money amount) {
         return new PaymentValidationException(
             ErrorCode.INVALID_AMOUNT,
             String.format("Invalid payment amount: %s. Amount must be greater than zero", amount)
@@ -29,4 +31,26 @@ public class PaymentValidationException extends RuntimeException {
             String.format("Sender and receiver cannot be the same account: %s", accountId)
         );
     }
+
+    public static PaymentValidationException invalidCursor(String cursor) {
+        return new PaymentValidationException(
+            ErrorCode.INVALID_CURSOR,
+            String.format("Invalid pagination cursor: %s", cursor)
+        );
+    }
+
+    public static PaymentValidationException invalidDateRange(Instant from, Instant to) {
+        return new PaymentValidationException(
+            ErrorCode.INVALID_DATE_RANGE,
+            String.format("Invalid date range: from %s is not before to %s", from, to)
+        );
+    }
+
+    public static PaymentValidationException invalidDateRange(LocalDate from, LocalDate to, int maxDays) {
+        return new PaymentValidationException(
+            ErrorCode.INVALID_DATE_RANGE,
+            String.format("Invalid date range: %s to %s must not be reversed or span more than %d days",
+                from, to, maxDays)
+        );
+    }
 }
@@ -0,0 +1,244 @@
+package com.payment.ledger;
+
+import com.payment.exception.ErrorCode;
+import com.payment.exception.business.InsufficientBalanceException;
+import com.payment.model.Account;
+import com.payment.model.AccountBalanceBucket;
+import com.payment.model.Money;
+import com.payment.repository.AccountStatisticsRepository;
+import com.payment.repository.AccountStatisticsRepository.CompletedTransfer;
+import com.payment.repository.PaymentOutboxRepository;
+import com.payment.temporal.activity.TransferResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Applies a batch of transfers in a single transaction.
+ * <p>
+ * All touched accounts are locked once, in id order, the transfers are applied in memory in submission order and
+ * the result is flushed with JDBC batch updates. Business failures only affect the payment they belong to.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.ledger", name = "engine", havingValue = "batching")
+@RequiredArgsConstructor
+@Slf4j
+public class BatchTransferProcessor {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final PaymentOutboxRepository outboxRepository;
+    private final AccountStatisticsRepository statisticsRepository;
+
+    /**
+     * Returns a result per known payment id; ids without a payment row are absent from the result.
+     */
+    @Transactional
+    public Map<UUID, TransferResult> process(List<UUID> paymentIds) {
+        Map<UUID, PaymentRow> payments = loadPayments(paymentIds);
+        if (payments.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<UUID, Account> accounts = lockAccounts(payments.values());
+        Set<UUID> pending = lockPendingPayments(payments.keySet());
+
+        var batch = new BatchState(accounts);
+        Map<UUID, TransferResult> results = new LinkedHashMap<>();
+        for (UUID paymentId : paymentIds) {
+            PaymentRow payment = payments.get(paymentId);
+            if (payment == null || results.containsKey(paymentId)) {
+                continue;
+            }
+            if (!pending.contains(paymentId)) {
+                log.info("Payment {} already processed", paymentId);
+                results.put(paymentId, TransferResult.alreadyProcessed());
+                continue;
+            }
+            results.put(paymentId, apply(payment, batch));
+        }
+
+        flush(batch);
+        log.info("Applied batch of {} payments, {} completed", results.size(), batch.completedPayments.size());
+        return results;
+    }
+
+    private TransferResult apply(PaymentRow payment, BatchState batch) {
+        Account sender = batch.accounts.get(payment.senderAccountId());
+        Account receiver = batch.accounts.get(payment.receiverAccountId());
+
+        if (sender == null) {
+            log.warn("Sender account not found: {}", payment.senderAccountId());
+            return TransferResult.failure(ErrorCode.SENDER_ACCOUNT_NOT_FOUND,
+                "Sender account not found: " + payment.senderAccountId());
+        }
+
+        if (receiver == null) {
+            log.warn("Receiver account not found: {}", payment.receiverAccountId());
+            return TransferResult.failure(ErrorCode.RECEIVER_ACCOUNT_NOT_FOUND,
+                "Receiver account not found: " + payment.receiverAccountId());
+        }
+
+        try {
+            sender.debit(payment.amount(), () -> sweepBuckets(sender.getId(), batch));
+        } catch (InsufficientBalanceException e) {
+            log.warn(
+                "Insufficient balance for payment {}: balance={}, amount={}",
+                payment.id(), e.getCurrentBalance(), e.getRequestedAmount()
+            );
+            return TransferResult.failure(ErrorCode.INSUFFICIENT_BALANCE,
+                "Insufficient balance. Available: " + e.getCurrentBalance() + ", Required: " + e.getRequestedAmount());
+        }
+        // The receiver row is locked anyway, so credits go to the main balance even for striped accounts
+        receiver.credit(payment.amount());
+
+        batch.dirtyAccounts.add(sender.getId());
+        batch.dirtyAccounts.add(receiver.getId());
+        batch.completedPayments.add(payment.id());
+        batch.completedTransfers.add(new CompletedTransfer(sender.getId(), receiver.getId(),
+            AccountStatisticsRepository.ACCOUNT_SLOT, payment.amount()));
+        return TransferResult.success();
+    }
+
+    private Map<UUID, PaymentRow> loadPayments(List<UUID> paymentIds) {
+        Map<UUID, PaymentRow> payments = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT id, sender_account_id, receiver_account_id, amount, currency FROM payment WHERE id IN (:ids)",
+            Map.of("ids", new HashSet<>(paymentIds)),
+            rs -> {
+                var row = new PaymentRow(
+                    rs.getObject("id", UUID.class),
+                    rs.getObject("sender_account_id", UUID.class),
+                    rs.getObject("receiver_account_id", UUID.class),
+                    Money.of(rs.getBigDecimal("amount"), rs.getString("currency"))
+                );
+                payments.put(row.id(), row);
+            }
+        );
+        return payments;
+    }
+
+    private Map<UUID, Account> lockAccounts(Collection<PaymentRow> payments) {
+        Set<UUID> accountIds = new TreeSet<>();
+        payments.forEach(p -> {
+            accountIds.add(p.senderAccountId());
+            accountIds.add(p.receiverAccountId());
+        });
+
+        Map<UUID, Account> accounts = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT id, balance, currency, stripe_count FROM account WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+            Map.of("ids", accountIds),
+            rs -> {
+                var account = new Account(
+                    rs.getObject("id", UUID.class),
+                    Money.of(rs.getBigDecimal("balance"), rs.getString("currency")),
+                    rs.getInt("stripe_count")
+                );
+                accounts.put(account.getId(), account);
+            }
+        );
+        return accounts;
+    }
+
+    /**
+     * Locks the payment rows after the accounts (same order as the locking engine) and re-checks their status, so a
+     * payment processed concurrently elsewhere is not applied twice.
+     */
+    private Set<UUID> lockPendingPayments(Set<UUID> paymentIds) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT id FROM payment WHERE id IN (:ids) AND status IN ('PENDING', 'PROCESSING') ORDER BY id FOR UPDATE",
+            Map.of("ids", paymentIds),
+            UUID.class
+        ));
+    }
+
+    /**
+     * Only called for a striped sender whose row this transaction already holds, so no other batch can be
+     * sweeping the same buckets. The buckets are only zeroed in {@link #flush}, so a second sweep of the same
+     * account within the batch returns nothing: their balances are already part of the in-memory account.
+     */
+    private List<AccountBalanceBucket> sweepBuckets(UUID accountId, BatchState batch) {
+        if (batch.sweptAccounts.contains(accountId)) {
+            return List.of();
+        }
+        String currency = batch.accounts.get(accountId).getCurrency();
+        List<AccountBalanceBucket> buckets = jdbcTemplate.query(
+            "SELECT bucket_index, balance FROM account_balance_bucket WHERE account_id = :accountId "
+                + "ORDER BY bucket_index FOR UPDATE",
+            Map.of("accountId", accountId),
+            (rs, rowNum) -> {
+                var bucket = new AccountBalanceBucket(accountId, rs.getInt("bucket_index"));
+                bucket.credit(Money.of(rs.getBigDecimal("balance"), currency));
+                return bucket;
+            }
+        );
+        batch.sweptAccounts.add(accountId);
+        batch.dirtyAccounts.add(accountId);
+        return buckets;
+    }
+
+    private void flush(BatchState batch) {
+        if (!batch.dirtyAccounts.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE account SET balance = :balance, version = version + 1, updated_at = now() WHERE id = :id",
+                batch.dirtyAccounts.stream()
+                    .map(batch.accounts::get)
+                    .map(account -> new MapSqlParameterSource()
+                        .addValue("id", account.getId())
+                        .addValue("balance", account.getBalance().toBigDecimal()))
+                    .toArray(SqlParameterSource[]::new)
+            );
+        }
+
+        if (!batch.sweptAccounts.isEmpty()) {
+            jdbcTemplate.update(
+                "UPDATE account_balance_bucket SET balance = 0, version = version + 1, updated_at = now() "
+                    + "WHERE account_id IN (:ids)",
+                Map.of("ids", batch.sweptAccounts)
+            );
+        }
+
+        if (!batch.completedPayments.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE payment SET status = 'COMPLETED', version = version + 1, updated_at = now() WHERE id = :id",
+                batch.completedPayments.stream()
+                    .map(id -> new MapSqlParameterSource("id", id))
+                    .toArray(SqlParameterSource[]::new)
+            );
+            outboxRepository.appendAll(batch.completedPayments);
+            statisticsRepository.addCompleted(batch.completedTransfers);
+        }
+    }
+
+    private record PaymentRow(UUID id, UUID senderAccountId, UUID receiverAccountId, Money amount) {
+    }
+
+    private static final class BatchState {
+
+        private final Map<UUID, Account> accounts;
+        private final Set<UUID> dirtyAccounts = new TreeSet<>();
+        private final Set<UUID> sweptAccounts = new TreeSet<>();
+        private final List<UUID> completedPayments = new ArrayList<>();
+        private final List<CompletedTransfer> completedTransfers = new ArrayList<>();
+
+        private BatchState(Map<UUID, Account> accounts) {
+            this.accounts = accounts;
+        }
+    }
+}
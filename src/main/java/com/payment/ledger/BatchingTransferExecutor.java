@@ -0,0 +1,160 @@
+package com.payment.ledger;
+
+import com.payment.config.LedgerProperties;
+import com.payment.temporal.activity.TransferResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collects transfers from concurrent callers for a few milliseconds (or until the batch is full) and applies them
+ * together through {@link BatchTransferProcessor}, so commit latency is paid once per batch instead of per payment.
+ * Callers block until their batch has been committed. {@link #executeAll} queues all of its transfers at once, so
+ * they share batches instead of waiting out a batch window each.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.ledger", name = "engine", havingValue = "batching")
+@Slf4j
+public class BatchingTransferExecutor implements TransferExecutor {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final BatchTransferProcessor processor;
+    private final LedgerProperties.Batch settings;
+    private final BlockingQueue<PendingTransfer> queue;
+
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    public BatchingTransferExecutor(BatchTransferProcessor processor, LedgerProperties properties) {
+        this.processor = processor;
+        this.settings = properties.batch();
+        this.queue = new LinkedBlockingQueue<>();
+    }
+
+    @PostConstruct
+    void start() {
+        flusher = Thread.ofPlatform().name("ledger-batch-flusher").daemon().start(this::run);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(settings.resultTimeout().toMillis());
+    }
+
+    @Override
+    public TransferResult execute(UUID paymentId) {
+        var transfer = new PendingTransfer(paymentId, new CompletableFuture<>());
+        queue.add(transfer);
+        return await(transfer, System.nanoTime() + settings.resultTimeout().toNanos());
+    }
+
+    @Override
+    public List<TransferResult> executeAll(List<UUID> paymentIds) {
+        List<PendingTransfer> transfers = paymentIds.stream()
+            .map(paymentId -> new PendingTransfer(paymentId, new CompletableFuture<>()))
+            .toList();
+        queue.addAll(transfers);
+
+        long deadline = System.nanoTime() + settings.resultTimeout().toNanos();
+        return transfers.stream()
+            .map(transfer -> await(transfer, deadline))
+            .toList();
+    }
+
+    private TransferResult await(PendingTransfer transfer, long deadline) {
+        UUID paymentId = transfer.paymentId();
+        try {
+            return transfer.result().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for transfer of payment " + paymentId, e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for transfer batch of payment " + paymentId, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Transfer batch failed for payment " + paymentId, e.getCause());
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                List<PendingTransfer> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    applyBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        // Fail whatever is left so callers retry instead of waiting for their timeout
+        List<PendingTransfer> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(t -> t.result().completeExceptionally(new IllegalStateException("Ledger batcher stopped")));
+    }
+
+    private List<PendingTransfer> nextBatch() throws InterruptedException {
+        PendingTransfer first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return List.of();
+        }
+
+        List<PendingTransfer> batch = new ArrayList<>(settings.maxSize());
+        batch.add(first);
+        long deadline = System.nanoTime() + settings.maxWait().toNanos();
+
+        while (batch.size() < settings.maxSize()) {
+            long remaining = deadline - System.nanoTime();
+            PendingTransfer next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void applyBatch(List<PendingTransfer> batch) {
+        Map<UUID, TransferResult> results;
+        try {
+            results = processor.process(batch.stream().map(PendingTransfer::paymentId).toList());
+        } catch (RuntimeException e) {
+            log.error("Transfer batch of {} payments failed", batch.size(), e);
+            batch.forEach(t -> t.result().completeExceptionally(e));
+            return;
+        }
+
+        for (PendingTransfer transfer : batch) {
+            TransferResult result = results.get(transfer.paymentId());
+            if (result != null) {
+                transfer.result().complete(result);
+            } else {
+                transfer.result().completeExceptionally(
+                    new IllegalStateException("Payment not found: " + transfer.paymentId()));
+            }
+        }
+    }
+
+    private record PendingTransfer(UUID paymentId, CompletableFuture<TransferResult> result) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.payment.ledger;
+
+import com.payment.config.LedgerProperties;
+import com.payment.observability.PaymentTracing;
+import com.payment.repository.PaymentRepository;
+import com.payment.temporal.activity.TransferResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs transfers of the configured engine on single-writer lanes keyed by sender account.
+ * <p>
+ * Payments debiting the same account always map to the same lane and run one after another, so they wait in memory
+ * instead of in the Postgres lock queue of the sender row, each holding a connection. A lane runs one transfer at a
+ * time, so the lane count also caps concurrent transfers. Only contention within this instance is removed; other
+ * instances still meet at the row lock. A lane queues at most {@code lanes.queue-capacity} transfers; beyond that
+ * transfers fail fast and are retried by Temporal. The caller's trace and MDC follow the transfer onto the lane.
+ * Exposes {@code payment.ledger.lane.depth{lane}} and {@code payment.ledger.lane.wait}.
+ * <p>
+ * Only transfers of the same sender are serialized. A transfer also locks its receiver's row, so two transfers in
+ * opposite directions between the same accounts usually run on different lanes and may still wait for each other on
+ * a row lock; locks are taken in id order, so they do not deadlock. No single key avoids that: keying by the account
+ * pair would spread one sender's payments across lanes and bring back the contention on its row.
+ * <p>
+ * Not combined with the {@code batching} engine: a lane would wait for every batch its transfer joins, so each lane
+ * could contribute only one transfer per flush window.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "payment.ledger.lanes", name = "enabled", havingValue = "true")
+@Slf4j
+public class LaneRoutingTransferExecutor implements TransferExecutor {
+
+    private final TransferExecutor engine;
+    private final PaymentRepository paymentRepository;
+    private final PaymentTracing tracing;
+    private final LedgerProperties.Lanes settings;
+    private final ThreadPoolExecutor[] lanes;
+    private final Timer waitTimer;
+
+    /**
+     * @param engine the engine selected by {@code payment.ledger.engine}; this bean is not a candidate for its own
+     *               injection, so the only other {@link TransferExecutor} is injected
+     */
+    public LaneRoutingTransferExecutor(TransferExecutor engine,
+                                       PaymentRepository paymentRepository,
+                                       PaymentTracing tracing,
+                                       LedgerProperties properties,
+                                       MeterRegistry meterRegistry) {
+        if (properties.engine() == LedgerProperties.Engine.BATCHING) {
+            throw new IllegalStateException(
+                "payment.ledger.lanes.enabled is not supported with payment.ledger.engine=batching");
+        }
+        this.engine = engine;
+        this.paymentRepository = paymentRepository;
+        this.tracing = tracing;
+        this.settings = properties.lanes();
+        this.lanes = new ThreadPoolExecutor[settings.count()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(settings.queueCapacity()),
+                Thread.ofPlatform().name("ledger-lane-" + i).daemon().factory());
+            Gauge.builder("payment.ledger.lane.depth", lanes[i], lane -> lane.getQueue().size() + lane.getActiveCount())
+                .description("Transfers queued or running on a ledger lane")
+                .tag("lane", String.valueOf(i))
+                .register(meterRegistry);
+        }
+        this.waitTimer = Timer.builder("payment.ledger.lane.wait")
+            .description("Time a transfer waited for its ledger lane")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        for (ThreadPoolExecutor lane : lanes) {
+            // Cancel queued transfers so callers retry instead of waiting for their timeout
+            lane.shutdownNow().forEach(task -> ((Future<?>) task).cancel(false));
+        }
+    }
+
+    @Override
+    public TransferResult execute(UUID paymentId) {
+        Optional<UUID> senderId = paymentRepository.findSenderAccountIdById(paymentId);
+        if (senderId.isEmpty()) {
+            // Nothing to serialize; the engine reports the missing payment
+            return engine.execute(paymentId);
+        }
+
+        ThreadPoolExecutor lane = lanes[Math.floorMod(senderId.get().hashCode(), lanes.length)];
+        String traceParent = tracing.currentTraceParent();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        long enqueuedAt = System.nanoTime();
+        Future<TransferResult> result;
+        try {
+            result = lane.submit(() -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                return runOnLane(paymentId, traceParent, mdc);
+            });
+        } catch (RejectedExecutionException e) {
+            if (lane.isShutdown()) {
+                throw new IllegalStateException("Ledger lanes stopped", e);
+            }
+            throw new IllegalStateException("Ledger lane full, rejected transfer of payment " + paymentId, e);
+        }
+
+        try {
+            return result.get(settings.resultTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for transfer of payment " + paymentId, e);
+        } catch (TimeoutException e) {
+            // A transfer that already started still completes; the engine reports it as processed on retry
+            result.cancel(false);
+            log.warn("Timed out waiting for ledger lane of payment {}", paymentId);
+            throw new IllegalStateException("Timed out waiting for ledger lane of payment " + paymentId, e);
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Ledger lanes stopped", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Transfer failed for payment " + paymentId, e.getCause());
+        }
+    }
+
+    /**
+     * The lane thread is shared by all senders of the lane, so the caller's MDC replaces whatever it had and is
+     * cleared afterwards.
+     */
+    private TransferResult runOnLane(UUID paymentId, String traceParent, Map<String, String> mdc) {
+        if (mdc != null) {
+            MDC.setContextMap(mdc);
+        } else {
+            MDC.clear();
+        }
+        try {
+            return tracing.inSpan("payment.ledger.lane", traceParent, () -> engine.execute(paymentId));
+        } finally {
+            MDC.clear();
+        }
+    }
+}
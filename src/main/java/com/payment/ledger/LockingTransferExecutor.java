@@ -0,0 +1,172 @@
+package com.payment.ledger;
+
+import com.payment.exception.ErrorCode;
+import com.payment.exception.business.InsufficientBalanceException;
+import com.payment.model.Account;
+import com.payment.model.AccountBalanceBucket;
+import com.payment.model.AccountBalanceBucketId;
+import com.payment.model.Payment;
+import com.payment.observability.PaymentMetrics;
+import com.payment.observability.PaymentMetrics.LockTarget;
+import com.payment.observability.PaymentMetrics.TransferPhase;
+import com.payment.repository.AccountBalanceBucketRepository;
+import com.payment.repository.AccountRepository;
+import com.payment.repository.AccountStatisticsRepository;
+import com.payment.repository.AccountStatisticsRepository.CompletedTransfer;
+import com.payment.repository.PaymentOutboxRepository;
+import com.payment.repository.PaymentRepository;
+import com.payment.temporal.activity.TransferResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Applies each transfer in its own transaction, locking the sender and receiver rows in UUID order.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.ledger", name = "engine", havingValue = "locking", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class LockingTransferExecutor implements TransferExecutor {
+
+    private final PaymentRepository paymentRepository;
+    private final AccountRepository accountRepository;
+    private final AccountBalanceBucketRepository bucketRepository;
+    private final PaymentOutboxRepository outboxRepository;
+    private final AccountStatisticsRepository statisticsRepository;
+    private final PaymentMetrics metrics;
+
+    @Override
+    @Transactional
+    public TransferResult execute(UUID paymentId) {
+        log.info("Executing transfer for payment: {}", paymentId);
+
+        long lap = System.nanoTime();
+        Payment payment = paymentRepository.findById(paymentId)
+            .orElseThrow(() -> new IllegalStateException("Payment not found: " + paymentId));
+
+        // PROCESSING is not final: an earlier attempt failed its debit and the failure was never recorded
+        if (payment.getStatus().isTerminal()) {
+            log.info("Payment {} already processed, status: {}", paymentId, payment.getStatus());
+            return TransferResult.alreadyProcessed();
+        }
+
+        lap = metrics.recordTransferPhase(TransferPhase.LOAD, lap);
+
+        var accounts = loadAccountsWithLockOrdering(
+            payment.getSenderAccountId(),
+            payment.getReceiverAccountId()
+        );
+        lap = metrics.recordTransferPhase(TransferPhase.LOCK, lap);
+        Account sender = accounts.sender();
+        Account receiver = accounts.receiver();
+
+        // Validate accounts exist before any writes
+        if (sender == null) {
+            log.warn("Sender account not found: {}", payment.getSenderAccountId());
+            return TransferResult.failure(ErrorCode.SENDER_ACCOUNT_NOT_FOUND,
+                "Sender account not found: " + payment.getSenderAccountId());
+        }
+
+        if (receiver == null && !accounts.receiverStriped()) {
+            log.warn("Receiver account not found: {}", payment.getReceiverAccountId());
+            return TransferResult.failure(ErrorCode.RECEIVER_ACCOUNT_NOT_FOUND,
+                "Receiver account not found: " + payment.getReceiverAccountId());
+        }
+
+        AccountBalanceBucketId creditBucketId = accounts.receiverStriped()
+            ? new AccountBalanceBucketId(
+                payment.getReceiverAccountId(), AccountBalanceBucket.indexFor(paymentId, accounts.receiverStripes()))
+            : null;
+
+        // Proceed with transfer - Account.debit() validates sufficient balance. The payment is only marked
+        // PROCESSING once the debit succeeded, so a failed debit does not commit a status nothing else resolves.
+        try {
+            sender.debit(payment.getAmount(), () -> lockBucketsForSweep(sender.getId(), creditBucketId));
+        } catch (InsufficientBalanceException e) {
+            log.warn(
+                "Insufficient balance for payment {}: balance={}, amount={}",
+                paymentId, e.getCurrentBalance(), e.getRequestedAmount()
+            );
+            return TransferResult.failure(ErrorCode.INSUFFICIENT_BALANCE,
+                "Insufficient balance. Available: " + e.getCurrentBalance() + ", Required: " + e.getRequestedAmount());
+        }
+        payment.markProcessing();
+
+        if (creditBucketId != null) {
+            AccountBalanceBucket bucket = metrics.recordLockWait(
+                    LockTarget.BUCKET, () -> bucketRepository.findByIdWithLock(creditBucketId))
+                .orElseThrow(() -> new IllegalStateException("Balance bucket not found: " + creditBucketId));
+            bucket.credit(payment.getAmount());
+        } else {
+            receiver.credit(payment.getAmount());
+        }
+        payment.markCompleted();
+        outboxRepository.append(paymentId);
+        statisticsRepository.addCompleted(List.of(new CompletedTransfer(
+            sender.getId(),
+            payment.getReceiverAccountId(),
+            creditBucketId != null
+                ? AccountStatisticsRepository.bucketSlot(creditBucketId.getBucketIndex())
+                : AccountStatisticsRepository.ACCOUNT_SLOT,
+            payment.getAmount()
+        )));
+        metrics.recordTransferPhase(TransferPhase.APPLY, lap);
+        metrics.recordCommitPhase();
+
+        log.info("Transfer successful for payment {}", paymentId);
+        return TransferResult.success();
+    }
+
+    /**
+     * Loads both accounts with pessimistic locks in a consistent order to prevent deadlocks.
+     * Always acquires locks in UUID order regardless of which is sender/receiver.
+     * <p>
+     * A striped receiver's row is not locked at all: its credit lands on a balance bucket instead. Bucket locks
+     * are only ever taken after all account rows, in (account, bucket) order.
+     */
+    private AccountPair loadAccountsWithLockOrdering(UUID senderId, UUID receiverId) {
+        int receiverStripes = accountRepository.findStripeCountById(receiverId).orElse(0);
+        if (receiverStripes > 0) {
+            Account sender = lockAccount(senderId);
+            return new AccountPair(sender, null, receiverStripes);
+        }
+
+        boolean senderFirst = senderId.compareTo(receiverId) < 0;
+
+        Account first = lockAccount(senderFirst ? senderId : receiverId);
+        Account second = lockAccount(senderFirst ? receiverId : senderId);
+
+        return senderFirst
+            ? new AccountPair(first, second, 0)
+            : new AccountPair(second, first, 0);
+    }
+
+    private Account lockAccount(UUID accountId) {
+        return metrics.recordLockWait(LockTarget.ACCOUNT, () -> accountRepository.findByIdWithLock(accountId))
+            .orElse(null);
+    }
+
+    /**
+     * Locks all buckets of a striped sender so they can be swept into its main balance. If the receiver's credit
+     * bucket sorts before them it is locked first, keeping bucket lock order global.
+     */
+    private List<AccountBalanceBucket> lockBucketsForSweep(UUID senderId, AccountBalanceBucketId creditBucketId) {
+        if (creditBucketId != null && creditBucketId.getAccountId().compareTo(senderId) < 0) {
+            metrics.recordLockWait(LockTarget.BUCKET, () -> bucketRepository.findByIdWithLock(creditBucketId));
+        }
+        return metrics.recordLockWait(LockTarget.BUCKET, () -> bucketRepository.findAllByAccountIdWithLock(senderId));
+    }
+
+    private record AccountPair(Account sender, Account receiver, int receiverStripes) {
+
+        boolean receiverStriped() {
+            return receiverStripes > 0;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.payment.ledger;
+
+import com.payment.exception.ErrorCode;
+import com.payment.temporal.activity.TransferResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies each transfer with one call to the {@code ledger_transfer} database function.
+ * <p>
+ * The function locks the account rows in id order, debits the sender with a conditional
+ * {@code UPDATE ... WHERE balance >= amount}, credits the receiver (or its balance bucket when striped), moves the
+ * payment from PENDING to COMPLETED, appends the outbox row and counts the payment in the account statistics
+ * ({@link com.payment.repository.AccountStatisticsRepository}), all in a single round trip and transaction. Results
+ * and error messages are the same as those of {@link LockingTransferExecutor}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.ledger", name = "engine", havingValue = "sql")
+@RequiredArgsConstructor
+@Slf4j
+public class SqlTransferExecutor implements TransferExecutor {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public TransferResult execute(UUID paymentId) {
+        log.info("Executing transfer for payment: {}", paymentId);
+
+        Outcome outcome = jdbcTemplate.queryForObject(
+            "SELECT * FROM ledger_transfer(:paymentId, :bucketHash)",
+            Map.of("paymentId", paymentId, "bucketHash", paymentId.hashCode()),
+            (rs, rowNum) -> new Outcome(
+                rs.getString("outcome"),
+                rs.getObject("payment_sender_id", UUID.class),
+                rs.getObject("payment_receiver_id", UUID.class),
+                rs.getBigDecimal("available"),
+                rs.getBigDecimal("required")
+            )
+        );
+
+        return switch (outcome.code()) {
+            case "COMPLETED" -> {
+                log.info("Transfer successful for payment {}", paymentId);
+                yield TransferResult.success();
+            }
+            case "ALREADY_PROCESSED" -> {
+                log.info("Payment {} already processed", paymentId);
+                yield TransferResult.alreadyProcessed();
+            }
+            case "SENDER_ACCOUNT_NOT_FOUND" -> {
+                log.warn("Sender account not found: {}", outcome.senderAccountId());
+                yield TransferResult.failure(ErrorCode.SENDER_ACCOUNT_NOT_FOUND,
+                    "Sender account not found: " + outcome.senderAccountId());
+            }
+            case "RECEIVER_ACCOUNT_NOT_FOUND" -> {
+                log.warn("Receiver account not found: {}", outcome.receiverAccountId());
+                yield TransferResult.failure(ErrorCode.RECEIVER_ACCOUNT_NOT_FOUND,
+                    "Receiver account not found: " + outcome.receiverAccountId());
+            }
+            case "INSUFFICIENT_BALANCE" -> {
+                log.warn(
+                    "Insufficient balance for payment {}: balance={}, amount={}",
+                    paymentId, outcome.available(), outcome.required()
+                );
+                yield TransferResult.failure(ErrorCode.INSUFFICIENT_BALANCE,
+                    "Insufficient balance. Available: " + outcome.available() + ", Required: " + outcome.required());
+            }
+            case "PAYMENT_NOT_FOUND" -> throw new IllegalStateException("Payment not found: " + paymentId);
+            default -> throw new IllegalStateException("Unexpected ledger_transfer outcome: " + outcome.code());
+        };
+    }
+
+    private record Outcome(
+        String code,
+        UUID senderAccountId,
+        UUID receiverAccountId,
+        BigDecimal available,
+        BigDecimal required
+    ) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.payment.ledger;
+
+import com.payment.temporal.activity.TransferResult;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Applies the fund transfer of a pending payment.
+ * <p>
+ * Implementations must be idempotent: a payment that is COMPLETED or FAILED is reported as already processed. A
+ * PROCESSING payment is applied like a PENDING one: earlier versions committed PROCESSING when the debit failed, and
+ * such a payment has moved no money.
+ * Business failures (missing account, insufficient balance) are returned as a failed {@link TransferResult};
+ * anything thrown is treated as a technical failure and retried by the caller.
+ */
+public interface TransferExecutor {
+
+    TransferResult execute(UUID paymentId);
+
+    /**
+     * Applies several transfers, returning their results in order. By default one after another; engines that apply
+     * many payments per transaction take them all at once.
+     */
+    default List<TransferResult> executeAll(List<UUID> paymentIds) {
+        return paymentIds.stream()
+            .map(this::execute)
+            .toList();
+    }
+}
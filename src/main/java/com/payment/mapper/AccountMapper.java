@@ -0,0 +1,73 @@
+package com.payment.mapper;
+
+import com.payment.api.model.AccountResponse;
+import com.payment.api.model.AccountStatisticsDay;
+import com.payment.api.model.AccountStatisticsResponse;
+import com.payment.api.model.AccountStatisticsTotal;
+import com.payment.model.Account;
+import com.payment.repository.AccountStatisticsRepository.AccountDailyStatistics;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Maps accounts to API responses with plain field copies.
+ */
+@Component
+public class AccountMapper {
+
+    public AccountResponse toResponse(Account account) {
+        AccountResponse response = new AccountResponse();
+        response.setAccountId(account.getId());
+        response.setBalance(MappingSupport.toPlainString(account.getBalance()));
+        response.setCurrency(account.getCurrency());
+        return response;
+    }
+
+    /**
+     * Totals are summed from the daily rows, ordered by currency.
+     */
+    public AccountStatisticsResponse toStatisticsResponse(UUID accountId, LocalDate from, LocalDate to,
+                                                          List<AccountDailyStatistics> days) {
+        Map<String, AccountDailyStatistics> totals = new TreeMap<>();
+        List<AccountStatisticsDay> dayResponses = new ArrayList<>(days.size());
+        for (AccountDailyStatistics day : days) {
+            totals.merge(day.currency(), day, AccountDailyStatistics::plus);
+            dayResponses.add(toDay(day));
+        }
+
+        AccountStatisticsResponse response = new AccountStatisticsResponse();
+        response.setAccountId(accountId);
+        response.setFrom(from);
+        response.setTo(to);
+        response.setTotals(totals.values().stream().map(AccountMapper::toTotal).toList());
+        response.setDays(dayResponses);
+        return response;
+    }
+
+    private static AccountStatisticsDay toDay(AccountDailyStatistics statistics) {
+        AccountStatisticsDay day = new AccountStatisticsDay();
+        day.setDay(statistics.day());
+        day.setCurrency(statistics.currency());
+        day.setSentCount(statistics.sentCount());
+        day.setSentAmount(MappingSupport.toPlainString(statistics.sentAmount()));
+        day.setReceivedCount(statistics.receivedCount());
+        day.setReceivedAmount(MappingSupport.toPlainString(statistics.receivedAmount()));
+        return day;
+    }
+
+    private static AccountStatisticsTotal toTotal(AccountDailyStatistics statistics) {
+        AccountStatisticsTotal total = new AccountStatisticsTotal();
+        total.setCurrency(statistics.currency());
+        total.setSentCount(statistics.sentCount());
+        total.setSentAmount(MappingSupport.toPlainString(statistics.sentAmount()));
+        total.setReceivedCount(statistics.receivedCount());
+        total.setReceivedAmount(MappingSupport.toPlainString(statistics.receivedAmount()));
+        return total;
+    }
+}
@@ -0,0 +1,46 @@
+package com.payment.mapper;
+
+import com.payment.model.Money;
+import com.payment.model.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+final class MappingSupport {
+
+    private MappingSupport() {
+    }
+
+    static String toPlainString(Money value) {
+        return value != null ? value.toString() : null;
+    }
+
+    static String toPlainString(BigDecimal value) {
+        return value != null ? value.setScale(Money.SCALE).toPlainString() : null;
+    }
+
+    /**
+     * An exhaustive switch instead of {@code valueOf(name())}, which hashes the name on every call. It does not depend
+     * on the order of either enum, and a status added to the domain enum fails the build here.
+     */
+    static com.payment.api.model.PaymentStatus toApiStatus(PaymentStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return switch (status) {
+            case PENDING -> com.payment.api.model.PaymentStatus.PENDING;
+            case PROCESSING -> com.payment.api.model.PaymentStatus.PROCESSING;
+            case COMPLETED -> com.payment.api.model.PaymentStatus.COMPLETED;
+            case FAILED -> com.payment.api.model.PaymentStatus.FAILED;
+        };
+    }
+
+    /**
+     * Responses are serialized in UTC anyway, so the offset chosen here does not show in the JSON.
+     */
+    static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant != null ? instant.atOffset(ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.payment.mapper;
+
+import com.payment.api.model.PaymentAcceptedResponse;
+import com.payment.api.model.PaymentResponse;
+import com.payment.model.Payment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Maps payments to API responses with plain field copies.
+ */
+@Component
+public class PaymentMapper {
+
+    public PaymentAcceptedResponse toAcceptedResponse(Payment payment) {
+        PaymentAcceptedResponse response = new PaymentAcceptedResponse();
+        response.setPaymentId(payment.getId());
+        response.setStatus(MappingSupport.toApiStatus(payment.getStatus()));
+        return response;
+    }
+
+    public PaymentResponse toResponse(Payment payment) {
+        PaymentResponse response = new PaymentResponse();
+        response.setPaymentId(payment.getId());
+        response.setSenderAccountId(payment.getSenderAccountId());
+        response.setReceiverAccountId(payment.getReceiverAccountId());
+        response.setAmount(MappingSupport.toPlainString(payment.getAmount()));
+        response.setCurrency(payment.getCurrency());
+        response.setStatus(MappingSupport.toApiStatus(payment.getStatus()));
+        response.setErrorCode(payment.getErrorCode() != null ? payment.getErrorCode().name() : null);
+        response.setErrorMessage(payment.getErrorMessage());
+        response.setCreatedAt(MappingSupport.toOffsetDateTime(payment.getCreatedAt()));
+        response.setUpdatedAt(MappingSupport.toOffsetDateTime(payment.getUpdatedAt()));
+        return response;
+    }
+}
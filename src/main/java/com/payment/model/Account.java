@@ -1,6 +1,7 @@
 package com.payment.model;
 
 import com.payment.exception.business.InsufficientBalanceException;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
@@ -11,9 +12,12 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 @Entity
 @EntityListeners(AuditingEntityListener.class)
@@ -24,10 +28,19 @@ public class Account {
     @Id
     private UUID id;
 
-    private BigDecimal balance;
+    /**
+     * Minor units of {@link #currency}.
+     */
+    @Convert(converter = MinorUnitsConverter.class)
+    private long balance;
 
     private String currency;
 
+    /**
+     * Number of balance buckets credits are spread over; 0 means the account is not striped.
+     */
+    private int stripeCount;
+
     @Version
     private Long version;
 
@@ -37,20 +50,59 @@ public class Account {
     @LastModifiedDate
     private Instant updatedAt;
 
-    public Account(UUID id, BigDecimal balance, String currency) {
+    public Account(UUID id, Money balance) {
+        this(id, balance, 0);
+    }
+
+    public Account(UUID id, Money balance, int stripeCount) {
         this.id = id;
-        this.balance = balance;
-        this.currency = currency;
+        this.balance = balance.minorUnits();
+        this.currency = balance.currency();
+        this.stripeCount = stripeCount;
+    }
+
+    public Money getBalance() {
+        return new Money(balance, currency);
+    }
+
+    public boolean isStriped() {
+        return stripeCount > 0;
+    }
+
+    public List<AccountBalanceBucket> createBuckets() {
+        return IntStream.range(0, stripeCount)
+            .mapToObj(index -> new AccountBalanceBucket(id, index))
+            .toList();
+    }
+
+    /**
+     * Only the minor units of {@code amount} are used; payments are not checked against the account currency.
+     */
+    public void debit(Money amount) {
+        if (balance < amount.minorUnits()) {
+            throw new InsufficientBalanceException(id, getBalance(), new Money(amount.minorUnits(), currency));
+        }
+        this.balance = Math.subtractExact(balance, amount.minorUnits());
+    }
+
+    /**
+     * Debits a striped account. When the main balance does not cover the amount, the buckets are swept into it
+     * first, so the check runs against the aggregated balance. The supplier must return the buckets locked.
+     */
+    public void debit(Money amount, Supplier<? extends Collection<AccountBalanceBucket>> buckets) {
+        if (isStriped() && balance < amount.minorUnits()) {
+            sweep(buckets.get());
+        }
+        debit(amount);
     }
 
-    public void debit(BigDecimal amount) {
-        if (balance.compareTo(amount) < 0) {
-            throw new InsufficientBalanceException(id, balance, amount);
+    public void sweep(Collection<AccountBalanceBucket> buckets) {
+        for (AccountBalanceBucket bucket : buckets) {
+            this.balance = Math.addExact(balance, bucket.drain());
         }
-        this.balance = this.balance.subtract(amount);
     }
 
-    public void credit(BigDecimal amount) {
-        this.balance = this.balance.add(amount);
+    public void credit(Money amount) {
+        this.balance = Math.addExact(balance, amount.minorUnits());
     }
 }
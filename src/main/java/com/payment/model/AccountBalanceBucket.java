@@ -0,0 +1,67 @@
+package com.payment.model;
+
+import jakarta.persistence.Convert;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One stripe of a striped account's balance.
+ * <p>
+ * Credits to a striped account land on a single bucket chosen by payment id, so concurrent credits to the same
+ * hot account lock different rows instead of serializing on the account row.
+ */
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Getter
+@NoArgsConstructor
+public class AccountBalanceBucket {
+
+    @EmbeddedId
+    private AccountBalanceBucketId id;
+
+    /**
+     * Minor units of the account's currency.
+     */
+    @Convert(converter = MinorUnitsConverter.class)
+    private long balance;
+
+    @Version
+    private Long version;
+
+    @CreatedDate
+    private Instant createdAt;
+
+    @LastModifiedDate
+    private Instant updatedAt;
+
+    public AccountBalanceBucket(UUID accountId, int bucketIndex) {
+        this.id = new AccountBalanceBucketId(accountId, bucketIndex);
+    }
+
+    public static int indexFor(UUID paymentId, int stripeCount) {
+        return Math.floorMod(paymentId.hashCode(), stripeCount);
+    }
+
+    public void credit(Money amount) {
+        this.balance = Math.addExact(balance, amount.minorUnits());
+    }
+
+    /**
+     * Empties the bucket and returns what it held, in minor units.
+     */
+    public long drain() {
+        long drained = this.balance;
+        this.balance = 0;
+        return drained;
+    }
+}
@@ -0,0 +1,13 @@
+package com.payment.model;
+
+import java.util.UUID;
+
+/**
+ * The parts of an account that do not change after it is created.
+ */
+public record AccountMetadata(UUID id, String currency, int stripeCount) {
+
+    public static AccountMetadata of(Account account) {
+        return new AccountMetadata(account.getId(), account.getCurrency(), account.getStripeCount());
+    }
+}
@@ -0,0 +1,23 @@
+package com.payment.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps {@code long} minor-unit fields to the {@code DECIMAL(19,2)} amount and balance columns.
+ */
+@Converter
+public class MinorUnitsConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minorUnits) {
+        return minorUnits != null ? BigDecimal.valueOf(minorUnits, Money.SCALE) : null;
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        return amount != null ? Money.minorUnits(amount) : null;
+    }
+}
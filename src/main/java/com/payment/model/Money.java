@@ -0,0 +1,122 @@
+package com.payment.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a whole number of minor units (cents) of a currency.
+ * <p>
+ * Amounts and balances are stored as {@code DECIMAL(19,2)} and the API accepts at most two decimals, so a scaled
+ * {@code long} represents every value the ledger handles without the allocations of {@link BigDecimal} arithmetic.
+ * Arithmetic fails with {@link ArithmeticException} on overflow and with {@link IllegalArgumentException} when the
+ * currencies differ. {@link BigDecimal} is only used at the edges: JDBC, events and {@link #toBigDecimal()}.
+ */
+public record Money(long minorUnits, String currency) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    private static final long MINOR_PER_MAJOR = 100;
+
+    public Money {
+        if (currency == null) {
+            throw new IllegalArgumentException("Currency is required");
+        }
+    }
+
+    public static Money zero(String currency) {
+        return new Money(0, currency);
+    }
+
+    /**
+     * @throws ArithmeticException if the amount has more than two decimals or does not fit a {@code long}
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        return new Money(minorUnits(amount), currency);
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 150}, {@code 150.5} or {@code 150.50} without going through
+     * {@link BigDecimal}.
+     *
+     * @throws NumberFormatException if the text is not a plain decimal with at most two decimals
+     * @throws ArithmeticException   if the amount does not fit a {@code long}
+     */
+    public static Money parse(String amount, String currency) {
+        int length = amount.length();
+        int start = amount.startsWith("-") ? 1 : 0;
+        int point = amount.indexOf('.');
+        int integerEnd = point < 0 ? length : point;
+        int decimals = point < 0 ? 0 : length - point - 1;
+        if (integerEnd == start || decimals > SCALE || (point >= 0 && decimals == 0)) {
+            throw new NumberFormatException("Not an amount with at most " + SCALE + " decimals: " + amount);
+        }
+
+        long minorUnits = 0;
+        for (int i = start; i < length; i++) {
+            if (i == point) {
+                continue;
+            }
+            char c = amount.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Not an amount with at most " + SCALE + " decimals: " + amount);
+            }
+            minorUnits = Math.addExact(Math.multiplyExact(minorUnits, 10), c - '0');
+        }
+        for (int i = decimals; i < SCALE; i++) {
+            minorUnits = Math.multiplyExact(minorUnits, 10);
+        }
+        return new Money(start == 1 ? -minorUnits : minorUnits, currency);
+    }
+
+    /**
+     * @throws ArithmeticException if the amount has more than two decimals or does not fit a {@code long}
+     */
+    public static long minorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public boolean isLessThan(Money other) {
+        return compareTo(other) < 0;
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    /**
+     * The amount with two decimals, e.g. {@code 150.00}, as {@code toBigDecimal().toPlainString()} would print it.
+     */
+    @Override
+    public String toString() {
+        long major = minorUnits / MINOR_PER_MAJOR;
+        long minor = Math.abs(minorUnits % MINOR_PER_MAJOR);
+        String sign = minorUnits < 0 && major == 0 ? "-" : "";
+        return sign + major + (minor < 10 ? ".0" : ".") + minor;
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.payment.model;
 
 import com.payment.exception.ErrorCode;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
@@ -9,11 +11,11 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.PartitionKey;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.UUID;
 
@@ -32,7 +34,11 @@ public class Payment {
 
     private UUID receiverAccountId;
 
-    private BigDecimal amount;
+    /**
+     * Minor units of {@link #currency}.
+     */
+    @Convert(converter = MinorUnitsConverter.class)
+    private long amount;
 
     private String currency;
 
@@ -44,7 +50,18 @@ public class Payment {
 
     private String errorMessage;
 
+    /**
+     * W3C {@code traceparent} of the request that submitted the payment, copied to the completion event's headers.
+     */
+    @Column(updatable = false)
+    private String traceParent;
+
+    /**
+     * Partition key of the {@code payment} table; included in updates so they only touch the payment's partition.
+     */
     @CreatedDate
+    @PartitionKey
+    @Column(updatable = false)
     private Instant createdAt;
 
     @LastModifiedDate
@@ -54,19 +71,27 @@ public class Payment {
     private Long version;
 
     public static Payment create(
-        String idempotencyKey, UUID senderAccountId, UUID receiverAccountId, BigDecimal amount, String currency) {
+        String idempotencyKey, UUID senderAccountId, UUID receiverAccountId, Money amount) {
 
         Payment payment = new Payment();
-        payment.id = UUID.randomUUID();
+        payment.id = Uuids.timeOrdered();
         payment.idempotencyKey = idempotencyKey;
         payment.senderAccountId = senderAccountId;
         payment.receiverAccountId = receiverAccountId;
-        payment.amount = amount;
-        payment.currency = currency;
+        payment.amount = amount.minorUnits();
+        payment.currency = amount.currency();
         payment.status = PaymentStatus.PENDING;
         return payment;
     }
 
+    public void tracedBy(String traceParent) {
+        this.traceParent = traceParent;
+    }
+
+    public Money getAmount() {
+        return new Money(amount, currency);
+    }
+
     public void markProcessing() {
         this.status = PaymentStatus.PROCESSING;
     }
@@ -4,5 +4,9 @@ public enum PaymentStatus {
     PENDING,
     PROCESSING,
     COMPLETED,
-    FAILED
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
 }
@@ -0,0 +1,40 @@
+package com.payment.model;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.UUID;
+
+/**
+ * Time-ordered UUIDs (version 7, RFC 9562).
+ * <p>
+ * The first 48 bits are the Unix time in milliseconds, so ids created close together sort close together and new
+ * rows append to the right edge of a B-tree index instead of landing on random pages. The remaining 74 bits are
+ * random; ids created within the same millisecond are unique but not ordered among themselves.
+ */
+public final class Uuids {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private Uuids() {
+    }
+
+    public static UUID timeOrdered() {
+        return timeOrdered(Clock.systemUTC().millis());
+    }
+
+    static UUID timeOrdered(long epochMillis) {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+
+        long randA = ((random[0] & 0xFFL) << 8 | (random[1] & 0xFFL)) & 0x0FFFL;
+        long msb = (epochMillis & 0xFFFF_FFFF_FFFFL) << 16 | 0x7000L | randA;
+
+        long randB = 0;
+        for (int i = 2; i < 10; i++) {
+            randB = randB << 8 | (random[i] & 0xFFL);
+        }
+        long lsb = randB & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;
+
+        return new UUID(msb, lsb);
+    }
+}
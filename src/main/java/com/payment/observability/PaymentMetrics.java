@@ -0,0 +1,188 @@
+package com.payment.observability;
+
+import com.payment.exception.ErrorCode;
+import com.payment.model.PaymentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters along the payment lifecycle, from submission to the terminal status.
+ * <p>
+ * All meters are registered up front so the hot path only reads {@link System#nanoTime()} and records into an
+ * existing meter. Phases are timed as laps: each {@code record*Phase} call records the time since the previous lap
+ * and returns the start of the next one.
+ */
+@Component
+public class PaymentMetrics {
+
+    public enum SubmitPhase {
+        /**
+         * Idempotency cache and, on a miss, the lookup by idempotency key.
+         */
+        IDEMPOTENCY_LOOKUP,
+        VALIDATION,
+        INSERT,
+        /**
+         * Starting the workflow, or the inline attempt when inline processing is enabled.
+         */
+        DISPATCH
+    }
+
+    public enum TransferPhase {
+        LOAD,
+        /**
+         * All row locks on the accounts, including waiting for other transactions to release them.
+         */
+        LOCK,
+        APPLY,
+        /**
+         * Flushing the changes and committing, measured from just before commit until the transaction completed.
+         */
+        COMMIT
+    }
+
+    public enum LockTarget {
+        ACCOUNT,
+        BUCKET
+    }
+
+    public enum ErrorSource {
+        /**
+         * Requests rejected with an error response.
+         */
+        API,
+        /**
+         * Payments that ended up {@code FAILED}.
+         */
+        LEDGER
+    }
+
+    private final Map<SubmitPhase, Timer> submitPhases = new EnumMap<>(SubmitPhase.class);
+    private final Map<TransferPhase, Timer> transferPhases = new EnumMap<>(TransferPhase.class);
+    private final Map<LockTarget, Timer> lockWaits = new EnumMap<>(LockTarget.class);
+    private final Map<ErrorSource, Map<ErrorCode, Counter>> errors = new EnumMap<>(ErrorSource.class);
+    private final Map<PaymentStatus, Timer> completionLatencies = new EnumMap<>(PaymentStatus.class);
+
+    public PaymentMetrics(MeterRegistry meterRegistry) {
+        for (SubmitPhase phase : SubmitPhase.values()) {
+            submitPhases.put(phase, Timer.builder("payment.submit.phase")
+                .tag("phase", tagValue(phase))
+                .description("Time spent in each phase of accepting a payment")
+                .register(meterRegistry));
+        }
+        for (TransferPhase phase : TransferPhase.values()) {
+            transferPhases.put(phase, Timer.builder("payment.transfer.phase")
+                .tag("phase", tagValue(phase))
+                .description("Time spent in each phase of a transfer by the locking ledger engine")
+                .register(meterRegistry));
+        }
+        for (LockTarget target : LockTarget.values()) {
+            lockWaits.put(target, Timer.builder("payment.ledger.lock.wait")
+                .tag("target", tagValue(target))
+                .description("Time to acquire a row lock, including the round trip of the locking query")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+        for (ErrorSource source : ErrorSource.values()) {
+            Map<ErrorCode, Counter> counters = new EnumMap<>(ErrorCode.class);
+            for (ErrorCode code : ErrorCode.values()) {
+                counters.put(code, Counter.builder("payment.errors")
+                    .tag("source", tagValue(source))
+                    .tag("code", code.name())
+                    .description("Rejected requests and failed payments by error code")
+                    .register(meterRegistry));
+            }
+            errors.put(source, counters);
+        }
+        for (PaymentStatus status : new PaymentStatus[]{PaymentStatus.COMPLETED, PaymentStatus.FAILED}) {
+            completionLatencies.put(status, Timer.builder("payment.completion.latency")
+                .tag("status", status.name())
+                .description("Time from accepting a payment until it reached its terminal status")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Records the phase as ending now and returns now, the start of the next phase.
+     */
+    public long recordSubmitPhase(SubmitPhase phase, long startNanos) {
+        return lap(submitPhases.get(phase), startNanos);
+    }
+
+    /**
+     * Records the phase as ending now and returns now, the start of the next phase.
+     */
+    public long recordTransferPhase(TransferPhase phase, long startNanos) {
+        return lap(transferPhases.get(phase), startNanos);
+    }
+
+    /**
+     * Times the commit of the current transaction as {@link TransferPhase#COMMIT}. Does nothing outside a
+     * transaction.
+     */
+    public void recordCommitPhase() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Timer commit = transferPhases.get(TransferPhase.COMMIT);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long startNanos;
+            private boolean committing;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                startNanos = System.nanoTime();
+                committing = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED && committing) {
+                    lap(commit, startNanos);
+                }
+            }
+        });
+    }
+
+    public <T> T recordLockWait(LockTarget target, Supplier<T> lock) {
+        long start = System.nanoTime();
+        try {
+            return lock.get();
+        } finally {
+            lap(lockWaits.get(target), start);
+        }
+    }
+
+    public void recordError(ErrorSource source, ErrorCode code) {
+        errors.get(source).get(code).increment();
+    }
+
+    public void recordCompletion(PaymentStatus status, Duration latency) {
+        Timer timer = completionLatencies.get(status);
+        if (timer != null && !latency.isNegative()) {
+            timer.record(latency);
+        }
+    }
+
+    private static long lap(Timer timer, long startNanos) {
+        long now = System.nanoTime();
+        timer.record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
@@ -0,0 +1,83 @@
+package com.payment.observability;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.propagation.Propagator;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Carries a payment's trace across the hops where no tracing instrumentation does it for us.
+ * <p>
+ * The HTTP request that submits a payment is traced by Spring's observation support. From there the trace is handed
+ * on as a W3C {@code traceparent} string: through workflow and activity headers by {@link TraceContextPropagator},
+ * to the inline attempt's thread by {@code PaymentDispatcher}, and to the Kafka record headers through the
+ * {@code trace_parent} column of the payment, because the outbox relay publishes long after the request is gone.
+ */
+@Component
+public class PaymentTracing {
+
+    public static final String TRACE_PARENT = "traceparent";
+
+    private final Tracer tracer;
+    private final Propagator propagator;
+
+    /**
+     * Tracing is optional, e.g. tests run without a tracer unless they ask for one.
+     */
+    @Autowired
+    public PaymentTracing(ObjectProvider<Tracer> tracer, ObjectProvider<Propagator> propagator) {
+        this(tracer.getIfAvailable(() -> Tracer.NOOP), propagator.getIfAvailable(() -> Propagator.NOOP));
+    }
+
+    public PaymentTracing(Tracer tracer, Propagator propagator) {
+        this.tracer = tracer;
+        this.propagator = propagator;
+    }
+
+    /**
+     * The {@code traceparent} of the current span, else the one propagated to this workflow or activity thread, else
+     * {@code null}.
+     */
+    public String currentTraceParent() {
+        Span span = tracer.currentSpan();
+        if (span == null || span.isNoop()) {
+            return TraceContextPropagator.propagated();
+        }
+        Map<String, String> carrier = new HashMap<>(2);
+        propagator.inject(span.context(), carrier, Map::put);
+        return carrier.get(TRACE_PARENT);
+    }
+
+    /**
+     * Runs {@code action} in a new span that continues {@link #currentTraceParent()}.
+     */
+    public <T> T inSpan(String name, Supplier<T> action) {
+        return inSpan(name, currentTraceParent(), action);
+    }
+
+    /**
+     * Runs {@code action} in a new span that continues {@code traceParent}, or starts a new trace when it is
+     * {@code null}.
+     */
+    public <T> T inSpan(String name, String traceParent, Supplier<T> action) {
+        Span span = (traceParent != null
+            ? propagator.extract(Map.of(TRACE_PARENT, traceParent), Map::get)
+            : tracer.spanBuilder())
+            .name(name)
+            .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return action.get();
+        } catch (RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.payment.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+
+/**
+ * Streams {@code jdk.VirtualThreadPinned} JFR events into the {@code payment.threads.virtual.pinned} timer.
+ * <p>
+ * A virtual thread that blocks inside {@code synchronized} or a native frame keeps its carrier thread. Each event is
+ * tagged with the innermost {@code com.payment} method on the pinned stack (e.g.
+ * {@code LockingTransferExecutor.execute}), so pinning below JDBC, Hibernate or the Kafka client can be traced back
+ * to the transactional path that triggered it.
+ */
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+    private static final String METER_NAME = "payment.threads.virtual.pinned";
+
+    private static final String EVENT_NAME = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.payment.";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private volatile RecordingStream stream;
+
+    public PinnedThreadMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(EVENT_NAME).withThreshold(threshold).withStackTrace();
+        recording.onEvent(EVENT_NAME, this::record);
+        recording.startAsync();
+        stream = recording;
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void record(RecordedEvent event) {
+        Timer.builder(METER_NAME)
+            .description("Time virtual threads kept their carrier thread pinned while blocked")
+            .tag("location", location(event.getStackTrace()))
+            .register(meterRegistry)
+            .record(event.getDuration());
+    }
+
+    private static String location(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(APPLICATION_PACKAGE) && !type.contains("$$")) {
+                return type.substring(type.lastIndexOf('.') + 1) + "." + frame.getMethod().getName();
+            }
+        }
+        return "other";
+    }
+}
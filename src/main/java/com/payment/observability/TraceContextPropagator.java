@@ -0,0 +1,68 @@
+package com.payment.observability;
+
+import io.temporal.api.common.v1.Payload;
+import io.temporal.common.context.ContextPropagator;
+import io.temporal.common.converter.DataConverter;
+import io.temporal.common.converter.DefaultDataConverter;
+
+import java.util.Map;
+
+/**
+ * Passes the {@code traceparent} of the code starting a workflow on to the workflow, and from the workflow to its
+ * activities, as a Temporal header.
+ * <p>
+ * Workflow code must stay deterministic and has no tracer, so on workflow and activity threads the propagated value
+ * is only held in a thread local; {@link PaymentTracing} starts spans from it where needed.
+ */
+public class TraceContextPropagator implements ContextPropagator {
+
+    private static final ThreadLocal<String> PROPAGATED = new ThreadLocal<>();
+    private static final DataConverter CONVERTER = DefaultDataConverter.STANDARD_INSTANCE;
+
+    private final PaymentTracing tracing;
+
+    public TraceContextPropagator(PaymentTracing tracing) {
+        this.tracing = tracing;
+    }
+
+    /**
+     * The {@code traceparent} propagated to the current workflow or activity thread, if any.
+     */
+    static String propagated() {
+        return PROPAGATED.get();
+    }
+
+    @Override
+    public String getName() {
+        return PaymentTracing.TRACE_PARENT;
+    }
+
+    @Override
+    public Map<String, Payload> serializeContext(Object context) {
+        if (context == null) {
+            return Map.of();
+        }
+        return CONVERTER.toPayload(context)
+            .map(payload -> Map.of(PaymentTracing.TRACE_PARENT, payload))
+            .orElse(Map.of());
+    }
+
+    @Override
+    public Object deserializeContext(Map<String, Payload> header) {
+        Payload payload = header.get(PaymentTracing.TRACE_PARENT);
+        return payload != null ? CONVERTER.fromPayload(payload, String.class, String.class) : null;
+    }
+
+    @Override
+    public Object getCurrentContext() {
+        return tracing.currentTraceParent();
+    }
+
+    /**
+     * Called with {@code null} when the caller had no trace, so a pooled thread does not keep a previous value.
+     */
+    @Override
+    public void setCurrentContext(Object context) {
+        PROPAGATED.set((String) context);
+    }
+}
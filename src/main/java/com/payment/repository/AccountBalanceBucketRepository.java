@@ -0,0 +1,30 @@
+package com.payment.repository;
+
+import com.payment.model.AccountBalanceBucket;
+import com.payment.model.AccountBalanceBucketId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface AccountBalanceBucketRepository extends JpaRepository<AccountBalanceBucket, AccountBalanceBucketId> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AccountBalanceBucket b WHERE b.id = :id")
+    Optional<AccountBalanceBucket> findByIdWithLock(@Param("id") AccountBalanceBucketId id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM AccountBalanceBucket b WHERE b.id.accountId = :accountId ORDER BY b.id.bucketIndex")
+    List<AccountBalanceBucket> findAllByAccountIdWithLock(@Param("accountId") UUID accountId);
+
+    @Query(
+        value = "SELECT COALESCE(SUM(balance), 0) FROM account_balance_bucket WHERE account_id = :accountId",
+        nativeQuery = true)
+    BigDecimal sumBalanceByAccountId(@Param("accountId") UUID accountId);
+}
@@ -8,7 +8,10 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public interface AccountRepository extends JpaRepository<Account, UUID> {
@@ -16,4 +19,24 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT a FROM Account a WHERE a.id = :id")
     Optional<Account> findByIdWithLock(@Param("id") UUID id);
+
+    @Query("SELECT a.stripeCount FROM Account a WHERE a.id = :id")
+    Optional<Integer> findStripeCountById(@Param("id") UUID id);
+
+    @Query("SELECT a.id FROM Account a WHERE a.id IN :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * The account's own balance plus its bucket balances, read in one statement so both come from the same snapshot
+     * and a sweep in between is neither missed nor counted twice.
+     */
+    @Query(
+        value = """
+            SELECT a.balance + COALESCE(
+                (SELECT SUM(b.balance) FROM account_balance_bucket b WHERE b.account_id = a.id), 0)
+            FROM account a
+            WHERE a.id = :id
+            """,
+        nativeQuery = true)
+    Optional<BigDecimal> findTotalBalanceById(@Param("id") UUID id);
 }
@@ -0,0 +1,178 @@
+package com.payment.repository;
+
+import com.payment.model.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Completed payments per account, currency and UTC day.
+ * <p>
+ * Rows are incremented by the ledger engines in the transaction that completes the payment (for the sql engine by
+ * the {@code ledger_transfer} function), so each completed payment is counted exactly once, independently of event
+ * publishing. Reading a range therefore touches a few rows per day and currency instead of every payment.
+ * <p>
+ * The day is the UTC date of that transaction. Each row is further split by slot so that it is always guarded by a
+ * lock the transaction already holds: {@link #ACCOUNT_SLOT} rows by the account row, {@link #bucketSlot} rows of a
+ * striped receiver by the balance bucket its credit landed on. Counting adds no contention to hot accounts.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AccountStatisticsRepository {
+
+    public static final int ACCOUNT_SLOT = 0;
+
+    private static final Comparator<Key> LOCK_ORDER = Comparator.comparing(Key::accountId)
+        .thenComparing(Key::currency)
+        .thenComparingInt(Key::slot);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public static int bucketSlot(int bucketIndex) {
+        return bucketIndex + 1;
+    }
+
+    /**
+     * Adds completed transfers to the sender's and the receiver's statistics of today (UTC). Must run in the
+     * transaction that completes the payments. Transfers are first summed per row, and rows are updated in a fixed
+     * order.
+     * <p>
+     * A plain {@code MERGE} is enough, as no other transaction can write the same row meanwhile: it is guarded by a
+     * lock the caller holds. Unlike {@code INSERT ... ON CONFLICT} it also runs on H2, for the benchmarks.
+     */
+    public void addCompleted(Collection<CompletedTransfer> transfers) {
+        Map<Key, Delta> deltas = new TreeMap<>(LOCK_ORDER);
+        for (CompletedTransfer transfer : transfers) {
+            String currency = transfer.amount().currency();
+            BigDecimal amount = transfer.amount().toBigDecimal();
+            deltas.merge(new Key(transfer.senderAccountId(), currency, ACCOUNT_SLOT),
+                new Delta(1, amount, 0, BigDecimal.ZERO), Delta::plus);
+            deltas.merge(new Key(transfer.receiverAccountId(), currency, transfer.receiverSlot()),
+                new Delta(0, BigDecimal.ZERO, 1, amount), Delta::plus);
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(
+            """
+                MERGE INTO account_daily_statistics s
+                USING (
+                    SELECT :accountId AS account_id, :currency AS currency,
+                           CAST(CURRENT_TIMESTAMP AT TIME ZONE 'UTC' AS DATE) AS day, :slot AS slot,
+                           :sentCount AS sent_count, :sentAmount AS sent_amount,
+                           :receivedCount AS received_count, :receivedAmount AS received_amount
+                ) d
+                ON s.account_id = d.account_id AND s.currency = d.currency AND s.day = d.day AND s.slot = d.slot
+                WHEN MATCHED THEN UPDATE SET
+                    sent_count = s.sent_count + d.sent_count,
+                    sent_amount = s.sent_amount + d.sent_amount,
+                    received_count = s.received_count + d.received_count,
+                    received_amount = s.received_amount + d.received_amount
+                WHEN NOT MATCHED THEN INSERT
+                    (account_id, currency, day, slot, sent_count, sent_amount, received_count, received_amount)
+                    VALUES (d.account_id, d.currency, d.day, d.slot,
+                            d.sent_count, d.sent_amount, d.received_count, d.received_amount)
+                """,
+            deltas.entrySet().stream()
+                .map(delta -> new MapSqlParameterSource()
+                    .addValue("accountId", delta.getKey().accountId())
+                    .addValue("currency", delta.getKey().currency())
+                    .addValue("slot", delta.getKey().slot())
+                    .addValue("sentCount", delta.getValue().sentCount())
+                    .addValue("sentAmount", delta.getValue().sentAmount())
+                    .addValue("receivedCount", delta.getValue().receivedCount())
+                    .addValue("receivedAmount", delta.getValue().receivedAmount()))
+                .toArray(SqlParameterSource[]::new)
+        );
+    }
+
+    /**
+     * Returns the statistics of the days from {@code from} to {@code to}, both inclusive, ordered by day and
+     * currency. Days without completed payments have no row. Read-only, so it may be served by the replica.
+     */
+    @Transactional(readOnly = true)
+    public List<AccountDailyStatistics> findDaily(UUID accountId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(
+            """
+                SELECT account_id, currency, day,
+                       SUM(sent_count)::BIGINT AS sent_count, SUM(sent_amount) AS sent_amount,
+                       SUM(received_count)::BIGINT AS received_count, SUM(received_amount) AS received_amount
+                FROM account_daily_statistics
+                WHERE account_id = :accountId AND day BETWEEN :from AND :to
+                GROUP BY account_id, currency, day
+                ORDER BY day, currency
+                """,
+            new MapSqlParameterSource()
+                .addValue("accountId", accountId)
+                .addValue("from", from)
+                .addValue("to", to),
+            (rs, rowNum) -> new AccountDailyStatistics(
+                rs.getObject("account_id", UUID.class),
+                rs.getString("currency"),
+                rs.getObject("day", LocalDate.class),
+                rs.getLong("sent_count"),
+                rs.getBigDecimal("sent_amount"),
+                rs.getLong("received_count"),
+                rs.getBigDecimal("received_amount")
+            )
+        );
+    }
+
+    /**
+     * @param receiverSlot {@link #ACCOUNT_SLOT} if the receiver's account row is locked, otherwise the
+     *     {@link #bucketSlot} of the credited bucket
+     */
+    public record CompletedTransfer(UUID senderAccountId, UUID receiverAccountId, int receiverSlot, Money amount) {
+    }
+
+    private record Key(UUID accountId, String currency, int slot) {
+    }
+
+    private record Delta(long sentCount, BigDecimal sentAmount, long receivedCount, BigDecimal receivedAmount) {
+
+        Delta plus(Delta other) {
+            return new Delta(
+                sentCount + other.sentCount,
+                sentAmount.add(other.sentAmount),
+                receivedCount + other.receivedCount,
+                receivedAmount.add(other.receivedAmount)
+            );
+        }
+    }
+
+    public record AccountDailyStatistics(
+        UUID accountId,
+        String currency,
+        LocalDate day,
+        long sentCount,
+        BigDecimal sentAmount,
+        long receivedCount,
+        BigDecimal receivedAmount
+    ) {
+
+        public AccountDailyStatistics plus(AccountDailyStatistics other) {
+            return new AccountDailyStatistics(
+                accountId,
+                currency,
+                day,
+                sentCount + other.sentCount,
+                sentAmount.add(other.sentAmount),
+                receivedCount + other.receivedCount,
+                receivedAmount.add(other.receivedAmount)
+            );
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.payment.repository;
+
+import com.payment.model.Payment;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public interface PaymentBatchRepository {
+
+    /**
+     * Inserts new payments with a single JDBC batch. Payments whose idempotency key is already taken in the current
+     * monthly partition are skipped.
+     *
+     * @return ids of the payments actually inserted
+     */
+    Set<UUID> insertAll(List<Payment> payments);
+}
@@ -0,0 +1,56 @@
+package com.payment.repository;
+
+import com.payment.model.Payment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class PaymentBatchRepositoryImpl implements PaymentBatchRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public Set<UUID> insertAll(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return Set.of();
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(
+            """
+                INSERT INTO payment (id, idempotency_key, sender_account_id, receiver_account_id, amount, currency,
+                                     status, trace_parent, version, created_at, updated_at)
+                VALUES (:id, :idempotencyKey, :senderAccountId, :receiverAccountId, :amount, :currency,
+                        :status, :traceParent, 0, now(), now())
+                ON CONFLICT DO NOTHING
+                """,
+            payments.stream()
+                .map(payment -> new MapSqlParameterSource()
+                    .addValue("id", payment.getId())
+                    .addValue("idempotencyKey", payment.getIdempotencyKey())
+                    .addValue("senderAccountId", payment.getSenderAccountId())
+                    .addValue("receiverAccountId", payment.getReceiverAccountId())
+                    .addValue("amount", payment.getAmount().toBigDecimal())
+                    .addValue("currency", payment.getCurrency())
+                    .addValue("status", payment.getStatus().name())
+                    .addValue("traceParent", payment.getTraceParent()))
+                .toArray(SqlParameterSource[]::new)
+        );
+
+        Set<UUID> inserted = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                inserted.add(payments.get(i).getId());
+            }
+        }
+        return inserted;
+    }
+}
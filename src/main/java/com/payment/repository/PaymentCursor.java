@@ -0,0 +1,44 @@
+package com.payment.repository;
+
+import com.payment.model.Payment;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the (createdAt, id) keyset order of payments, serialized as an opaque URL-safe token.
+ */
+public record PaymentCursor(Instant createdAt, UUID id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static PaymentCursor of(Payment payment) {
+        return new PaymentCursor(payment.getCreatedAt(), payment.getId());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static PaymentCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Missing separator");
+            }
+            return new PaymentCursor(
+                Instant.parse(value.substring(0, separator)),
+                UUID.fromString(value.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid payment cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String value = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
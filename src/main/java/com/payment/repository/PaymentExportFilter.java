@@ -0,0 +1,21 @@
+package com.payment.repository;
+
+import com.payment.model.PaymentStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Filters of a payment export: those of {@link PaymentSpecification#searchBy} plus a creation time range. Every
+ * field is optional.
+ *
+ * @param from earliest {@code createdAt}, inclusive
+ * @param to   latest {@code createdAt}, exclusive
+ */
+public record PaymentExportFilter(
+    UUID senderAccountId,
+    PaymentStatus status,
+    Instant from,
+    Instant to
+) {
+}
@@ -0,0 +1,97 @@
+package com.payment.repository;
+
+import com.payment.config.ExportProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads payments for export through a server-side cursor.
+ * <p>
+ * Plain JDBC rather than JPA, so rows never enter a persistence context. The PostgreSQL driver only fetches
+ * {@code fetch-size} rows per round trip when auto-commit is off, hence the transaction.
+ */
+@Repository
+public class PaymentExportRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PaymentExportRepository(DataSource dataSource, ExportProperties properties) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(properties.fetchSize());
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    /**
+     * Passes the matching payments to {@code consumer}, oldest first, while the cursor is open.
+     *
+     * @return number of rows read
+     */
+    @Transactional(readOnly = true)
+    public long stream(PaymentExportFilter filter, Consumer<PaymentExportRow> consumer) {
+        List<String> conditions = new ArrayList<>(4);
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (filter.senderAccountId() != null) {
+            conditions.add("sender_account_id = :senderAccountId");
+            params.addValue("senderAccountId", filter.senderAccountId());
+        }
+        if (filter.status() != null) {
+            conditions.add("status = :status");
+            params.addValue("status", filter.status().name());
+        }
+        if (filter.from() != null) {
+            conditions.add("created_at >= :from");
+            params.addValue("from", Timestamp.from(filter.from()));
+        }
+        if (filter.to() != null) {
+            conditions.add("created_at < :to");
+            params.addValue("to", Timestamp.from(filter.to()));
+        }
+
+        String sql = """
+            SELECT id, sender_account_id, receiver_account_id, amount, currency, status, error_code, error_message,
+                   created_at, updated_at
+            FROM payment
+            %s
+            ORDER BY created_at, id
+            """.formatted(conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions));
+
+        long[] rows = {0};
+        jdbcTemplate.query(sql, params, (ResultSet rs) -> {
+            consumer.accept(toRow(rs));
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    private static PaymentExportRow toRow(ResultSet rs) throws SQLException {
+        return new PaymentExportRow(
+            rs.getObject("id", UUID.class),
+            rs.getObject("sender_account_id", UUID.class),
+            rs.getObject("receiver_account_id", UUID.class),
+            rs.getBigDecimal("amount"),
+            rs.getString("currency"),
+            rs.getString("status"),
+            rs.getString("error_code"),
+            rs.getString("error_message"),
+            toInstant(rs.getTimestamp("created_at")),
+            toInstant(rs.getTimestamp("updated_at"))
+        );
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.payment.repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A payment as exported: the fields of {@code PaymentResponse}, read straight from the result set.
+ */
+public record PaymentExportRow(
+    UUID paymentId,
+    UUID senderAccountId,
+    UUID receiverAccountId,
+    BigDecimal amount,
+    String currency,
+    String status,
+    String errorCode,
+    String errorMessage,
+    Instant createdAt,
+    Instant updatedAt
+) {
+}
@@ -0,0 +1,123 @@
+package com.payment.repository;
+
+import com.payment.exception.ErrorCode;
+import com.payment.model.PaymentStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Outbox of payments whose completion event still has to be published.
+ * <p>
+ * Rows are appended in the transaction that moves a payment to a terminal status and drained in batches by the
+ * relay. Plain JDBC so appends can be batched and drained rows marked in bulk.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentOutboxRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void append(UUID paymentId) {
+        jdbcTemplate.update(
+            "INSERT INTO payment_outbox (payment_id, created_at) VALUES (:paymentId, now())",
+            Map.of("paymentId", paymentId)
+        );
+    }
+
+    public void appendAll(Collection<UUID> paymentIds) {
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO payment_outbox (payment_id, created_at) VALUES (:paymentId, now())",
+            paymentIds.stream()
+                .map(id -> new MapSqlParameterSource("paymentId", id))
+                .toArray(SqlParameterSource[]::new)
+        );
+    }
+
+    /**
+     * Locks the oldest unpublished entries together with the payment they announce. Rows locked by another relay
+     * instance are skipped, so several instances can drain the outbox concurrently.
+     */
+    public List<OutboxEntry> lockUnpublished(int limit) {
+        return jdbcTemplate.query(
+            """
+                SELECT o.id AS outbox_id, o.created_at AS finished_at, p.id, p.idempotency_key,
+                       p.sender_account_id, p.receiver_account_id, p.amount, p.currency, p.status, p.error_code,
+                       p.error_message, p.trace_parent, p.created_at
+                FROM payment_outbox o
+                JOIN payment p ON p.id = o.payment_id
+                WHERE o.published_at IS NULL
+                ORDER BY o.id
+                LIMIT :limit
+                FOR UPDATE OF o SKIP LOCKED
+                """,
+            Map.of("limit", limit),
+            (rs, rowNum) -> new OutboxEntry(
+                rs.getLong("outbox_id"),
+                rs.getObject("id", UUID.class),
+                rs.getString("idempotency_key"),
+                rs.getObject("sender_account_id", UUID.class),
+                rs.getObject("receiver_account_id", UUID.class),
+                rs.getBigDecimal("amount"),
+                rs.getString("currency"),
+                PaymentStatus.valueOf(rs.getString("status")),
+                rs.getString("error_code") != null ? ErrorCode.valueOf(rs.getString("error_code")) : null,
+                rs.getString("error_message"),
+                rs.getString("trace_parent"),
+                rs.getTimestamp("created_at").toInstant(),
+                rs.getTimestamp("finished_at").toInstant()
+            )
+        );
+    }
+
+    public void markPublished(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(
+            "UPDATE payment_outbox SET published_at = now() WHERE id IN (:ids)",
+            Map.of("ids", ids)
+        );
+    }
+
+    public int deletePublishedOlderThan(Duration age) {
+        return jdbcTemplate.update(
+            "DELETE FROM payment_outbox WHERE published_at < now() - make_interval(secs => :seconds)",
+            Map.of("seconds", age.toSeconds())
+        );
+    }
+
+    public record OutboxEntry(
+        long id,
+        UUID paymentId,
+        String idempotencyKey,
+        UUID senderAccountId,
+        UUID receiverAccountId,
+        BigDecimal amount,
+        String currency,
+        PaymentStatus status,
+        ErrorCode errorCode,
+        String errorMessage,
+        String traceParent,
+        Instant createdAt,
+        Instant finishedAt
+    ) {
+
+        /**
+         * From accepting the payment until the transaction that gave it its terminal status started.
+         */
+        public Duration completionLatency() {
+            return Duration.between(createdAt, finishedAt);
+        }
+    }
+}
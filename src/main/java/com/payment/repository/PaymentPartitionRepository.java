@@ -0,0 +1,113 @@
+package com.payment.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Monthly partitions of the {@code payment} table, named {@code payment_pYYYYMM} (changeset 0009).
+ * <p>
+ * Partition names end up in DDL and COPY statements, so only names matching that pattern are accepted.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentPartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("payment_p(\\d{6})");
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * @return number of partitions created
+     */
+    public int createPartitions(LocalDate from, LocalDate to) {
+        Integer created = jdbcTemplate.queryForObject(
+            "SELECT ensure_payment_partitions(:from, :to)",
+            Map.of("from", from, "to", to),
+            Integer.class
+        );
+        return Objects.requireNonNullElse(created, 0);
+    }
+
+    public List<PaymentPartition> findAll() {
+        return jdbcTemplate.queryForList(
+                """
+                    SELECT c.relname
+                    FROM pg_inherits i
+                    JOIN pg_class c ON c.oid = i.inhrelid
+                    WHERE i.inhparent = 'payment'::regclass
+                    ORDER BY c.relname
+                    """,
+                Map.of(),
+                String.class
+            ).stream()
+            .filter(name -> PARTITION_NAME.matcher(name).matches())
+            .map(PaymentPartition::of)
+            .toList();
+    }
+
+    /**
+     * A partition is settled once all its payments are terminal and their completion events have been published.
+     */
+    public boolean isSettled(PaymentPartition partition) {
+        Boolean active = jdbcTemplate.queryForObject(
+            """
+                SELECT EXISTS (SELECT 1 FROM %1$s WHERE status NOT IN ('COMPLETED', 'FAILED'))
+                    OR EXISTS (SELECT 1 FROM payment_outbox o JOIN %1$s p ON p.id = o.payment_id
+                               WHERE o.published_at IS NULL)
+                """.formatted(partition.name()),
+            Map.of(),
+            Boolean.class
+        );
+        return Boolean.FALSE.equals(active);
+    }
+
+    /**
+     * Writes the partition as CSV with a header row.
+     *
+     * @return number of rows written
+     */
+    public long export(PaymentPartition partition, OutputStream out) {
+        Long rows = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyOut("COPY " + partition.name() + " TO STDOUT (FORMAT csv, HEADER)", out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return Objects.requireNonNullElse(rows, 0L);
+    }
+
+    @Transactional
+    public void drop(PaymentPartition partition) {
+        jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE payment DETACH PARTITION " + partition.name());
+        jdbcTemplate.getJdbcTemplate().execute("DROP TABLE " + partition.name());
+    }
+
+    public record PaymentPartition(String name, YearMonth month) {
+
+        static PaymentPartition of(String name) {
+            var matcher = PARTITION_NAME.matcher(name);
+            if (!matcher.matches()) {
+                throw new IllegalArgumentException("Not a payment partition: " + name);
+            }
+            return new PaymentPartition(name, YearMonth.parse(matcher.group(1), MONTH));
+        }
+    }
+}
@@ -3,13 +3,43 @@ package com.payment.repository;
 import com.payment.model.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, UUID>, JpaSpecificationExecutor<Payment> {
+public interface PaymentRepository extends JpaRepository<Payment, UUID>, JpaSpecificationExecutor<Payment>,
+    PaymentBatchRepository {
 
     Optional<Payment> findByIdempotencyKey(String idempotencyKey);
+
+    List<Payment> findAllByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+
+    @Query("SELECT p.senderAccountId FROM Payment p WHERE p.id = :id")
+    Optional<UUID> findSenderAccountIdById(@Param("id") UUID id);
+
+    /**
+     * PENDING and PROCESSING payments created before {@code createdBefore}, oldest first, seeking past
+     * {@code after}. Native so the status literals reach the planner and {@code idx_payment_in_flight} is used
+     * instead of a scan over all payments.
+     */
+    @Query(value = """
+        SELECT * FROM payment
+        WHERE status IN ('PENDING', 'PROCESSING')
+          AND created_at < :createdBefore
+          AND (created_at, id) > (:afterCreatedAt, :afterId)
+        ORDER BY created_at, id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Payment> findInFlight(
+        @Param("createdBefore") Instant createdBefore,
+        @Param("afterCreatedAt") Instant afterCreatedAt,
+        @Param("afterId") UUID afterId,
+        @Param("limit") int limit);
 }
@@ -3,12 +3,18 @@ package com.payment.repository;
 import com.payment.model.Payment;
 import com.payment.model.PaymentStatus;
 import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.util.UUID;
 
 public final class PaymentSpecification {
 
+    /**
+     * Order used by keyset pagination, matching the {@code (sender_account_id, created_at DESC, id DESC)} index.
+     */
+    public static final Sort KEYSET_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
     private PaymentSpecification() {
     }
 
@@ -28,4 +34,19 @@ public final class PaymentSpecification {
             return predicate;
         };
     }
+
+    /**
+     * Payments after {@code cursor} in {@link #KEYSET_ORDER}. The redundant {@code createdAt <= } bound lets the
+     * database seek the index instead of filtering every row on the {@code OR}.
+     */
+    public static Specification<Payment> after(PaymentCursor cursor) {
+
+        return (root, query, cb) -> cb.and(
+            cb.lessThanOrEqualTo(root.get("createdAt"), cursor.createdAt()),
+            cb.or(
+                cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+                cb.lessThan(root.get("id"), cursor.id())
+            )
+        );
+    }
 }
@@ -0,0 +1,87 @@
+package com.payment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.payment.config.AccountCacheProperties;
+import com.payment.model.Account;
+import com.payment.model.AccountMetadata;
+import com.payment.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Local read-through caches for account lookups.
+ * <p>
+ * Account metadata is cached for existence checks on payment submission. Accounts are never deleted and their
+ * currency never changes, so entries do not go stale; only accounts that exist are cached, so one created through
+ * another instance is found on its next lookup. Balances change with every transfer and are only cached when
+ * {@code payment.account-cache.balance-ttl} is set, for clients polling {@code GET /accounts/{id}} that accept a
+ * balance that old. Statistics are exported as {@code cache.*{cache="account.metadata"}} and
+ * {@code cache.*{cache="account.balance"}}.
+ */
+@Component
+public class AccountCache {
+
+    static final String METADATA_CACHE_NAME = "account.metadata";
+    static final String BALANCE_CACHE_NAME = "account.balance";
+
+    private final AccountRepository accountRepository;
+    private final Cache<UUID, AccountMetadata> metadata;
+    private final Cache<UUID, Account> balances;
+
+    public AccountCache(AccountRepository accountRepository,
+                        AccountCacheProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.metadata = Caffeine.newBuilder()
+            .maximumSize(properties.maxSize())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, metadata, METADATA_CACHE_NAME);
+
+        if (properties.balanceTtl().isPositive()) {
+            this.balances = Caffeine.newBuilder()
+                .maximumSize(properties.maxSize())
+                .expireAfterWrite(properties.balanceTtl())
+                .recordStats()
+                .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, balances, BALANCE_CACHE_NAME);
+        } else {
+            this.balances = null;
+        }
+    }
+
+    public Optional<AccountMetadata> get(UUID accountId) {
+        return Optional.ofNullable(metadata.get(accountId, this::loadMetadata));
+    }
+
+    public boolean exists(UUID accountId) {
+        return get(accountId).isPresent();
+    }
+
+    /**
+     * Returns a detached snapshot of the account holding its aggregated balance, from the balance cache if enabled.
+     * Exceptions thrown by the loader are passed on and nothing is cached.
+     */
+    public Account balance(UUID accountId, Function<UUID, Account> loader) {
+        return balances != null ? balances.get(accountId, loader) : loader.apply(accountId);
+    }
+
+    public void invalidate(UUID accountId) {
+        metadata.invalidate(accountId);
+        if (balances != null) {
+            balances.invalidate(accountId);
+        }
+    }
+
+    private AccountMetadata loadMetadata(UUID accountId) {
+        return accountRepository.findById(accountId)
+            .map(AccountMetadata::of)
+            .orElse(null);
+    }
+}
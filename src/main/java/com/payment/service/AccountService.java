@@ -2,42 +2,101 @@ package com.payment.service;
 
 import com.payment.api.model.AccountRequest;
 import com.payment.api.model.AccountResponse;
+import com.payment.api.model.AccountStatisticsResponse;
+import com.payment.datasource.ReplicaReads;
 import com.payment.exception.ResourceNotFoundException;
+import com.payment.exception.validation.PaymentValidationException;
+import com.payment.mapper.AccountMapper;
 import com.payment.model.Account;
+import com.payment.model.Money;
+import com.payment.repository.AccountBalanceBucketRepository;
 import com.payment.repository.AccountRepository;
+import com.payment.repository.AccountStatisticsRepository;
+import com.payment.repository.AccountStatisticsRepository.AccountDailyStatistics;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class AccountService {
 
+    static final int DEFAULT_STATISTICS_DAYS = 30;
+    static final int MAX_STATISTICS_DAYS = 366;
+
     private final AccountRepository accountRepository;
-    private final ModelMapper modelMapper;
+    private final AccountBalanceBucketRepository bucketRepository;
+    private final AccountStatisticsRepository statisticsRepository;
+    private final AccountCache accountCache;
+    private final AccountMapper accountMapper;
+    private final ReplicaReads replicaReads;
 
     @Transactional
     public AccountResponse createAccount(AccountRequest request) {
         UUID accountId = request.getAccountId() != null ? request.getAccountId() : UUID.randomUUID();
-        BigDecimal balance = new BigDecimal(request.getBalance());
+        Money balance = Money.parse(request.getBalance(), request.getCurrency());
+        int stripeCount = request.getStripeCount() != null ? request.getStripeCount() : 0;
 
-        Account account = new Account(accountId, balance, request.getCurrency());
+        Account account = new Account(accountId, balance, stripeCount);
         accountRepository.save(account);
 
+        if (account.isStriped()) {
+            bucketRepository.saveAll(account.createBuckets());
+        }
+        accountCache.invalidate(accountId);
+
         return toAccountResponse(account);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Not transactional, so a balance served from {@link AccountCache} does not take a database connection.
+     */
     public AccountResponse getAccount(UUID accountId) {
-        Account account = accountRepository.findById(accountId).orElseThrow(() -> ResourceNotFoundException.accountNotFound(accountId));
-        return toAccountResponse(account);
+        return toAccountResponse(accountCache.balance(accountId, this::loadAccount));
+    }
+
+    /**
+     * Reads the precomputed daily statistics, one row per day and currency, so the cost is bounded by the range
+     * rather than by the number of payments. Without {@code to} the range ends today (UTC); without {@code from} it
+     * covers {@value #DEFAULT_STATISTICS_DAYS} days.
+     */
+    public AccountStatisticsResponse getStatistics(UUID accountId, LocalDate from, LocalDate to) {
+        LocalDate last = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate first = from != null ? from : last.minusDays(DEFAULT_STATISTICS_DAYS - 1);
+        if (first.isAfter(last) || ChronoUnit.DAYS.between(first, last) >= MAX_STATISTICS_DAYS) {
+            throw PaymentValidationException.invalidDateRange(first, last, MAX_STATISTICS_DAYS);
+        }
+        if (!accountCache.exists(accountId)) {
+            throw ResourceNotFoundException.accountNotFound(accountId);
+        }
+
+        List<AccountDailyStatistics> days =
+            replicaReads.read(() -> statisticsRepository.findDaily(accountId, first, last));
+        return accountMapper.toStatisticsResponse(accountId, first, last, days);
+    }
+
+    private Account loadAccount(UUID accountId) {
+        Account account = replicaReads.find(() -> accountRepository.findById(accountId))
+            .orElseThrow(() -> ResourceNotFoundException.accountNotFound(accountId));
+
+        // Striped accounts hold part of their balance in buckets; report the aggregate, summed by the database
+        if (account.isStriped()) {
+            Money totalBalance = Money.of(
+                replicaReads.find(() -> accountRepository.findTotalBalanceById(accountId))
+                    .orElseThrow(() -> ResourceNotFoundException.accountNotFound(accountId)),
+                account.getCurrency());
+            return new Account(accountId, totalBalance, account.getStripeCount());
+        }
+        return account;
     }
 
     private AccountResponse toAccountResponse(Account account) {
-        return modelMapper.map(account, AccountResponse.class);
+        return accountMapper.toResponse(account);
     }
 }
@@ -0,0 +1,66 @@
+package com.payment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.payment.config.IdempotencyCacheProperties;
+import com.payment.model.PaymentStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Local cache of idempotency key to payment id and last known status, so client retries are answered without a
+ * database round trip.
+ * <p>
+ * The cache is only a shortcut: the unique constraint on {@code payment.idempotency_key} remains the arbiter for
+ * concurrent duplicates. Statuses are last known to this instance and may lag behind the database until the entry
+ * is refreshed or expires. Hit and miss counts are exported as {@code cache.gets{cache="payment.idempotency"}}.
+ */
+@Component
+public class IdempotencyCache {
+
+    static final String CACHE_NAME = "payment.idempotency";
+
+    private final Cache<String, Entry> cache;
+
+    public IdempotencyCache(IdempotencyCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(properties.maxSize())
+            .expireAfterWrite(properties.ttl())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<Entry> get(String idempotencyKey) {
+        return Optional.ofNullable(cache.getIfPresent(idempotencyKey));
+    }
+
+    /**
+     * Records the status of a payment. A terminal status is never replaced by an earlier one that arrives late.
+     */
+    public void put(String idempotencyKey, UUID paymentId, PaymentStatus status) {
+        cache.asMap().merge(idempotencyKey, new Entry(paymentId, status), IdempotencyCache::latest);
+    }
+
+    /**
+     * Updates the status of a key that is already cached, without adding keys this instance has not seen.
+     */
+    public void statusChanged(String idempotencyKey, UUID paymentId, PaymentStatus status) {
+        cache.asMap().computeIfPresent(idempotencyKey, (key, current) -> latest(current, new Entry(paymentId, status)));
+    }
+
+    public void invalidate(String idempotencyKey) {
+        cache.invalidate(idempotencyKey);
+    }
+
+    private static Entry latest(Entry current, Entry update) {
+        return current.status().isTerminal() ? current : update;
+    }
+
+    public record Entry(UUID paymentId, PaymentStatus status) {
+    }
+}
@@ -0,0 +1,245 @@
+package com.payment.service;
+
+import com.payment.api.model.PaymentBatchItem;
+import com.payment.api.model.PaymentBatchItemOutcome;
+import com.payment.api.model.PaymentBatchItemResult;
+import com.payment.api.model.PaymentBatchResponse;
+import com.payment.api.model.PaymentRequest;
+import com.payment.exception.ErrorCode;
+import com.payment.model.Money;
+import com.payment.model.Payment;
+import com.payment.model.PaymentStatus;
+import com.payment.observability.PaymentTracing;
+import com.payment.repository.AccountRepository;
+import com.payment.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Submits many payments at once with a fixed number of queries, however large the batch: one for all account ids,
+ * one for all idempotency keys and one JDBC batch insert. Validation failures are reported per item with the same
+ * error codes as {@link PaymentService#submitPayment}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentBatchService {
+
+    private final PaymentRepository paymentRepository;
+    private final AccountRepository accountRepository;
+    private final PaymentDispatcher paymentDispatcher;
+    private final IdempotencyCache idempotencyCache;
+    private final PaymentTracing tracing;
+
+    /**
+     * Not transactional: the payments are committed before their workflows are started, as for single submissions.
+     * A payment whose workflow could not be started is marked FAILED and reported as rejected with
+     * {@code PAYMENT_PROCESSING_FAILED}; the rest of the batch is unaffected.
+     */
+    public PaymentBatchResponse submitBatch(List<PaymentBatchItem> items) {
+        String traceParent = tracing.currentTraceParent();
+        Map<String, Payment> existing = findExisting(items);
+        Set<UUID> knownAccounts = findKnownAccounts(items);
+
+        PaymentBatchItemResult[] results = new PaymentBatchItemResult[items.size()];
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+        List<Payment> toInsert = new ArrayList<>();
+        Map<UUID, Integer> indexByPaymentId = new HashMap<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            PaymentBatchItem item = items.get(i);
+            String key = item.getIdempotencyKey();
+
+            Integer firstIndex = firstIndexByKey.putIfAbsent(key, i);
+            if (firstIndex != null) {
+                // Resolved once the first occurrence has its final result
+                continue;
+            }
+
+            Payment duplicate = existing.get(key);
+            if (duplicate != null) {
+                results[i] = duplicate(i, key, duplicate.getId(), duplicate.getStatus());
+                continue;
+            }
+
+            ErrorCode rejection = validate(item.getPayment(), knownAccounts);
+            if (rejection != null) {
+                results[i] = rejected(i, key, rejection, rejectionMessage(rejection, item.getPayment()));
+                continue;
+            }
+
+            PaymentRequest request = item.getPayment();
+            Payment payment = Payment.create(
+                key,
+                request.getSenderAccountId(),
+                request.getReceiverAccountId(),
+                Money.parse(request.getAmount(), request.getCurrency())
+            );
+            payment.tracedBy(traceParent);
+            toInsert.add(payment);
+            indexByPaymentId.put(payment.getId(), i);
+        }
+
+        Set<UUID> inserted = paymentRepository.insertAll(toInsert);
+        List<Payment> created = new ArrayList<>(inserted.size());
+        List<Payment> lostRace = new ArrayList<>();
+        for (Payment payment : toInsert) {
+            int index = indexByPaymentId.get(payment.getId());
+            if (inserted.contains(payment.getId())) {
+                created.add(payment);
+                results[index] = accepted(index, payment.getIdempotencyKey(), payment.getId());
+                idempotencyCache.put(payment.getIdempotencyKey(), payment.getId(), PaymentStatus.PENDING);
+            } else {
+                lostRace.add(payment);
+            }
+        }
+        resolveLostRaces(lostRace, indexByPaymentId, results);
+
+        Map<UUID, RuntimeException> undispatched = paymentDispatcher.dispatchAll(created);
+        undispatched.forEach((paymentId, cause) -> {
+            int index = indexByPaymentId.get(paymentId);
+            paymentDispatcher.abandon(paymentId, cause);
+            idempotencyCache.invalidate(results[index].getIdempotencyKey());
+            results[index] = undispatched(index, results[index].getIdempotencyKey(), paymentId);
+        });
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] == null) {
+                results[i] = repeatOf(i, results[firstIndexByKey.get(items.get(i).getIdempotencyKey())]);
+            }
+        }
+        log.info("Payment batch of {} items submitted, {} payments created, {} not dispatched",
+            items.size(), created.size(), undispatched.size());
+
+        PaymentBatchResponse response = new PaymentBatchResponse();
+        response.setResults(List.of(results));
+        return response;
+    }
+
+    private Map<String, Payment> findExisting(List<PaymentBatchItem> items) {
+        Set<String> keys = items.stream().map(PaymentBatchItem::getIdempotencyKey).collect(Collectors.toSet());
+        return paymentRepository.findAllByIdempotencyKeyIn(keys).stream()
+            .collect(Collectors.toMap(Payment::getIdempotencyKey, Function.identity()));
+    }
+
+    private Set<UUID> findKnownAccounts(List<PaymentBatchItem> items) {
+        Set<UUID> accountIds = new HashSet<>();
+        items.forEach(item -> {
+            accountIds.add(item.getPayment().getSenderAccountId());
+            accountIds.add(item.getPayment().getReceiverAccountId());
+        });
+        return accountRepository.findExistingIds(accountIds);
+    }
+
+    /**
+     * Payments whose key was taken by a concurrent request between the lookup and the insert.
+     */
+    private void resolveLostRaces(
+        List<Payment> lostRace, Map<UUID, Integer> indexByPaymentId, PaymentBatchItemResult[] results) {
+
+        if (lostRace.isEmpty()) {
+            return;
+        }
+        Map<String, Payment> winners = paymentRepository.findAllByIdempotencyKeyIn(
+                lostRace.stream().map(Payment::getIdempotencyKey).toList()).stream()
+            .collect(Collectors.toMap(Payment::getIdempotencyKey, Function.identity()));
+
+        for (Payment payment : lostRace) {
+            int index = indexByPaymentId.get(payment.getId());
+            Payment winner = winners.get(payment.getIdempotencyKey());
+            if (winner == null) {
+                throw new IllegalStateException("Payment insert skipped without a conflicting payment: "
+                    + payment.getIdempotencyKey());
+            }
+            results[index] = duplicate(index, payment.getIdempotencyKey(), winner.getId(), winner.getStatus());
+        }
+    }
+
+    private static ErrorCode validate(PaymentRequest request, Set<UUID> knownAccounts) {
+        if (request.getSenderAccountId().equals(request.getReceiverAccountId())) {
+            return ErrorCode.SAME_ACCOUNT;
+        }
+        if (!knownAccounts.contains(request.getSenderAccountId())) {
+            return ErrorCode.SENDER_ACCOUNT_NOT_FOUND;
+        }
+        if (!knownAccounts.contains(request.getReceiverAccountId())) {
+            return ErrorCode.RECEIVER_ACCOUNT_NOT_FOUND;
+        }
+        if (!Money.parse(request.getAmount(), request.getCurrency()).isPositive()) {
+            return ErrorCode.INVALID_AMOUNT;
+        }
+        return null;
+    }
+
+    private static String rejectionMessage(ErrorCode errorCode, PaymentRequest request) {
+        return switch (errorCode) {
+            case SAME_ACCOUNT -> "Sender and receiver cannot be the same account: " + request.getSenderAccountId();
+            case SENDER_ACCOUNT_NOT_FOUND -> "Sender account not found: " + request.getSenderAccountId();
+            case RECEIVER_ACCOUNT_NOT_FOUND -> "Receiver account not found: " + request.getReceiverAccountId();
+            case INVALID_AMOUNT ->
+                "Invalid payment amount: " + request.getAmount() + ". Amount must be greater than zero";
+            default -> errorCode.name();
+        };
+    }
+
+    private static PaymentBatchItemResult accepted(int index, String key, UUID paymentId) {
+        return result(index, key, PaymentBatchItemOutcome.ACCEPTED)
+            .paymentId(paymentId)
+            .status(com.payment.api.model.PaymentStatus.PENDING);
+    }
+
+    private static PaymentBatchItemResult duplicate(int index, String key, UUID paymentId, PaymentStatus status) {
+        return result(index, key, PaymentBatchItemOutcome.DUPLICATE)
+            .paymentId(paymentId)
+            .status(com.payment.api.model.PaymentStatus.valueOf(status.name()));
+    }
+
+    private static PaymentBatchItemResult rejected(int index, String key, ErrorCode errorCode, String message) {
+        return result(index, key, PaymentBatchItemOutcome.REJECTED)
+            .errorCode(errorCode.name())
+            .numericCode(errorCode.getNumericCode())
+            .message(message);
+    }
+
+    /**
+     * Stored, but marked FAILED because its dispatch failed; reported like the single endpoint's error.
+     */
+    private static PaymentBatchItemResult undispatched(int index, String key, UUID paymentId) {
+        return rejected(index, key, ErrorCode.PAYMENT_PROCESSING_FAILED,
+            "Payment " + paymentId + " processing failed: could not be dispatched")
+            .paymentId(paymentId)
+            .status(com.payment.api.model.PaymentStatus.FAILED);
+    }
+
+    /**
+     * A key repeated within the batch refers to the payment of its first occurrence, or shares its rejection.
+     */
+    private static PaymentBatchItemResult repeatOf(int index, PaymentBatchItemResult first) {
+        PaymentBatchItemOutcome outcome = first.getOutcome() == PaymentBatchItemOutcome.REJECTED
+            ? PaymentBatchItemOutcome.REJECTED
+            : PaymentBatchItemOutcome.DUPLICATE;
+        return result(index, first.getIdempotencyKey(), outcome)
+            .paymentId(first.getPaymentId())
+            .status(first.getStatus())
+            .errorCode(first.getErrorCode())
+            .numericCode(first.getNumericCode())
+            .message(first.getMessage());
+    }
+
+    private static PaymentBatchItemResult result(int index, String key, PaymentBatchItemOutcome outcome) {
+        return new PaymentBatchItemResult()
+            .index(index)
+            .idempotencyKey(key)
+            .outcome(outcome);
+    }
+}
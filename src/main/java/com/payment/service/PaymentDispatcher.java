@@ -0,0 +1,241 @@
+package com.payment.service;
+
+import com.payment.config.PaymentProcessingProperties;
+import com.payment.config.TemporalConfig;
+import com.payment.exception.ErrorCode;
+import com.payment.model.Payment;
+import com.payment.model.PaymentStatus;
+import com.payment.observability.PaymentTracing;
+import com.payment.temporal.activity.LedgerActivities;
+import com.payment.temporal.activity.TransferResult;
+import com.payment.temporal.workflow.PaymentWorkflow;
+import com.payment.temporal.workflow.SenderPaymentWorkflow;
+import com.payment.temporal.workflow.SenderWorkflowInput;
+import io.temporal.client.BatchRequest;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowExecutionAlreadyStarted;
+import io.temporal.client.WorkflowOptions;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Hands a newly created payment over for processing.
+ * <p>
+ * By default a {@link PaymentWorkflow} is started. In inline mode the workflow's steps are run in-process first and
+ * the final status is returned to the caller; the workflow is only started when that attempt fails or times out.
+ * Both paths go through the same idempotent ledger activities, so a payment is never applied twice.
+ * <p>
+ * In per-sender mode the payment is signalled to its sender's {@link SenderPaymentWorkflow} instead, which is started
+ * if it is not running.
+ */
+@Service
+@Slf4j
+public class PaymentDispatcher {
+
+    private final WorkflowClient workflowClient;
+    private final LedgerActivities ledgerActivities;
+    private final PaymentProcessingProperties.Inline inline;
+    private final PaymentProcessingProperties.Workflow workflowSettings;
+    private final PaymentTracing tracing;
+    private final ExecutorService inlineExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PaymentDispatcher(
+        WorkflowClient workflowClient,
+        LedgerActivities ledgerActivities,
+        PaymentProcessingProperties properties,
+        PaymentTracing tracing) {
+
+        this.workflowClient = workflowClient;
+        this.ledgerActivities = ledgerActivities;
+        this.inline = properties.inline();
+        this.workflowSettings = properties.workflow();
+        this.tracing = tracing;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        inlineExecutor.shutdown();
+    }
+
+    public DispatchResult dispatch(Payment payment) {
+        if (inline.enabled()) {
+            Optional<DispatchResult> result = processInline(payment.getId());
+            if (result.isPresent()) {
+                return result.get();
+            }
+        }
+
+        if (perSender()) {
+            signalSender(payment.getSenderAccountId(), List.of(payment.getId()));
+        } else {
+            startWorkflow(payment.getId());
+        }
+        return DispatchResult.pending();
+    }
+
+    /**
+     * Starts a workflow per payment, or signals each sender's workflow once with all of its payments, concurrently.
+     * Batches are never processed inline: a large batch would not fit the inline timeout.
+     *
+     * @return the payments whose dispatch failed, with the cause; in per-sender mode a failed signal fails all
+     *     payments of that sender
+     */
+    public Map<UUID, RuntimeException> dispatchAll(Collection<Payment> payments) {
+        Map<List<UUID>, Runnable> dispatches = new LinkedHashMap<>();
+        if (perSender()) {
+            Map<UUID, List<UUID>> bySender = payments.stream().collect(Collectors.groupingBy(
+                Payment::getSenderAccountId,
+                LinkedHashMap::new,
+                Collectors.mapping(Payment::getId, Collectors.toList())));
+            bySender.forEach((senderAccountId, paymentIds) ->
+                dispatches.put(paymentIds, () -> signalSender(senderAccountId, paymentIds)));
+        } else {
+            payments.forEach(payment ->
+                dispatches.put(List.of(payment.getId()), () -> startWorkflow(payment.getId())));
+        }
+
+        Map<List<UUID>, CompletableFuture<Void>> started = new LinkedHashMap<>();
+        dispatches.forEach((paymentIds, dispatch) ->
+            started.put(paymentIds, CompletableFuture.runAsync(dispatch, inlineExecutor)));
+
+        Map<UUID, RuntimeException> failures = new LinkedHashMap<>();
+        started.forEach((paymentIds, start) -> {
+            try {
+                start.join();
+            } catch (CompletionException e) {
+                RuntimeException cause = e.getCause() instanceof RuntimeException runtime ? runtime : e;
+                log.warn("Failed to dispatch payments {}", paymentIds, cause);
+                paymentIds.forEach(paymentId -> failures.put(paymentId, cause));
+            }
+        });
+        return failures;
+    }
+
+    /**
+     * Starts the workflow of a payment that should have been processed by now. Returns {@code false} if its workflow
+     * is still running. A finished workflow is started again under the same id; the ledger activities find out
+     * whether the payment was already applied.
+     * <p>
+     * In per-sender mode the payment is signalled again, which always counts as redriven: the sender's workflow may
+     * be running but have lost the payment, e.g. when a signal failed after the payment was stored.
+     */
+    public boolean redrive(Payment payment) {
+        if (perSender()) {
+            signalSender(payment.getSenderAccountId(), List.of(payment.getId()));
+            return true;
+        }
+        try {
+            startWorkflow(payment.getId());
+            return true;
+        } catch (WorkflowExecutionAlreadyStarted e) {
+            return false;
+        }
+    }
+
+    /**
+     * Marks a stored payment FAILED after its dispatch threw, so it is not left PENDING without a workflow. Goes
+     * through the same activity as a business failure, which appends the completion event and leaves payments that
+     * were processed after all untouched. If that fails too, the payment stays PENDING for the reconciler.
+     */
+    public void abandon(UUID paymentId, RuntimeException cause) {
+        try {
+            ledgerActivities.markPaymentFailed(paymentId, ErrorCode.PAYMENT_PROCESSING_FAILED.name(),
+                "Payment could not be dispatched: " + cause.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Failed to mark undispatched payment {} as FAILED, leaving it to the reconciler", paymentId, e);
+        }
+    }
+
+    private boolean perSender() {
+        return workflowSettings.mode() == PaymentProcessingProperties.WorkflowMode.PER_SENDER;
+    }
+
+    /**
+     * Runs the attempt on a virtual thread so the request can stop waiting after the timeout. The workflow that takes
+     * over repeats both steps: a failed transfer leaves the payment in flight, so if the attempt's
+     * {@code markPaymentFailed} threw or has not committed yet, the workflow finds the failure again and records it
+     * with its own retries. A transfer is still applied only once, as whichever commits second finds it processed.
+     * The request's trace is handed over explicitly, as it does not follow the task to the virtual thread.
+     */
+    private Optional<DispatchResult> processInline(UUID paymentId) {
+        String traceParent = tracing.currentTraceParent();
+        try {
+            return Optional.of(CompletableFuture.supplyAsync(
+                    () -> tracing.inSpan("payment.inline", traceParent, () -> process(paymentId)), inlineExecutor)
+                .get(inline.timeout().toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            log.warn("Inline processing of payment {} timed out, falling back to workflow", paymentId);
+        } catch (ExecutionException e) {
+            log.warn("Inline processing of payment {} failed, falling back to workflow", paymentId, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted during inline processing of payment {}, falling back to workflow", paymentId);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Same steps as {@code PaymentWorkflowImpl.processPayment}.
+     */
+    private DispatchResult process(UUID paymentId) {
+        TransferResult result = ledgerActivities.executeTransfer(paymentId);
+
+        if (!result.successful()) {
+            ledgerActivities.markPaymentFailed(paymentId, result.errorCode(), result.errorMessage());
+        }
+
+        return result.successful()
+            ? new DispatchResult(PaymentStatus.COMPLETED, null)
+            : new DispatchResult(PaymentStatus.FAILED, result.errorMessage());
+    }
+
+    private void startWorkflow(UUID paymentId) {
+        PaymentWorkflow workflow = workflowClient.newWorkflowStub(
+            PaymentWorkflow.class,
+            WorkflowOptions.newBuilder()
+                .setTaskQueue(TemporalConfig.PAYMENT_TASK_QUEUE)
+                .setWorkflowId(paymentId.toString())
+                .build()
+        );
+
+        WorkflowClient.start(workflow::processPayment, paymentId);
+    }
+
+    private void signalSender(UUID senderAccountId, List<UUID> paymentIds) {
+        SenderPaymentWorkflow sender = workflowClient.newWorkflowStub(
+            SenderPaymentWorkflow.class,
+            WorkflowOptions.newBuilder()
+                .setTaskQueue(TemporalConfig.PAYMENT_TASK_QUEUE)
+                .setWorkflowId("sender-" + senderAccountId)
+                .build()
+        );
+
+        BatchRequest request = workflowClient.newSignalWithStartRequest();
+        request.add(sender::processPayments, SenderWorkflowInput.start(senderAccountId, workflowSettings));
+        request.add(sender::submit, paymentIds);
+        workflowClient.signalWithStart(request);
+    }
+
+    public record DispatchResult(PaymentStatus status, String message) {
+
+        static DispatchResult pending() {
+            return new DispatchResult(PaymentStatus.PENDING, null);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.payment.service;
+
+import com.payment.datasource.ReplicaReads;
+import com.payment.exception.validation.PaymentValidationException;
+import com.payment.repository.PaymentExportFilter;
+import com.payment.repository.PaymentExportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streams payment histories for bulk export, e.g. full account statements, instead of paging through
+ * {@code GET /api/v1/payments}. Reads from the replica when there is one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentExportService {
+
+    private final PaymentExportRepository exportRepository;
+    private final ReplicaReads replicaReads;
+
+    public void validate(PaymentExportFilter filter) {
+        if (filter.from() != null && filter.to() != null && !filter.from().isBefore(filter.to())) {
+            throw PaymentValidationException.invalidDateRange(filter.from(), filter.to());
+        }
+    }
+
+    /**
+     * Writes the matching payments to {@code out}. A client that disconnects fails the next write, which ends the
+     * query and releases the connection.
+     *
+     * @return number of payments written
+     */
+    public long export(PaymentExportFilter filter, PaymentExportFormat format, OutputStream out) throws IOException {
+        PaymentExportWriter writer = PaymentExportWriter.of(format, out);
+        long rows = replicaReads.read(() -> exportRepository.stream(filter, row -> {
+            try {
+                writer.write(row);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+        writer.finish();
+        log.info("Exported {} payments as {}", rows, format);
+        return rows;
+    }
+}
@@ -0,0 +1,130 @@
+package com.payment.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.payment.repository.PaymentExportRow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Writes exported payments one at a time, so memory use does not grow with the number of rows. Field names and
+ * value formats are those of {@code PaymentResponse}.
+ */
+public abstract class PaymentExportWriter {
+
+    static final String[] FIELDS = {
+        "paymentId", "senderAccountId", "receiverAccountId", "amount", "currency", "status", "errorCode",
+        "errorMessage", "createdAt", "updatedAt"
+    };
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    public static PaymentExportWriter of(PaymentExportFormat format, OutputStream out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new Ndjson(JSON.createGenerator(out));
+            case CSV -> new Csv(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        };
+    }
+
+    public abstract void write(PaymentExportRow row) throws IOException;
+
+    /**
+     * Flushes buffered rows without closing {@code out}.
+     */
+    public abstract void finish() throws IOException;
+
+    private static String text(UUID value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static String text(Instant value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static String[] values(PaymentExportRow row) {
+        return new String[]{
+            text(row.paymentId()), text(row.senderAccountId()), text(row.receiverAccountId()),
+            row.amount().toPlainString(), row.currency(), row.status(), row.errorCode(), row.errorMessage(),
+            text(row.createdAt()), text(row.updatedAt())
+        };
+    }
+
+    /**
+     * One JSON object per line. Absent values are omitted, as in API responses.
+     */
+    static final class Ndjson extends PaymentExportWriter {
+
+        private final JsonGenerator generator;
+
+        Ndjson(JsonGenerator generator) {
+            this.generator = generator;
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(PaymentExportRow row) throws IOException {
+            String[] values = values(row);
+            generator.writeStartObject();
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (values[i] != null) {
+                    generator.writeStringField(FIELDS[i], values[i]);
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+    }
+
+    /**
+     * RFC 4180 with a header row; absent values are empty fields.
+     */
+    static final class Csv extends PaymentExportWriter {
+
+        private final Writer writer;
+
+        Csv(Writer writer) throws IOException {
+            this.writer = writer;
+            writeLine(FIELDS);
+        }
+
+        @Override
+        public void write(PaymentExportRow row) throws IOException {
+            writeLine(values(row));
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writer.write(escape(values[i]));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private static String escape(String value) {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.payment.service;
+
+import com.payment.config.PartitionProperties;
+import com.payment.repository.PaymentPartitionRepository;
+import com.payment.repository.PaymentPartitionRepository.PaymentPartition;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the monthly {@code payment} partitions ahead of time and, if enabled, moves expired ones to disk.
+ * <p>
+ * An insert whose {@code created_at} has no partition fails, so partitions for the next
+ * {@code payment.partitions.months-ahead} months are created on startup and on every run. Archiving writes each
+ * settled partition older than the retention to {@code <directory>/payment_pYYYYMM.csv.gz} and only then detaches
+ * and drops it; a run interrupted in between rewrites the file next time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentPartitionMaintenance {
+
+    private final PaymentPartitionRepository partitionRepository;
+    private final PartitionProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        createUpcomingPartitions();
+    }
+
+    @Scheduled(cron = "${payment.partitions.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        createUpcomingPartitions();
+        if (properties.archive().enabled()) {
+            archiveExpiredPartitions();
+        }
+    }
+
+    public void createUpcomingPartitions() {
+        LocalDate today = LocalDate.now();
+        int created = partitionRepository.createPartitions(today, today.plusMonths(properties.monthsAhead()));
+        if (created > 0) {
+            log.info("Created {} payment partitions", created);
+        }
+    }
+
+    public void archiveExpiredPartitions() {
+        PartitionProperties.Archive archive = properties.archive();
+        YearMonth cutoff = YearMonth.from(LocalDate.now().minus(archive.retention()));
+
+        for (PaymentPartition partition : partitionRepository.findAll()) {
+            if (!partition.month().isBefore(cutoff)) {
+                continue;
+            }
+            if (!partitionRepository.isSettled(partition)) {
+                log.warn("Payment partition {} has unfinished payments or unpublished events, not archiving",
+                    partition.name());
+                continue;
+            }
+
+            try {
+                Path file = write(partition, archive.directory());
+                partitionRepository.drop(partition);
+                log.info("Archived payment partition {} to {}", partition.name(), file);
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to archive payment partition {}", partition.name(), e);
+            }
+        }
+    }
+
+    private Path write(PaymentPartition partition, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(partition.name() + ".csv.gz");
+        Path temporary = directory.resolve(partition.name() + ".csv.gz.tmp");
+
+        try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            long rows = partitionRepository.export(partition, out);
+            log.info("Exported {} payments from partition {}", rows, partition.name());
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+}
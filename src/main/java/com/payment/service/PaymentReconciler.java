@@ -0,0 +1,96 @@
+package com.payment.service;
+
+import com.payment.config.ReconcilerProperties;
+import com.payment.model.Payment;
+import com.payment.repository.PaymentCursor;
+import com.payment.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Finds payments stuck in PENDING or PROCESSING and hands them to {@link PaymentDispatcher#redrive} again.
+ * <p>
+ * A payment gets stuck when its workflow could not be started after the payment was committed, or when the workflow
+ * gave up before the payment reached a terminal status. Sweeps walk {@code idx_payment_in_flight} in (createdAt, id)
+ * order, so their cost grows with the number of unfinished payments, not with the size of the table. Running the
+ * reconciler on several instances is safe: a payment's workflow id is its payment id, and only one of them starts.
+ */
+@Component
+@Slf4j
+public class PaymentReconciler {
+
+    private static final PaymentCursor START = new PaymentCursor(Instant.EPOCH, new UUID(0, 0));
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentDispatcher paymentDispatcher;
+    private final ReconcilerProperties properties;
+    private final Counter stuck;
+    private final Counter redriven;
+
+    public PaymentReconciler(
+        PaymentRepository paymentRepository,
+        PaymentDispatcher paymentDispatcher,
+        ReconcilerProperties properties,
+        MeterRegistry meterRegistry) {
+
+        this.paymentRepository = paymentRepository;
+        this.paymentDispatcher = paymentDispatcher;
+        this.properties = properties;
+        this.stuck = meterRegistry.counter("payment.reconciler.stuck");
+        this.redriven = meterRegistry.counter("payment.reconciler.redriven");
+    }
+
+    @Scheduled(fixedDelayString = "${payment.reconciler.interval:1m}")
+    public void reconcileOnSchedule() {
+        if (properties.enabled()) {
+            reconcile();
+        }
+    }
+
+    public Result reconcile() {
+        Instant stuckBefore = Instant.now().minus(properties.stuckAfter());
+        PaymentCursor cursor = START;
+        int found = 0;
+        int started = 0;
+
+        List<Payment> batch;
+        do {
+            batch = paymentRepository.findInFlight(
+                stuckBefore, cursor.createdAt(), cursor.id(), properties.batchSize());
+            for (Payment payment : batch) {
+                found++;
+                try {
+                    if (paymentDispatcher.redrive(payment)) {
+                        started++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Failed to redrive payment {}", payment.getId(), e);
+                }
+            }
+            if (!batch.isEmpty()) {
+                cursor = PaymentCursor.of(batch.getLast());
+            }
+        } while (batch.size() == properties.batchSize());
+
+        stuck.increment(found);
+        redriven.increment(started);
+        if (found > 0) {
+            log.info("Found {} payments in flight since before {}, restarted {} workflows", found, stuckBefore, started);
+        }
+        return new Result(found, started);
+    }
+
+    /**
+     * @param stuck    payments that were still in flight after the threshold
+     * @param redriven of those, payments whose workflow was started again; the rest still had a running workflow
+     */
+    public record Result(int stuck, int redriven) {
+    }
+}
@@ -4,27 +4,32 @@ import com.payment.api.model.PaymentAcceptedResponse;
 import com.payment.api.model.PaymentListResponse;
 import com.payment.api.model.PaymentRequest;
 import com.payment.api.model.PaymentResponse;
-import com.payment.config.TemporalConfig;
+import com.payment.datasource.ReplicaReads;
+import com.payment.exception.PaymentException;
 import com.payment.exception.ResourceNotFoundException;
 import com.payment.exception.validation.PaymentValidationException;
+import com.payment.mapper.PaymentMapper;
+import com.payment.model.Money;
 import com.payment.model.Payment;
 import com.payment.model.PaymentStatus;
-import com.payment.repository.AccountRepository;
+import com.payment.observability.PaymentMetrics;
+import com.payment.observability.PaymentMetrics.SubmitPhase;
+import com.payment.observability.PaymentTracing;
+import com.payment.repository.PaymentCursor;
 import com.payment.repository.PaymentRepository;
 import com.payment.repository.PaymentSpecification;
-import com.payment.temporal.workflow.PaymentWorkflow;
-import io.temporal.client.WorkflowClient;
-import io.temporal.client.WorkflowOptions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -33,57 +38,95 @@ import java.util.UUID;
 @Slf4j
 public class PaymentService {
 
-    private final PaymentRepository paymentRepository;
-    private final AccountRepository accountRepository;
-    private final WorkflowClient workflowClient;
-    private final ModelMapper modelMapper;
+    private static final PaymentCursor IN_FLIGHT_START = new PaymentCursor(Instant.EPOCH, new UUID(0, 0));
 
-    @Transactional
+    private final PaymentRepository paymentRepository;
+    private final AccountCache accountCache;
+    private final PaymentDispatcher paymentDispatcher;
+    private final IdempotencyCache idempotencyCache;
+    private final PaymentMapper paymentMapper;
+    private final PaymentMetrics metrics;
+    private final PaymentTracing tracing;
+    private final ReplicaReads replicaReads;
+
+    /**
+     * Not transactional on purpose: the payment is committed by {@code save} before it is dispatched, so neither the
+     * workflow nor an inline attempt can look for it before it is visible. If the dispatch fails, the committed
+     * payment is marked FAILED and its cached key evicted, so a retry with the same key sees the final status
+     * instead of a PENDING payment nobody will process.
+     */
     public PaymentAcceptedResponse submitPayment(PaymentRequest request, String idempotencyKey) {
+        long lap = System.nanoTime();
+        Optional<IdempotencyCache.Entry> cached = idempotencyCache.get(idempotencyKey);
+        if (cached.isPresent()) {
+            metrics.recordSubmitPhase(SubmitPhase.IDEMPOTENCY_LOOKUP, lap);
+            log.info("Duplicate payment request with idempotency key: {}", idempotencyKey);
+            return toAcceptedResponse(cached.get());
+        }
+
         Optional<Payment> existing = paymentRepository.findByIdempotencyKey(idempotencyKey);
+        lap = metrics.recordSubmitPhase(SubmitPhase.IDEMPOTENCY_LOOKUP, lap);
 
         if (existing.isPresent()) {
             log.info("Duplicate payment request with idempotency key: {}", idempotencyKey);
-            return toAcceptedResponse(existing.get());
+            return toAcceptedResponse(remember(existing.get()));
         }
 
-        validatePaymentRequest(request);
+        Money amount = Money.parse(request.getAmount(), request.getCurrency());
+        validatePaymentRequest(request, amount);
+        lap = metrics.recordSubmitPhase(SubmitPhase.VALIDATION, lap);
 
         Payment payment = Payment.create(
             idempotencyKey,
             request.getSenderAccountId(),
             request.getReceiverAccountId(),
-            new BigDecimal(request.getAmount()),
-            request.getCurrency()
+            amount
         );
+        payment.tracedBy(tracing.currentTraceParent());
 
-        paymentRepository.save(payment);
+        try {
+            paymentRepository.save(payment);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key committed first
+            Payment winner = paymentRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+            log.info("Duplicate payment request with idempotency key: {}", idempotencyKey);
+            return toAcceptedResponse(remember(winner));
+        }
+        lap = metrics.recordSubmitPhase(SubmitPhase.INSERT, lap);
+        remember(payment);
         log.info("Payment created: {}", payment.getId());
 
-        // Start Temporal Workflow
-        PaymentWorkflow workflow = workflowClient.newWorkflowStub(
-            PaymentWorkflow.class,
-            WorkflowOptions.newBuilder()
-                .setTaskQueue(TemporalConfig.PAYMENT_TASK_QUEUE)
-                .setWorkflowId(payment.getId().toString())
-                .build()
-        );
-
-        WorkflowClient.start(workflow::processPayment, payment.getId());
+        PaymentDispatcher.DispatchResult dispatched;
+        try {
+            dispatched = paymentDispatcher.dispatch(payment);
+        } catch (RuntimeException e) {
+            log.error("Failed to dispatch payment {}", payment.getId(), e);
+            paymentDispatcher.abandon(payment.getId(), e);
+            idempotencyCache.invalidate(idempotencyKey);
+            throw PaymentException.processingFailed(payment.getId(), "could not be dispatched");
+        }
+        metrics.recordSubmitPhase(SubmitPhase.DISPATCH, lap);
+        idempotencyCache.put(idempotencyKey, payment.getId(), dispatched.status());
 
-        return toAcceptedResponse(payment);
+        PaymentAcceptedResponse response = toAcceptedResponse(payment);
+        response.setStatus(com.payment.api.model.PaymentStatus.valueOf(dispatched.status().name()));
+        response.setMessage(dispatched.message());
+        return response;
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Not transactional, so a payment missing on the replica can be looked up on the primary in a new transaction.
+     */
     public PaymentResponse getPayment(UUID paymentId) {
-        Payment payment = paymentRepository.findById(paymentId).orElseThrow(() -> ResourceNotFoundException.paymentNotFound(paymentId));
+        Payment payment = replicaReads.find(() -> paymentRepository.findById(paymentId))
+            .orElseThrow(() -> ResourceNotFoundException.paymentNotFound(paymentId));
         return toPaymentResponse(payment);
     }
 
     @Transactional(readOnly = true)
     public PaymentListResponse listPayments(UUID senderAccountId, PaymentStatus status, Pageable pageable) {
         Specification<Payment> spec = PaymentSpecification.searchBy(senderAccountId, status);
-        Page<Payment> page = paymentRepository.findAll(spec, pageable);
+        Page<Payment> page = replicaReads.read(() -> paymentRepository.findAll(spec, pageable));
 
         PaymentListResponse response = new PaymentListResponse();
         response.setContent(page.getContent().stream()
@@ -96,30 +139,103 @@ public class PaymentService {
         return response;
     }
 
-    private void validatePaymentRequest(PaymentRequest request) {
+    /**
+     * Keyset variant of {@link #listPayments}: seeks past {@code cursor} in (createdAt, id) order, newest first, and
+     * fetches one extra row to know whether there is a next page instead of counting.
+     */
+    @Transactional(readOnly = true)
+    public PaymentListResponse listPaymentsByCursor(UUID senderAccountId, PaymentStatus status, String cursor, int size) {
+        Specification<Payment> spec = PaymentSpecification.searchBy(senderAccountId, status);
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(PaymentSpecification.after(decodeCursor(cursor)));
+        }
+
+        Specification<Payment> keyset = spec;
+        List<Payment> payments = replicaReads.read(() -> paymentRepository.findBy(keyset, query -> query
+            .sortBy(PaymentSpecification.KEYSET_ORDER)
+            .limit(size + 1)
+            .all()));
+        boolean hasNext = payments.size() > size;
+        List<Payment> content = hasNext ? payments.subList(0, size) : payments;
+
+        PaymentListResponse response = new PaymentListResponse();
+        response.setContent(content.stream()
+            .map(this::toPaymentResponse)
+            .toList());
+        response.setSize(size);
+        if (hasNext) {
+            response.setNextCursor(PaymentCursor.of(content.getLast()).encode());
+        }
+        return response;
+    }
+
+    /**
+     * PENDING and PROCESSING payments at least {@code minAge} old, oldest first, seeking past {@code cursor}.
+     */
+    @Transactional(readOnly = true)
+    public PaymentListResponse listInFlightPayments(Duration minAge, String cursor, int size) {
+        PaymentCursor after = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : IN_FLIGHT_START;
+
+        Instant stuckBefore = Instant.now().minus(minAge);
+        List<Payment> payments = replicaReads.read(() -> paymentRepository.findInFlight(
+            stuckBefore, after.createdAt(), after.id(), size + 1));
+        boolean hasNext = payments.size() > size;
+        List<Payment> content = hasNext ? payments.subList(0, size) : payments;
+
+        PaymentListResponse response = new PaymentListResponse();
+        response.setContent(content.stream()
+            .map(this::toPaymentResponse)
+            .toList());
+        response.setSize(size);
+        if (hasNext) {
+            response.setNextCursor(PaymentCursor.of(content.getLast()).encode());
+        }
+        return response;
+    }
+
+    private static PaymentCursor decodeCursor(String cursor) {
+        try {
+            return PaymentCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw PaymentValidationException.invalidCursor(cursor);
+        }
+    }
+
+    private void validatePaymentRequest(PaymentRequest request, Money amount) {
         if (request.getSenderAccountId().equals(request.getReceiverAccountId())) {
             throw PaymentValidationException.sameAccount(request.getSenderAccountId());
         }
 
-        if (!accountRepository.existsById(request.getSenderAccountId())) {
+        if (!accountCache.exists(request.getSenderAccountId())) {
             throw ResourceNotFoundException.senderAccountNotFound(request.getSenderAccountId());
         }
 
-        if (!accountRepository.existsById(request.getReceiverAccountId())) {
+        if (!accountCache.exists(request.getReceiverAccountId())) {
             throw ResourceNotFoundException.receiverAccountNotFound(request.getReceiverAccountId());
         }
 
-        BigDecimal amount = new BigDecimal(request.getAmount());
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (!amount.isPositive()) {
             throw PaymentValidationException.invalidAmount(amount);
         }
     }
 
+    private Payment remember(Payment payment) {
+        idempotencyCache.put(payment.getIdempotencyKey(), payment.getId(), payment.getStatus());
+        return payment;
+    }
+
     private PaymentAcceptedResponse toAcceptedResponse(Payment payment) {
-        return modelMapper.map(payment, PaymentAcceptedResponse.class);
+        return paymentMapper.toAcceptedResponse(payment);
+    }
+
+    private PaymentAcceptedResponse toAcceptedResponse(IdempotencyCache.Entry entry) {
+        PaymentAcceptedResponse response = new PaymentAcceptedResponse();
+        response.setPaymentId(entry.paymentId());
+        response.setStatus(com.payment.api.model.PaymentStatus.valueOf(entry.status().name()));
+        return response;
     }
 
     private PaymentResponse toPaymentResponse(Payment payment) {
-        return modelMapper.map(payment, PaymentResponse.class);
+        return paymentMapper.toResponse(payment);
     }
 }
@@ -3,6 +3,7 @@ package com.payment.temporal.activity;
 import io.temporal.activity.ActivityInterface;
 import io.temporal.activity.ActivityMethod;
 
+import java.util.List;
 import java.util.UUID;
 
 @ActivityInterface
@@ -11,6 +12,13 @@ public interface LedgerActivities {
     @ActivityMethod
     TransferResult executeTransfer(UUID paymentId);
 
+    /**
+     * Transfers the payments one after another and returns their results in the same order. A failed transfer does
+     * not stop the rest; marking it failed is left to the caller, as with {@link #executeTransfer}.
+     */
+    @ActivityMethod
+    List<TransferResult> executeTransfers(List<UUID> paymentIds);
+
     @ActivityMethod
     void markPaymentFailed(UUID paymentId, String errorCode, String errorMessage);
 }
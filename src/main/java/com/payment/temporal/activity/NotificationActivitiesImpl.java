@@ -1,20 +1,24 @@
 package com.payment.temporal.activity;
 
-import com.payment.config.KafkaConfig;
 import com.payment.config.TemporalConfig;
 import com.payment.event.PaymentCompletedEvent;
+import com.payment.event.PaymentEventPublisher;
 import com.payment.model.Payment;
 import com.payment.model.PaymentStatus;
 import com.payment.repository.PaymentRepository;
+import io.temporal.activity.Activity;
+import io.temporal.activity.ManualActivityCompletionClient;
 import io.temporal.spring.boot.ActivityImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.UUID;
 
+/**
+ * Only invoked by workflows started before completion events were published through the outbox.
+ */
 @Component
 @ActivityImpl(taskQueues = TemporalConfig.PAYMENT_TASK_QUEUE)
 @RequiredArgsConstructor
@@ -22,7 +26,7 @@ import java.util.UUID;
 public class NotificationActivitiesImpl implements NotificationActivities {
 
     private final PaymentRepository paymentRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final PaymentEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -39,7 +43,7 @@ public class NotificationActivitiesImpl implements NotificationActivities {
                 payment.getId(),
                 payment.getSenderAccountId(),
                 payment.getReceiverAccountId(),
-                payment.getAmount(),
+                payment.getAmount().toBigDecimal(),
                 payment.getCurrency()
             );
         } else if (payment.getStatus() == PaymentStatus.FAILED) {
@@ -47,7 +51,7 @@ public class NotificationActivitiesImpl implements NotificationActivities {
                 payment.getId(),
                 payment.getSenderAccountId(),
                 payment.getReceiverAccountId(),
-                payment.getAmount(),
+                payment.getAmount().toBigDecimal(),
                 payment.getCurrency(),
                 payment.getErrorCode(),
                 payment.getErrorMessage()
@@ -57,6 +61,15 @@ public class NotificationActivitiesImpl implements NotificationActivities {
             return;
         }
 
-        kafkaTemplate.send(KafkaConfig.PAYMENT_NOTIFICATIONS_TOPIC, paymentId.toString(), event);
+        // The activity completes once Kafka acknowledged the event, without holding the activity thread meanwhile
+        ManualActivityCompletionClient completion = Activity.getExecutionContext().useLocalManualCompletion();
+        eventPublisher.publish(event, payment.getTraceParent()).whenComplete((result, error) -> {
+            if (error == null) {
+                completion.complete(null);
+            } else {
+                log.warn("Failed to publish completion event for payment {}", paymentId, error);
+                completion.fail(error);
+            }
+        });
     }
 }
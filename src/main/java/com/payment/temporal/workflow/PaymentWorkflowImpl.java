@@ -26,6 +26,7 @@ public class PaymentWorkflowImpl implements PaymentWorkflow {
             .build()
     );
 
+    // Only used when replaying workflows started before completion events moved to the outbox
     private final NotificationActivities notificationActivities = Workflow.newActivityStub(
         NotificationActivities.class,
         ActivityOptions.newBuilder()
@@ -39,12 +40,18 @@ public class PaymentWorkflowImpl implements PaymentWorkflow {
 
     @Override
     public void processPayment(UUID paymentId) {
+        // The completion event is now written to the outbox by the ledger activities. Checked before any activity:
+        // a workflow whose transfer already ran on the old code wrote no outbox row and must still publish itself.
+        int version = Workflow.getVersion("completion-event-outbox", Workflow.DEFAULT_VERSION, 1);
+
         TransferResult result = ledgerActivities.executeTransfer(paymentId);
 
         if (!result.successful()) {
             ledgerActivities.markPaymentFailed(paymentId, result.errorCode(), result.errorMessage());
         }
 
-        notificationActivities.publishCompletionEvent(paymentId);
+        if (version == Workflow.DEFAULT_VERSION) {
+            notificationActivities.publishCompletionEvent(paymentId);
+        }
     }
 }
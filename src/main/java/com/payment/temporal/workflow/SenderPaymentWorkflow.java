@@ -0,0 +1,24 @@
+package com.payment.temporal.workflow;
+
+import io.temporal.workflow.SignalMethod;
+import io.temporal.workflow.WorkflowInterface;
+import io.temporal.workflow.WorkflowMethod;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Long-running workflow that processes the payments of one sender account in the order they were signalled.
+ * <p>
+ * There is at most one per sender, with workflow id {@code sender-<account id>}. Payments are delivered with
+ * {@code signalWithStart}, so the first payment starts the workflow and later ones are queued on it.
+ */
+@WorkflowInterface
+public interface SenderPaymentWorkflow {
+
+    @WorkflowMethod
+    void processPayments(SenderWorkflowInput input);
+
+    @SignalMethod
+    void submit(List<UUID> paymentIds);
+}
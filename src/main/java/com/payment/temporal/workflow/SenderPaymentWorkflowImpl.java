@@ -0,0 +1,97 @@
+package com.payment.temporal.workflow;
+
+import com.payment.config.TemporalConfig;
+import com.payment.temporal.activity.LedgerActivities;
+import com.payment.temporal.activity.TransferResult;
+import io.temporal.activity.ActivityOptions;
+import io.temporal.common.RetryOptions;
+import io.temporal.spring.boot.WorkflowImpl;
+import io.temporal.workflow.Workflow;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Drains the sender's queue in batches: one activity call transfers up to {@code maxBatchSize} payments, in order, and
+ * failures are marked one by one as in {@link PaymentWorkflowImpl}. Debits of one sender never run concurrently, so
+ * they do not contend for the sender's row lock.
+ * <p>
+ * After {@code continueAsNewAfter} payments the workflow continues as new with whatever is still queued, so its
+ * history stays bounded however busy the sender is. When nothing arrives for {@code idleTimeout} it completes; the
+ * next payment starts a new run. Signals received while a run completes are not lost: Temporal rejects the
+ * completion and replays the workflow task with the new signal.
+ */
+@WorkflowImpl(taskQueues = TemporalConfig.PAYMENT_TASK_QUEUE)
+public class SenderPaymentWorkflowImpl implements SenderPaymentWorkflow {
+
+    private final LedgerActivities ledgerActivities = Workflow.newActivityStub(
+        LedgerActivities.class,
+        ActivityOptions.newBuilder()
+            .setStartToCloseTimeout(Duration.ofMinutes(1))
+            .setRetryOptions(RetryOptions.newBuilder()
+                .setMaximumAttempts(5)
+                .setBackoffCoefficient(2.0)
+                .build())
+            .build()
+    );
+
+    private final Deque<UUID> queue = new ArrayDeque<>();
+    // Signals and redrives may repeat a payment; the ledger activities are idempotent, this only saves the calls
+    private final Set<UUID> queued = new LinkedHashSet<>();
+
+    @Override
+    public void processPayments(SenderWorkflowInput input) {
+        enqueue(input.pending());
+        int processed = 0;
+
+        while (true) {
+            boolean received = Workflow.await(input.idleTimeout(), () -> !queue.isEmpty());
+            if (!received) {
+                return;
+            }
+
+            List<UUID> batch = take(input.maxBatchSize());
+            List<TransferResult> results = ledgerActivities.executeTransfers(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                TransferResult result = results.get(i);
+                if (!result.successful()) {
+                    ledgerActivities.markPaymentFailed(batch.get(i), result.errorCode(), result.errorMessage());
+                }
+            }
+
+            processed += batch.size();
+            if (processed >= input.continueAsNewAfter()) {
+                Workflow.continueAsNew(input.continueWith(new ArrayList<>(queue)));
+            }
+        }
+    }
+
+    @Override
+    public void submit(List<UUID> paymentIds) {
+        enqueue(paymentIds);
+    }
+
+    private void enqueue(List<UUID> paymentIds) {
+        for (UUID paymentId : paymentIds) {
+            if (queued.add(paymentId)) {
+                queue.addLast(paymentId);
+            }
+        }
+    }
+
+    private List<UUID> take(int max) {
+        List<UUID> batch = new ArrayList<>(Math.min(max, queue.size()));
+        while (batch.size() < max && !queue.isEmpty()) {
+            UUID paymentId = queue.removeFirst();
+            queued.remove(paymentId);
+            batch.add(paymentId);
+        }
+        return batch;
+    }
+}
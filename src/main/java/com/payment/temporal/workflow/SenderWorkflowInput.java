@@ -0,0 +1,31 @@
+package com.payment.temporal.workflow;
+
+import com.payment.config.PaymentProcessingProperties;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Arguments of {@link SenderPaymentWorkflow}. Settings travel with the workflow instead of being read from the
+ * configuration, so a running workflow keeps behaving deterministically when the configuration changes.
+ *
+ * @param pending payments carried over from the previous run when the workflow continued as new
+ */
+public record SenderWorkflowInput(
+    UUID senderAccountId,
+    List<UUID> pending,
+    int maxBatchSize,
+    int continueAsNewAfter,
+    Duration idleTimeout
+) {
+
+    public static SenderWorkflowInput start(UUID senderAccountId, PaymentProcessingProperties.Workflow settings) {
+        return new SenderWorkflowInput(senderAccountId, List.of(),
+            settings.maxBatchSize(), settings.continueAsNewAfter(), settings.idleTimeout());
+    }
+
+    SenderWorkflowInput continueWith(List<UUID> pending) {
+        return new SenderWorkflowInput(senderAccountId, pending, maxBatchSize, continueAsNewAfter, idleTimeout);
+    }
+}
@@ -0,0 +1,15 @@
+--liquibase formatted sql
+
+--changeset payment-service:add-account-stripe-count
+ALTER TABLE account ADD COLUMN stripe_count INTEGER DEFAULT 0 NOT NULL CHECK (stripe_count >= 0);
+
+--changeset payment-service:create-account-balance-bucket
+CREATE TABLE account_balance_bucket (
+    account_id UUID NOT NULL REFERENCES account(id) ON DELETE CASCADE,
+    bucket_index INTEGER NOT NULL,
+    balance DECIMAL(19,2) NOT NULL CHECK (balance >= 0),
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (account_id, bucket_index)
+);
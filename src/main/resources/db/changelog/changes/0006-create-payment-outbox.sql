@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset payment-service:create-payment-outbox
+CREATE TABLE payment_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    payment_id UUID NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP
+);
+
+CREATE INDEX idx_payment_outbox_unpublished ON payment_outbox(id) WHERE published_at IS NULL;
+CREATE INDEX idx_payment_outbox_published_at ON payment_outbox(published_at) WHERE published_at IS NOT NULL;
@@ -0,0 +1,6 @@
+--liquibase formatted sql
+
+--changeset payment-service:add-payment-keyset-index
+-- Serves keyset pagination by sender; its leading column also covers plain lookups by sender
+CREATE INDEX idx_payment_sender_created_at_id ON payment(sender_account_id, created_at DESC, id DESC);
+DROP INDEX idx_payment_sender_account_id;
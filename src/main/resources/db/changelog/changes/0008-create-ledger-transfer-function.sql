@@ -0,0 +1,152 @@
+--liquibase formatted sql
+
+--changeset payment-service:create-ledger-transfer-function splitStatements:false runOnChange:true
+-- Used by the sql ledger engine (SqlTransferExecutor): applies one pending payment in a single call.
+-- p_bucket_hash is the payment id's Java hashCode, so a striped receiver is credited on the same bucket as with the
+-- locking engine (AccountBalanceBucket.indexFor). Once the payment is read, its created_at is added to the payment
+-- statements so they only touch its partition. A completed payment is also counted in account_daily_statistics.
+-- PROCESSING payments are applied like PENDING ones (see TransferExecutor).
+CREATE OR REPLACE FUNCTION ledger_transfer(p_payment_id UUID, p_bucket_hash INTEGER)
+RETURNS TABLE (
+    outcome VARCHAR,
+    payment_sender_id UUID,
+    payment_receiver_id UUID,
+    available DECIMAL(19,2),
+    required DECIMAL(19,2)
+)
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_sender UUID;
+    v_receiver UUID;
+    v_amount DECIMAL(19,2);
+    v_currency VARCHAR(3);
+    v_status VARCHAR(20);
+    v_created_at TIMESTAMP;
+    v_sender_stripes INTEGER;
+    v_receiver_stripes INTEGER;
+    v_bucket INTEGER;
+    v_swept DECIMAL(19,2);
+BEGIN
+    SELECT p.sender_account_id, p.receiver_account_id, p.amount, p.currency, p.status, p.created_at
+    INTO v_sender, v_receiver, v_amount, v_currency, v_status, v_created_at
+    FROM payment p
+    WHERE p.id = p_payment_id;
+
+    IF NOT FOUND THEN
+        RETURN QUERY SELECT 'PAYMENT_NOT_FOUND'::VARCHAR, NULL::UUID, NULL::UUID, NULL::DECIMAL, NULL::DECIMAL;
+        RETURN;
+    END IF;
+    IF v_status NOT IN ('PENDING', 'PROCESSING') THEN
+        RETURN QUERY SELECT 'ALREADY_PROCESSED'::VARCHAR, v_sender, v_receiver, NULL::DECIMAL, v_amount;
+        RETURN;
+    END IF;
+
+    -- A striped receiver's row is not locked, its credit lands on a bucket. Other rows are locked in id order.
+    SELECT a.stripe_count INTO v_receiver_stripes FROM account a WHERE a.id = v_receiver;
+    IF v_receiver_stripes > 0 THEN
+        SELECT a.stripe_count INTO v_sender_stripes FROM account a WHERE a.id = v_sender FOR UPDATE;
+    ELSE
+        PERFORM 1 FROM account a WHERE a.id IN (v_sender, v_receiver) ORDER BY a.id FOR UPDATE;
+        SELECT a.stripe_count INTO v_sender_stripes FROM account a WHERE a.id = v_sender;
+    END IF;
+
+    IF v_sender_stripes IS NULL THEN
+        RETURN QUERY SELECT 'SENDER_ACCOUNT_NOT_FOUND'::VARCHAR, v_sender, v_receiver, NULL::DECIMAL, v_amount;
+        RETURN;
+    END IF;
+    IF v_receiver_stripes IS NULL THEN
+        RETURN QUERY SELECT 'RECEIVER_ACCOUNT_NOT_FOUND'::VARCHAR, v_sender, v_receiver, NULL::DECIMAL, v_amount;
+        RETURN;
+    END IF;
+
+    -- Re-check under lock, a concurrent executor may have completed the payment meanwhile
+    PERFORM 1 FROM payment p
+    WHERE p.id = p_payment_id AND p.created_at = v_created_at AND p.status IN ('PENDING', 'PROCESSING')
+    FOR UPDATE;
+    IF NOT FOUND THEN
+        RETURN QUERY SELECT 'ALREADY_PROCESSED'::VARCHAR, v_sender, v_receiver, NULL::DECIMAL, v_amount;
+        RETURN;
+    END IF;
+
+    IF v_receiver_stripes > 0 THEN
+        v_bucket := mod(mod(p_bucket_hash, v_receiver_stripes) + v_receiver_stripes, v_receiver_stripes);
+    END IF;
+
+    UPDATE account a
+    SET balance = a.balance - v_amount, version = a.version + 1, updated_at = now()
+    WHERE a.id = v_sender AND a.balance >= v_amount;
+
+    IF NOT FOUND AND v_sender_stripes > 0 THEN
+        -- Sweep the sender's buckets into its main balance; bucket locks are taken in (account, bucket) order
+        IF v_receiver_stripes > 0 AND v_receiver < v_sender THEN
+            PERFORM 1 FROM account_balance_bucket b
+            WHERE b.account_id = v_receiver AND b.bucket_index = v_bucket
+            FOR UPDATE;
+        END IF;
+
+        SELECT COALESCE(SUM(locked.balance), 0) INTO v_swept
+        FROM (
+            SELECT b.balance FROM account_balance_bucket b
+            WHERE b.account_id = v_sender
+            ORDER BY b.bucket_index
+            FOR UPDATE
+        ) locked;
+
+        UPDATE account_balance_bucket b
+        SET balance = 0, version = b.version + 1, updated_at = now()
+        WHERE b.account_id = v_sender;
+
+        UPDATE account a
+        SET balance = a.balance + v_swept, version = a.version + 1, updated_at = now()
+        WHERE a.id = v_sender;
+
+        UPDATE account a
+        SET balance = a.balance - v_amount, updated_at = now()
+        WHERE a.id = v_sender AND a.balance >= v_amount;
+    END IF;
+
+    IF NOT FOUND THEN
+        RETURN QUERY
+            SELECT 'INSUFFICIENT_BALANCE'::VARCHAR, v_sender, v_receiver, a.balance, v_amount
+            FROM account a
+            WHERE a.id = v_sender;
+        RETURN;
+    END IF;
+
+    IF v_receiver_stripes > 0 THEN
+        UPDATE account_balance_bucket b
+        SET balance = b.balance + v_amount, version = b.version + 1, updated_at = now()
+        WHERE b.account_id = v_receiver AND b.bucket_index = v_bucket;
+
+        IF NOT FOUND THEN
+            RAISE EXCEPTION 'Balance bucket not found: %/%', v_receiver, v_bucket;
+        END IF;
+    ELSE
+        UPDATE account a
+        SET balance = a.balance + v_amount, version = a.version + 1, updated_at = now()
+        WHERE a.id = v_receiver;
+    END IF;
+
+    UPDATE payment p
+    SET status = 'COMPLETED', version = p.version + 1, updated_at = now()
+    WHERE p.id = p_payment_id AND p.created_at = v_created_at AND p.status IN ('PENDING', 'PROCESSING');
+
+    INSERT INTO payment_outbox (payment_id, created_at) VALUES (p_payment_id, now());
+
+    -- Same rows as AccountStatisticsRepository.addCompleted: slot 0 is guarded by the locked account row, a striped
+    -- receiver's slot by the locked credit bucket
+    INSERT INTO account_daily_statistics AS s
+        (account_id, currency, day, slot, sent_count, sent_amount, received_count, received_amount)
+    VALUES
+        (v_sender, v_currency, (now() AT TIME ZONE 'UTC')::date, 0, 1, v_amount, 0, 0),
+        (v_receiver, v_currency, (now() AT TIME ZONE 'UTC')::date, COALESCE(v_bucket + 1, 0), 0, 0, 1, v_amount)
+    ON CONFLICT (account_id, currency, day, slot) DO UPDATE SET
+        sent_count = s.sent_count + EXCLUDED.sent_count,
+        sent_amount = s.sent_amount + EXCLUDED.sent_amount,
+        received_count = s.received_count + EXCLUDED.received_count,
+        received_amount = s.received_amount + EXCLUDED.received_amount;
+
+    RETURN QUERY SELECT 'COMPLETED'::VARCHAR, v_sender, v_receiver, NULL::DECIMAL, v_amount;
+END;
+$$;
@@ -0,0 +1,72 @@
+--liquibase formatted sql
+
+--changeset payment-service:create-ensure-payment-partitions-function splitStatements:false runOnChange:true
+-- Creates the monthly payment partitions covering p_from..p_to that do not exist yet, named payment_pYYYYMM.
+-- A unique index on a partitioned table has to include the partition key, so idempotency keys are made unique per
+-- partition (calendar month of created_at) with an index on each partition.
+CREATE OR REPLACE FUNCTION ensure_payment_partitions(p_from DATE, p_to DATE)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    v_month DATE := date_trunc('month', p_from)::DATE;
+    v_name TEXT;
+    v_created INTEGER := 0;
+BEGIN
+    WHILE v_month <= p_to LOOP
+        v_name := 'payment_p' || to_char(v_month, 'YYYYMM');
+        IF to_regclass(v_name) IS NULL THEN
+            EXECUTE format(
+                'CREATE TABLE %I PARTITION OF payment FOR VALUES FROM (%L) TO (%L)',
+                v_name, v_month, (v_month + INTERVAL '1 month')::DATE
+            );
+            EXECUTE format('CREATE UNIQUE INDEX %I ON %I (idempotency_key)', v_name || '_idempotency_key', v_name);
+            v_created := v_created + 1;
+        END IF;
+        v_month := (v_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+    RETURN v_created;
+END;
+$$;
+
+--changeset payment-service:partition-payment-table
+-- Rebuilds payment as a table range-partitioned by created_at; existing rows are copied into monthly partitions.
+-- Indexes and constraints are added once the old table is gone, so their names stay the same.
+ALTER TABLE payment RENAME TO payment_unpartitioned;
+
+CREATE TABLE payment (
+    id UUID NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    sender_account_id UUID NOT NULL,
+    receiver_account_id UUID NOT NULL,
+    amount DECIMAL(19,2) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    error_code VARCHAR(50),
+    error_message VARCHAR(500),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL
+) PARTITION BY RANGE (created_at);
+
+SELECT ensure_payment_partitions(
+    LEAST((SELECT min(created_at) FROM payment_unpartitioned)::DATE, current_date),
+    (current_date + INTERVAL '3 months')::DATE
+);
+
+INSERT INTO payment (id, idempotency_key, sender_account_id, receiver_account_id, amount, currency, status,
+                     error_code, error_message, created_at, updated_at, version)
+SELECT id, idempotency_key, sender_account_id, receiver_account_id, amount, currency, status,
+       error_code, error_message, created_at, updated_at, version
+FROM payment_unpartitioned;
+
+DROP TABLE payment_unpartitioned;
+
+ALTER TABLE payment ADD CONSTRAINT payment_pkey PRIMARY KEY (id, created_at);
+ALTER TABLE payment ADD CONSTRAINT payment_sender_account_id_fkey
+    FOREIGN KEY (sender_account_id) REFERENCES account(id);
+ALTER TABLE payment ADD CONSTRAINT payment_receiver_account_id_fkey
+    FOREIGN KEY (receiver_account_id) REFERENCES account(id);
+CREATE INDEX idx_payment_sender_created_at_id ON payment(sender_account_id, created_at DESC, id DESC);
+CREATE INDEX idx_payment_receiver_account_id ON payment(receiver_account_id);
+CREATE INDEX idx_payment_status ON payment(status);
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset payment-service:add-in-flight-payment-index
+-- Only PENDING and PROCESSING rows are indexed, so the index stays as small as the set of unfinished payments and
+-- sweeps for stuck payments read O(in-flight) entries. Queries must spell out the status literals (or an equality on
+-- one of them) for the planner to prove the predicate. It also covers status=PENDING/PROCESSING listings, which
+-- leaves nothing for the full status index to serve.
+CREATE INDEX idx_payment_in_flight ON payment(created_at, id) WHERE status IN ('PENDING', 'PROCESSING');
+DROP INDEX idx_payment_status;
@@ -0,0 +1,6 @@
+--liquibase formatted sql
+
+--changeset payment-service:add-payment-trace-parent
+-- W3C traceparent of the submitting request, so the outbox relay can continue the trace in the Kafka record headers.
+-- Nullable without a default, so adding it does not rewrite the partitions.
+ALTER TABLE payment ADD COLUMN trace_parent VARCHAR(55);
@@ -0,0 +1,39 @@
+--liquibase formatted sql
+
+--changeset payment-service:create-account-daily-statistics
+-- Completed payments per account, currency and UTC day, incremented by the ledger engines in the transaction that
+-- completes the payment. Rows are split by slot so each is guarded by a lock that transaction already holds: slot 0
+-- by the account row, slot n > 0 of a striped receiver by its balance bucket n - 1.
+CREATE TABLE account_daily_statistics (
+    account_id UUID NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    day DATE NOT NULL,
+    slot INTEGER NOT NULL,
+    sent_count BIGINT NOT NULL,
+    sent_amount DECIMAL(19,2) NOT NULL,
+    received_count BIGINT NOT NULL,
+    received_amount DECIMAL(19,2) NOT NULL,
+    PRIMARY KEY (account_id, currency, day, slot)
+);
+
+--changeset payment-service:backfill-account-daily-statistics
+-- The live path counts a payment on the UTC date of its completing transaction. Here that is its updated_at, which
+-- like every TIMESTAMP column holds the wall-clock time of the session time zone (the JVM's, set by the driver) and
+-- is converted to UTC the same way.
+INSERT INTO account_daily_statistics
+    (account_id, currency, day, slot, sent_count, sent_amount, received_count, received_amount)
+SELECT account_id, currency, day, 0, SUM(sent_count), SUM(sent_amount), SUM(received_count), SUM(received_amount)
+FROM (
+    SELECT p.sender_account_id AS account_id, p.currency,
+           (p.updated_at AT TIME ZONE current_setting('TimeZone') AT TIME ZONE 'UTC')::date AS day,
+           1 AS sent_count, p.amount AS sent_amount, 0 AS received_count, 0 AS received_amount
+    FROM payment p
+    WHERE p.status = 'COMPLETED'
+    UNION ALL
+    SELECT p.receiver_account_id, p.currency,
+           (p.updated_at AT TIME ZONE current_setting('TimeZone') AT TIME ZONE 'UTC')::date,
+           0, 0, 1, p.amount
+    FROM payment p
+    WHERE p.status = 'COMPLETED'
+) completed
+GROUP BY account_id, currency, day;
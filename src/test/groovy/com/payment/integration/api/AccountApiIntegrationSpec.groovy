@@ -3,6 +3,7 @@ package com.payment.integration.api
 import com.payment.api.model.AccountRequest
 import com.payment.integration.IntegrationTestBase
 import com.payment.model.Account
+import com.payment.model.Money
 import com.payment.repository.AccountRepository
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.web.client.TestRestTemplate
@@ -45,7 +46,7 @@ class AccountApiIntegrationSpec extends IntegrationTestBase {
         and:
         def saved = accountRepository.findById(accountId)
         saved.isPresent()
-        saved.get().balance == new BigDecimal("1000.00")
+        saved.get().balance.toBigDecimal() == new BigDecimal("1000.00")
     }
 
     def "should create account with generated id"() {
@@ -70,7 +71,7 @@ class AccountApiIntegrationSpec extends IntegrationTestBase {
     def "should get account balance"() {
         given:
         def accountId = UUID.randomUUID()
-        accountRepository.save(new Account(accountId, new BigDecimal("1500.75"), "EUR"))
+        accountRepository.save(new Account(accountId, Money.parse("1500.75", "EUR")))
 
         when:
         def response = restTemplate.getForEntity("/api/v1/accounts/${accountId}", Map)
@@ -0,0 +1,121 @@
+package com.payment.integration.api
+
+import com.payment.api.model.PaymentRequest
+import com.payment.integration.IntegrationTestBase
+import com.payment.model.Account
+import com.payment.model.Money
+import com.payment.repository.AccountRepository
+import com.payment.repository.PaymentRepository
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.web.client.TestRestTemplate
+import org.springframework.http.HttpEntity
+import org.springframework.http.HttpHeaders
+import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
+import org.springframework.jdbc.core.JdbcTemplate
+import spock.util.concurrent.PollingConditions
+
+import java.time.LocalDate
+import java.time.ZoneOffset
+
+class AccountStatisticsIntegrationSpec extends IntegrationTestBase {
+
+    @Autowired
+    TestRestTemplate restTemplate
+
+    @Autowired
+    AccountRepository accountRepository
+
+    @Autowired
+    PaymentRepository paymentRepository
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    def conditions = new PollingConditions(timeout: 10, initialDelay: 0.5, factor: 1.25)
+
+    def senderAccountId = UUID.randomUUID()
+    def receiverAccountId = UUID.randomUUID()
+
+    def setup() {
+        accountRepository.save(new Account(senderAccountId, Money.parse("1000.00", "EUR")))
+        accountRepository.save(new Account(receiverAccountId, Money.parse("500.00", "EUR")))
+    }
+
+    def cleanup() {
+        jdbcTemplate.update("DELETE FROM account_daily_statistics WHERE account_id IN (?, ?)",
+                senderAccountId, receiverAccountId)
+        paymentRepository.deleteAll()
+        accountRepository.deleteAll()
+    }
+
+    def "should count completed payments for both sides"() {
+        given:
+        def today = LocalDate.now(ZoneOffset.UTC).toString()
+
+        when:
+        submit(new PaymentRequest(senderAccountId, receiverAccountId, "100.00", "EUR"))
+        submit(new PaymentRequest(senderAccountId, receiverAccountId, "25.50", "EUR"))
+        submit(new PaymentRequest(receiverAccountId, senderAccountId, "10.00", "EUR"))
+
+        and: "one payment fails and is not counted"
+        submit(new PaymentRequest(senderAccountId, receiverAccountId, "5000.00", "EUR"))
+
+        then:
+        conditions.eventually {
+            def response = restTemplate.getForEntity("/api/v1/accounts/${senderAccountId}/statistics", Map)
+            assert response.statusCode == HttpStatus.OK
+            assert response.body.to == today
+            assert response.body.days == [[day: today, currency: "EUR", sentCount: 2, sentAmount: "125.50",
+                                           receivedCount: 1, receivedAmount: "10.00"]]
+            assert response.body.totals == [[currency: "EUR", sentCount: 2, sentAmount: "125.50",
+                                             receivedCount: 1, receivedAmount: "10.00"]]
+        }
+
+        and:
+        conditions.eventually {
+            def response = restTemplate.getForEntity("/api/v1/accounts/${receiverAccountId}/statistics", Map)
+            assert response.body.totals == [[currency: "EUR", sentCount: 1, sentAmount: "10.00",
+                                             receivedCount: 2, receivedAmount: "125.50"]]
+        }
+    }
+
+    def "should return empty statistics for a range without completed payments"() {
+        when:
+        def response = restTemplate.getForEntity(
+                "/api/v1/accounts/${senderAccountId}/statistics?from=2020-01-01&to=2020-01-31", Map)
+
+        then:
+        response.statusCode == HttpStatus.OK
+        response.body.from == "2020-01-01"
+        response.body.to == "2020-01-31"
+        response.body.days.isEmpty()
+        response.body.totals.isEmpty()
+    }
+
+    def "should reject a reversed range"() {
+        when:
+        def response = restTemplate.getForEntity(
+                "/api/v1/accounts/${senderAccountId}/statistics?from=2026-02-01&to=2026-01-01", Map)
+
+        then:
+        response.statusCode == HttpStatus.BAD_REQUEST
+        response.body.errorCode == "INVALID_DATE_RANGE"
+    }
+
+    def "should return 404 for a non-existent account"() {
+        when:
+        def response = restTemplate.getForEntity("/api/v1/accounts/${UUID.randomUUID()}/statistics", Map)
+
+        then:
+        response.statusCode == HttpStatus.NOT_FOUND
+        response.body.errorCode == "ACCOUNT_NOT_FOUND"
+    }
+
+    private submit(PaymentRequest request) {
+        def headers = new HttpHeaders()
+        headers.setContentType(MediaType.APPLICATION_JSON)
+        headers.set("Idempotency-Key", UUID.randomUUID().toString())
+        restTemplate.postForEntity("/api/v1/payments", new HttpEntity<>(request, headers), Map)
+    }
+}
@@ -3,6 +3,7 @@ package com.payment.integration.api
 import com.payment.api.model.PaymentRequest
 import com.payment.integration.IntegrationTestBase
 import com.payment.model.Account
+import com.payment.model.Money
 import com.payment.model.PaymentStatus
 import com.payment.repository.AccountRepository
 import com.payment.repository.PaymentRepository
@@ -14,6 +15,9 @@ import org.springframework.http.HttpStatus
 import org.springframework.http.MediaType
 import spock.util.concurrent.PollingConditions
 
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
 class PaymentApiIntegrationSpec extends IntegrationTestBase {
 
     @Autowired
@@ -31,8 +35,8 @@ class PaymentApiIntegrationSpec extends IntegrationTestBase {
     def receiverAccountId = UUID.randomUUID()
 
     def setup() {
-        accountRepository.save(new Account(senderAccountId, new BigDecimal("1000.00"), "EUR"))
-        accountRepository.save(new Account(receiverAccountId, new BigDecimal("500.00"), "EUR"))
+        accountRepository.save(new Account(senderAccountId, Money.parse("1000.00", "EUR")))
+        accountRepository.save(new Account(receiverAccountId, Money.parse("500.00", "EUR")))
     }
 
     def cleanup() {
@@ -69,8 +73,8 @@ class PaymentApiIntegrationSpec extends IntegrationTestBase {
         conditions.eventually {
             def sender = accountRepository.findById(senderAccountId)
             def receiver = accountRepository.findById(receiverAccountId)
-            assert sender.get().balance == new BigDecimal("900.00")
-            assert receiver.get().balance == new BigDecimal("600.00")
+            assert sender.get().balance.toBigDecimal() == new BigDecimal("900.00")
+            assert receiver.get().balance.toBigDecimal() == new BigDecimal("600.00")
         }
     }
 
@@ -101,6 +105,52 @@ class PaymentApiIntegrationSpec extends IntegrationTestBase {
         paymentRepository.count() == 1
     }
 
+    def "should create a single payment for concurrent duplicate submissions"() {
+        given:
+        def headers = new HttpHeaders()
+        headers.setContentType(MediaType.APPLICATION_JSON)
+        headers.set("Idempotency-Key", UUID.randomUUID().toString())
+        def paymentRequest = new PaymentRequest(senderAccountId, receiverAccountId, "10.00", "EUR")
+        def executor = Executors.newFixedThreadPool(8)
+
+        when:
+        def futures = (1..8).collect {
+            executor.submit({
+                restTemplate.postForEntity("/api/v1/payments", new HttpEntity<>(paymentRequest, headers), Map)
+            } as Callable)
+        }
+        def responses = futures*.get()
+
+        then:
+        responses.every { it.statusCode == HttpStatus.ACCEPTED }
+        responses*.body.paymentId.unique().size() == 1
+
+        and: "only one payment exists"
+        paymentRepository.count() == 1
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    def "should expose idempotency cache hit and miss metrics"() {
+        given:
+        def headers = new HttpHeaders()
+        headers.setContentType(MediaType.APPLICATION_JSON)
+        headers.set("Idempotency-Key", UUID.randomUUID().toString())
+        def paymentRequest = new PaymentRequest(senderAccountId, receiverAccountId, "10.00", "EUR")
+        2.times {
+            restTemplate.postForEntity("/api/v1/payments", new HttpEntity<>(paymentRequest, headers), Map)
+        }
+
+        when:
+        def cacheGets = restTemplate.getForObject("/actuator/prometheus", String).readLines()
+                .findAll { it.startsWith("cache_gets_total") && it.contains('cache="payment.idempotency"') }
+
+        then:
+        cacheGets.any { it.contains('result="hit"') }
+        cacheGets.any { it.contains('result="miss"') }
+    }
+
     def "should fail payment when insufficient balance"() {
         given:
         def headers = new HttpHeaders()
@@ -186,6 +236,47 @@ class PaymentApiIntegrationSpec extends IntegrationTestBase {
         response.body.totalPages == 2
     }
 
+    def "should list payments by cursor without counting"() {
+        given:
+        def headers = new HttpHeaders()
+        headers.setContentType(MediaType.APPLICATION_JSON)
+
+        (1..5).each { i ->
+            headers.set("Idempotency-Key", UUID.randomUUID().toString())
+            restTemplate.postForEntity(
+                    "/api/v1/payments",
+                    new HttpEntity<>(new PaymentRequest(senderAccountId, receiverAccountId, "${i}.00", "EUR"), headers),
+                    Map
+            )
+        }
+
+        when:
+        def first = restTemplate.getForEntity(
+                "/api/v1/payments?senderAccountId=${senderAccountId}&pagination=CURSOR&size=3", Map)
+        def second = restTemplate.getForEntity(
+                "/api/v1/payments?senderAccountId=${senderAccountId}&pagination=CURSOR&size=3&cursor=${first.body.nextCursor}", Map)
+
+        then:
+        first.statusCode == HttpStatus.OK
+        first.body.content.size() == 3
+        first.body.nextCursor != null
+        first.body.totalElements == null
+
+        and:
+        second.body.content.size() == 2
+        second.body.nextCursor == null
+        (first.body.content*.paymentId + second.body.content*.paymentId).unique().size() == 5
+    }
+
+    def "should reject a malformed cursor"() {
+        when:
+        def response = restTemplate.getForEntity("/api/v1/payments?pagination=CURSOR&cursor=not-a-cursor", Map)
+
+        then:
+        response.statusCode == HttpStatus.BAD_REQUEST
+        response.body.errorCode == "INVALID_CURSOR"
+    }
+
     def "should filter payments by sender"() {
         given:
         def headers = new HttpHeaders()
@@ -0,0 +1,110 @@
+package com.payment.integration.api
+
+import com.payment.integration.IntegrationTestBase
+import com.payment.model.Account
+import com.payment.model.Money
+import com.payment.model.PaymentStatus
+import com.payment.repository.AccountRepository
+import com.payment.repository.PaymentRepository
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.web.client.TestRestTemplate
+import org.springframework.http.HttpStatus
+import spock.util.concurrent.PollingConditions
+
+class PaymentBatchApiIntegrationSpec extends IntegrationTestBase {
+
+    @Autowired
+    TestRestTemplate restTemplate
+
+    @Autowired
+    AccountRepository accountRepository
+
+    @Autowired
+    PaymentRepository paymentRepository
+
+    def conditions = new PollingConditions(timeout: 20, initialDelay: 0.5, factor: 1.25)
+
+    def senderAccountId = UUID.randomUUID()
+    def receiverAccountId = UUID.randomUUID()
+
+    def setup() {
+        accountRepository.save(new Account(senderAccountId, Money.parse("1000.00", "EUR")))
+        accountRepository.save(new Account(receiverAccountId, Money.parse("500.00", "EUR")))
+    }
+
+    def cleanup() {
+        paymentRepository.deleteAll()
+        accountRepository.deleteAll()
+    }
+
+    def "should submit a batch of payments and process them"() {
+        given:
+        def items = (1..50).collect { item(UUID.randomUUID().toString(), receiverAccountId, "10.00") }
+
+        when:
+        def response = restTemplate.postForEntity("/api/v1/payments/batch", [items: items], Map)
+
+        then:
+        response.statusCode == HttpStatus.ACCEPTED
+        response.body.results.size() == 50
+        response.body.results.every { it.outcome == "ACCEPTED" && it.status == "PENDING" }
+
+        and: "all payments are eventually completed"
+        conditions.eventually {
+            def payments = paymentRepository.findAll()
+            assert payments.size() == 50
+            assert payments.every { it.status == PaymentStatus.COMPLETED }
+        }
+
+        and:
+        conditions.eventually {
+            assert accountRepository.findById(senderAccountId).get().balance.toBigDecimal() == new BigDecimal("500.00")
+            assert accountRepository.findById(receiverAccountId).get().balance.toBigDecimal() == new BigDecimal("1000.00")
+        }
+    }
+
+    def "should report per-item results for duplicates and rejections"() {
+        given:
+        def key = UUID.randomUUID().toString()
+        restTemplate.postForEntity("/api/v1/payments/batch",
+                [items: [item(key, receiverAccountId, "10.00")]], Map)
+
+        when:
+        def response = restTemplate.postForEntity("/api/v1/payments/batch", [items: [
+                item(key, receiverAccountId, "10.00"),
+                item(UUID.randomUUID().toString(), UUID.randomUUID(), "10.00"),
+                item(UUID.randomUUID().toString(), receiverAccountId, "10.00")
+        ]], Map)
+
+        then:
+        response.statusCode == HttpStatus.ACCEPTED
+        response.body.results*.outcome == ["DUPLICATE", "REJECTED", "ACCEPTED"]
+        response.body.results[1].errorCode == "RECEIVER_ACCOUNT_NOT_FOUND"
+        response.body.results[1].numericCode == 2003
+
+        and:
+        paymentRepository.count() == 2
+    }
+
+    def "should reject a malformed batch as a whole"() {
+        when:
+        def response = restTemplate.postForEntity("/api/v1/payments/batch",
+                [items: [item(UUID.randomUUID().toString(), receiverAccountId, "abc")]], Map)
+
+        then:
+        response.statusCode == HttpStatus.BAD_REQUEST
+        response.body.errorCode == "VALIDATION_ERROR"
+    }
+
+    private Map item(String key, UUID receiver, String amount) {
+        [
+                idempotencyKey: key,
+                payment       : [
+                        senderAccountId  : senderAccountId,
+                        receiverAccountId: receiver,
+                        amount           : amount,
+                        currency         : "EUR"
+                ]
+        ]
+    }
+}
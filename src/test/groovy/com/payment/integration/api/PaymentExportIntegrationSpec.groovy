@@ -0,0 +1,104 @@
+package com.payment.integration.api
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.payment.integration.IntegrationTestBase
+import com.payment.model.Money
+import com.payment.model.Payment
+import com.payment.repository.PaymentRepository
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.web.client.TestRestTemplate
+import org.springframework.http.HttpStatus
+import org.springframework.test.context.TestPropertySource
+
+import java.time.Instant
+import java.time.temporal.ChronoUnit
+
+@TestPropertySource(properties = "payment.export.fetch-size=2")
+class PaymentExportIntegrationSpec extends IntegrationTestBase {
+
+    @Autowired
+    TestRestTemplate restTemplate
+
+    @Autowired
+    PaymentRepository paymentRepository
+
+    def objectMapper = new ObjectMapper()
+    def senderAccountId = UUID.randomUUID()
+    def receiverAccountId = UUID.randomUUID()
+    List<Payment> payments
+
+    def setup() {
+        // More rows than the fetch size, so the cursor has to fetch several times
+        payments = (1..5).collect { i ->
+            paymentRepository.save(Payment.create(UUID.randomUUID().toString(), senderAccountId, receiverAccountId,
+                    Money.parse("${i}.00", "EUR")))
+        }
+        paymentRepository.save(Payment.create(UUID.randomUUID().toString(), UUID.randomUUID(), receiverAccountId,
+                Money.parse("9.00", "EUR")))
+    }
+
+    def cleanup() {
+        paymentRepository.deleteAll()
+    }
+
+    def "should stream a sender's payments as NDJSON, oldest first"() {
+        when:
+        def response = restTemplate.getForEntity("/api/v1/payments/export?senderAccountId=${senderAccountId}", String)
+
+        then:
+        response.statusCode == HttpStatus.OK
+        response.headers.getContentType().toString() == "application/x-ndjson"
+        response.headers.getContentDisposition().filename == "payments.ndjson"
+
+        and:
+        def lines = response.body.readLines().collect { objectMapper.readValue(it, Map) }
+        lines*.paymentId == payments*.id*.toString()
+        lines*.amount == ["1.00", "2.00", "3.00", "4.00", "5.00"]
+        lines.every { it.status == "PENDING" && it.senderAccountId == senderAccountId.toString() }
+    }
+
+    def "should stream payments as CSV"() {
+        when:
+        def response = restTemplate.getForEntity(
+                "/api/v1/payments/export?senderAccountId=${senderAccountId}&status=PENDING&format=CSV", String)
+
+        then:
+        response.statusCode == HttpStatus.OK
+        response.headers.getContentType().toString() == "text/csv"
+
+        and:
+        def lines = response.body.readLines()
+        lines.size() == 6
+        lines[0].startsWith("paymentId,senderAccountId,")
+        lines[1].startsWith("${payments[0].id},${senderAccountId},${receiverAccountId},1.00,EUR,PENDING,")
+    }
+
+    def "should apply the creation time range"() {
+        given:
+        def now = Instant.now()
+
+        when:
+        def current = restTemplate.getForEntity("/api/v1/payments/export?senderAccountId=${senderAccountId}" +
+                "&from=${now.minus(1, ChronoUnit.HOURS)}&to=${now.plus(1, ChronoUnit.HOURS)}", String)
+        def past = restTemplate.getForEntity("/api/v1/payments/export?senderAccountId=${senderAccountId}" +
+                "&from=${now.minus(2, ChronoUnit.DAYS)}&to=${now.minus(1, ChronoUnit.DAYS)}", String)
+
+        then:
+        current.body.readLines().size() == 5
+        past.statusCode == HttpStatus.OK
+        past.body == null
+    }
+
+    def "should reject a range that ends before it starts"() {
+        given:
+        def now = Instant.now()
+
+        when:
+        def response = restTemplate.getForEntity(
+                "/api/v1/payments/export?from=${now}&to=${now.minus(1, ChronoUnit.HOURS)}", Map)
+
+        then:
+        response.statusCode == HttpStatus.BAD_REQUEST
+        response.body.errorCode == "INVALID_DATE_RANGE"
+    }
+}
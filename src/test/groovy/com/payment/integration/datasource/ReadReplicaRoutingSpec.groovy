@@ -0,0 +1,127 @@
+package com.payment.integration.datasource
+
+import com.payment.api.model.PaymentRequest
+import com.payment.integration.IntegrationTestBase
+import com.payment.model.Account
+import com.payment.model.Money
+import com.payment.repository.AccountRepository
+import com.payment.repository.PaymentRepository
+import io.micrometer.core.instrument.MeterRegistry
+import liquibase.integration.spring.SpringLiquibase
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.web.client.TestRestTemplate
+import org.springframework.core.io.DefaultResourceLoader
+import org.springframework.http.HttpEntity
+import org.springframework.http.HttpHeaders
+import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
+import org.springframework.jdbc.datasource.DriverManagerDataSource
+import org.springframework.test.context.DynamicPropertyRegistry
+import org.springframework.test.context.DynamicPropertySource
+import org.testcontainers.containers.PostgreSQLContainer
+
+/**
+ * The replica is a second database with the schema but no replication, i.e. one that lags behind forever: whatever
+ * the service reads from it is visibly not what it wrote to the primary.
+ */
+class ReadReplicaRoutingSpec extends IntegrationTestBase {
+
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:18")
+            .withDatabaseName("payments_replica")
+            .withUsername("test")
+            .withPassword("test")
+
+    static {
+        replica.start()
+        def liquibase = new SpringLiquibase()
+        liquibase.setDataSource(new DriverManagerDataSource(replica.jdbcUrl, replica.username, replica.password))
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml")
+        liquibase.setResourceLoader(new DefaultResourceLoader())
+        liquibase.afterPropertiesSet()
+    }
+
+    @DynamicPropertySource
+    static void configureReplica(DynamicPropertyRegistry registry) {
+        registry.add("payment.read-replica.enabled", () -> "true")
+        registry.add("payment.read-replica.url", replica::getJdbcUrl)
+        registry.add("payment.read-replica.username", replica::getUsername)
+        registry.add("payment.read-replica.password", replica::getPassword)
+    }
+
+    @Autowired
+    TestRestTemplate restTemplate
+
+    @Autowired
+    AccountRepository accountRepository
+
+    @Autowired
+    PaymentRepository paymentRepository
+
+    @Autowired
+    MeterRegistry meterRegistry
+
+    def senderAccountId = UUID.randomUUID()
+    def receiverAccountId = UUID.randomUUID()
+
+    def setup() {
+        accountRepository.save(new Account(senderAccountId, Money.parse("1000.00", "EUR")))
+        accountRepository.save(new Account(receiverAccountId, Money.parse("500.00", "EUR")))
+    }
+
+    def cleanup() {
+        paymentRepository.deleteAll()
+        accountRepository.deleteAll()
+    }
+
+    def "should submit payments against the primary"() {
+        when:
+        def response = submit(new PaymentRequest(senderAccountId, receiverAccountId, "100.00", "EUR"))
+
+        then: "the account existence checks did not look at the replica"
+        response.statusCode == HttpStatus.ACCEPTED
+        paymentRepository.findById(UUID.fromString(response.body.paymentId as String)).isPresent()
+    }
+
+    def "should list payments from the replica"() {
+        given:
+        submit(new PaymentRequest(senderAccountId, receiverAccountId, "100.00", "EUR"))
+
+        when:
+        def response = restTemplate.getForEntity("/api/v1/payments?senderAccountId=${senderAccountId}", Map)
+
+        then: "the replica has not seen the payment"
+        response.statusCode == HttpStatus.OK
+        response.body.content.isEmpty()
+        response.body.totalElements == 0
+    }
+
+    def "should fetch a payment missing on the replica from the primary"() {
+        given:
+        def submitted = submit(new PaymentRequest(senderAccountId, receiverAccountId, "100.00", "EUR"))
+        def fallbacks = meterRegistry.counter("payment.read-replica.fallbacks").count()
+
+        when:
+        def response = restTemplate.getForEntity("/api/v1/payments/${submitted.body.paymentId}", Map)
+
+        then:
+        response.statusCode == HttpStatus.OK
+        response.body.paymentId == submitted.body.paymentId
+        meterRegistry.counter("payment.read-replica.fallbacks").count() == fallbacks + 1
+    }
+
+    def "should fetch an account missing on the replica from the primary"() {
+        when:
+        def response = restTemplate.getForEntity("/api/v1/accounts/${senderAccountId}", Map)
+
+        then:
+        response.statusCode == HttpStatus.OK
+        response.body.balance == "1000.00"
+    }
+
+    private submit(PaymentRequest request) {
+        def headers = new HttpHeaders()
+        headers.setContentType(MediaType.APPLICATION_JSON)
+        headers.set("Idempotency-Key", UUID.randomUUID().toString())
+        restTemplate.postForEntity("/api/v1/payments", new HttpEntity<>(request, headers), Map)
+    }
+}
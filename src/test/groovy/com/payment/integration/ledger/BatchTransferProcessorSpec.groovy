@@ -0,0 +1,135 @@
+package com.payment.integration.ledger
+
+import com.payment.integration.IntegrationTestBase
+import com.payment.ledger.BatchTransferProcessor
+import com.payment.model.Account
+import com.payment.model.Money
+import com.payment.model.Payment
+import com.payment.model.PaymentStatus
+import com.payment.repository.AccountBalanceBucketRepository
+import com.payment.repository.AccountRepository
+import com.payment.repository.PaymentRepository
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.test.context.TestPropertySource
+
+@TestPropertySource(properties = "payment.ledger.engine=batching")
+class BatchTransferProcessorSpec extends IntegrationTestBase {
+
+    @Autowired
+    BatchTransferProcessor processor
+
+    @Autowired
+    PaymentRepository paymentRepository
+
+    @Autowired
+    AccountRepository accountRepository
+
+    @Autowired
+    AccountBalanceBucketRepository bucketRepository
+
+    def cleanup() {
+        paymentRepository.deleteAll()
+        accountRepository.deleteAll()
+    }
+
+    def "should apply many transfers in one batch and isolate insufficient balance"() {
+        given:
+        def richId = UUID.randomUUID()
+        def poorId = UUID.randomUUID()
+        def receiverId = UUID.randomUUID()
+        accountRepository.save(new Account(richId, Money.parse("1000.00", "EUR")))
+        accountRepository.save(new Account(poorId, Money.parse("10.00", "EUR")))
+        accountRepository.save(new Account(receiverId, Money.parse("0.00", "EUR")))
+
+        def first = paymentRepository.save(Payment.create("batch-1", richId, receiverId, Money.parse("100.00", "EUR")))
+        def failing = paymentRepository.save(Payment.create("batch-2", poorId, receiverId, Money.parse("50.00", "EUR")))
+        def second = paymentRepository.save(Payment.create("batch-3", richId, receiverId, Money.parse("200.00", "EUR")))
+
+        when:
+        def results = processor.process([first.id, failing.id, second.id])
+
+        then:
+        results[first.id].successful()
+        results[second.id].successful()
+        !results[failing.id].successful()
+        results[failing.id].errorCode() == "INSUFFICIENT_BALANCE"
+        results[failing.id].errorMessage() == "Insufficient balance. Available: 10.00, Required: 50.00"
+
+        and:
+        accountRepository.findById(richId).get().balance.toBigDecimal() == new BigDecimal("700.00")
+        accountRepository.findById(poorId).get().balance.toBigDecimal() == new BigDecimal("10.00")
+        accountRepository.findById(receiverId).get().balance.toBigDecimal() == new BigDecimal("300.00")
+
+        and:
+        paymentRepository.findById(first.id).get().status == PaymentStatus.COMPLETED
+        paymentRepository.findById(second.id).get().status == PaymentStatus.COMPLETED
+        paymentRepository.findById(failing.id).get().status == PaymentStatus.PENDING
+    }
+
+    def "should report already processed payments and skip unknown ids"() {
+        given:
+        def senderId = UUID.randomUUID()
+        def receiverId = UUID.randomUUID()
+        accountRepository.save(new Account(senderId, Money.parse("100.00", "EUR")))
+        accountRepository.save(new Account(receiverId, Money.parse("0.00", "EUR")))
+        def payment = paymentRepository.save(Payment.create("batch-done", senderId, receiverId, Money.parse("10.00", "EUR")))
+        def unknown = UUID.randomUUID()
+
+        when:
+        processor.process([payment.id])
+        def results = processor.process([payment.id, unknown])
+
+        then:
+        results[payment.id].successful()
+        !results.containsKey(unknown)
+        accountRepository.findById(senderId).get().balance.toBigDecimal() == new BigDecimal("90.00")
+    }
+
+    def "should sweep balance buckets of a striped sender"() {
+        given:
+        def senderId = UUID.randomUUID()
+        def receiverId = UUID.randomUUID()
+        def sender = accountRepository.save(new Account(senderId, Money.parse("10.00", "EUR"), 2))
+        def buckets = sender.createBuckets()
+        buckets[0].credit(Money.parse("40.00", "EUR"))
+        buckets[1].credit(Money.parse("50.00", "EUR"))
+        bucketRepository.saveAll(buckets)
+        accountRepository.save(new Account(receiverId, Money.parse("0.00", "EUR")))
+        def payment = paymentRepository.save(Payment.create("batch-striped", senderId, receiverId, Money.parse("80.00", "EUR")))
+
+        when:
+        def results = processor.process([payment.id])
+
+        then:
+        results[payment.id].successful()
+        accountRepository.findById(senderId).get().balance.toBigDecimal() == new BigDecimal("20.00")
+        bucketRepository.sumBalanceByAccountId(senderId) == BigDecimal.ZERO
+        accountRepository.findById(receiverId).get().balance.toBigDecimal() == new BigDecimal("80.00")
+    }
+
+    def "should not sweep the buckets of a striped sender twice in one batch"() {
+        given:
+        def senderId = UUID.randomUUID()
+        def receiverId = UUID.randomUUID()
+        def sender = accountRepository.save(new Account(senderId, Money.parse("10.00", "EUR"), 1))
+        def buckets = sender.createBuckets()
+        buckets[0].credit(Money.parse("100.00", "EUR"))
+        bucketRepository.saveAll(buckets)
+        accountRepository.save(new Account(receiverId, Money.parse("0.00", "EUR")))
+        def first = paymentRepository.save(Payment.create("batch-sweep-1", senderId, receiverId, Money.parse("50.00", "EUR")))
+        def second = paymentRepository.save(Payment.create("batch-sweep-2", senderId, receiverId, Money.parse("80.00", "EUR")))
+
+        when:
+        def results = processor.process([first.id, second.id])
+
+        then: "the second debit finds the swept 60.00 and must not sweep the same 100.00 again"
+        results[first.id].successful()
+        !results[second.id].successful()
+        results[second.id].errorCode() == "INSUFFICIENT_BALANCE"
+
+        and:
+        accountRepository.findById(senderId).get().balance.toBigDecimal() == new BigDecimal("60.00")
+        bucketRepository.sumBalanceByAccountId(senderId) == BigDecimal.ZERO
+        accountRepository.findById(receiverId).get().balance.toBigDecimal() == new BigDecimal("50.00")
+    }
+}
@@ -0,0 +1,215 @@
+package com.payment.integration.ledger
+
+import com.payment.integration.IntegrationTestBase
+import com.payment.ledger.LockingTransferExecutor
+import com.payment.ledger.SqlTransferExecutor
+import com.payment.observability.PaymentMetrics
+import com.payment.repository.AccountBalanceBucketRepository
+import com.payment.repository.AccountRepository
+import com.payment.repository.AccountStatisticsRepository
+import com.payment.repository.PaymentOutboxRepository
+import com.payment.repository.PaymentRepository
+import com.payment.temporal.activity.TransferResult
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.test.context.TestPropertySource
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
+import spock.lang.Shared
+import spock.lang.Unroll
+
+/**
+ * Runs every scenario once with the locking engine and once with the sql engine, on identical rows, and expects the
+ * same result, balances, outbox rows and account statistics.
+ */
+@TestPropertySource(properties = "payment.ledger.engine=sql")
+class SqlTransferExecutorSpec extends IntegrationTestBase {
+
+    @Autowired
+    SqlTransferExecutor sqlExecutor
+
+    @Autowired
+    PaymentRepository paymentRepository
+
+    @Autowired
+    AccountRepository accountRepository
+
+    @Autowired
+    AccountBalanceBucketRepository bucketRepository
+
+    @Autowired
+    PaymentOutboxRepository outboxRepository
+
+    @Autowired
+    AccountStatisticsRepository statisticsRepository
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    @Autowired
+    PlatformTransactionManager transactionManager
+
+    @Autowired
+    PaymentMetrics metrics
+
+    LockingTransferExecutor lockingExecutor
+    TransactionTemplate transactionTemplate
+
+    @Shared
+    UUID senderId = UUID.randomUUID()
+    @Shared
+    UUID receiverId = UUID.randomUUID()
+    @Shared
+    UUID paymentId = UUID.randomUUID()
+
+    def setup() {
+        lockingExecutor = new LockingTransferExecutor(paymentRepository, accountRepository, bucketRepository, outboxRepository,
+                statisticsRepository, metrics)
+        transactionTemplate = new TransactionTemplate(transactionManager)
+    }
+
+    @Unroll
+    def "should match the locking engine: #scenario"() {
+        when:
+        def locking = run(scenario, { id -> transactionTemplate.execute { lockingExecutor.execute(id) } })
+        def sql = run(scenario, { id -> sqlExecutor.execute(id) })
+
+        then:
+        sql == locking
+        sql.result.errorCode() == expectedErrorCode
+        sql.result.errorMessage() == expectedMessage
+
+        where:
+        scenario                         | expectedErrorCode          | expectedMessage
+        "success"                        | null                       | null
+        "already processed"              | null                       | null
+        "insufficient balance"           | "INSUFFICIENT_BALANCE"     | "Insufficient balance. Available: 10.00, Required: 50.00"
+        "missing sender"                 | "SENDER_ACCOUNT_NOT_FOUND" | "Sender account not found: " + senderId
+        "striped sender sweep"           | null                       | null
+        "striped sender still too short" | "INSUFFICIENT_BALANCE"     | "Insufficient balance. Available: 20.00, Required: 50.00"
+        "striped receiver"               | null                       | null
+        "left processing"                | null                       | null
+        "left processing, still too low" | "INSUFFICIENT_BALANCE"     | "Insufficient balance. Available: 10.00, Required: 50.00"
+    }
+
+    def "should fail on an unknown payment like the locking engine"() {
+        when:
+        sqlExecutor.execute(UUID.randomUUID())
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    private Map run(String scenario, Closure<TransferResult> executor) {
+        arrange(scenario)
+        try {
+            def result = executor(paymentId)
+            if (scenario == "already processed") {
+                result = executor(paymentId)
+            }
+            return [
+                result         : result,
+                senderBalance  : balanceOf(senderId),
+                senderBuckets  : bucketsOf(senderId),
+                receiverBalance: balanceOf(receiverId),
+                receiverBuckets: bucketsOf(receiverId),
+                status         : statusOf(paymentId),
+                outboxRows     : jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM payment_outbox WHERE payment_id = ?", Long, paymentId),
+                statistics     : jdbcTemplate.queryForList(
+                    "SELECT account_id, day, slot, sent_count, sent_amount, received_count, received_amount "
+                        + "FROM account_daily_statistics WHERE account_id IN (?, ?) ORDER BY account_id, slot",
+                    senderId, receiverId)
+            ]
+        } finally {
+            jdbcTemplate.update("DELETE FROM account_daily_statistics WHERE account_id IN (?, ?)", senderId, receiverId)
+            jdbcTemplate.update("DELETE FROM payment_outbox WHERE payment_id = ?", paymentId)
+            jdbcTemplate.update("DELETE FROM payment WHERE id = ?", paymentId)
+            jdbcTemplate.update("DELETE FROM account WHERE id IN (?, ?)", senderId, receiverId)
+        }
+    }
+
+    private void arrange(String scenario) {
+        switch (scenario) {
+            case "success":
+            case "already processed":
+                account(senderId, "100.00")
+                account(receiverId, "0.00")
+                payment("30.00")
+                break
+            case "insufficient balance":
+                account(senderId, "10.00")
+                account(receiverId, "0.00")
+                payment("50.00")
+                break
+            case "missing sender":
+                account(receiverId, "0.00")
+                transactionTemplate.executeWithoutResult {
+                    // skips the foreign key check so the payment can reference a sender that does not exist
+                    jdbcTemplate.execute("SET LOCAL session_replication_role = replica")
+                    payment("10.00")
+                }
+                break
+            case "striped sender sweep":
+                account(senderId, "10.00", "40.00", "50.00")
+                account(receiverId, "0.00")
+                payment("80.00")
+                break
+            case "striped sender still too short":
+                account(senderId, "10.00", "5.00", "5.00")
+                account(receiverId, "0.00")
+                payment("50.00")
+                break
+            case "left processing":
+                account(senderId, "100.00")
+                account(receiverId, "0.00")
+                payment("30.00", "PROCESSING")
+                break
+            case "left processing, still too low":
+                account(senderId, "10.00")
+                account(receiverId, "0.00")
+                payment("50.00", "PROCESSING")
+                break
+            case "striped receiver":
+                account(senderId, "100.00")
+                account(receiverId, "0.00", "0.00", "0.00", "0.00", "0.00")
+                payment("25.00")
+                break
+            default:
+                throw new IllegalArgumentException(scenario)
+        }
+    }
+
+    private void account(UUID id, String balance, String... buckets) {
+        jdbcTemplate.update(
+            "INSERT INTO account (id, balance, currency, stripe_count, version, created_at, updated_at) "
+                + "VALUES (?, ?, 'EUR', ?, 0, now(), now())",
+            id, new BigDecimal(balance), buckets.length)
+        buckets.eachWithIndex { bucket, index ->
+            jdbcTemplate.update(
+                "INSERT INTO account_balance_bucket (account_id, bucket_index, balance, version, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, 0, now(), now())",
+                id, index, new BigDecimal(bucket))
+        }
+    }
+
+    private void payment(String amount, String status = "PENDING") {
+        jdbcTemplate.update(
+            "INSERT INTO payment (id, idempotency_key, sender_account_id, receiver_account_id, amount, currency, "
+                + "status, version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, 'EUR', ?, 0, now(), now())",
+            paymentId, paymentId.toString(), senderId, receiverId, new BigDecimal(amount), status)
+    }
+
+    private BigDecimal balanceOf(UUID accountId) {
+        jdbcTemplate.queryForList("SELECT balance FROM account WHERE id = ?", BigDecimal, accountId)[0]
+    }
+
+    private List<BigDecimal> bucketsOf(UUID accountId) {
+        jdbcTemplate.queryForList(
+            "SELECT balance FROM account_balance_bucket WHERE account_id = ? ORDER BY bucket_index", BigDecimal, accountId)
+    }
+
+    private String statusOf(UUID paymentId) {
+        jdbcTemplate.queryForObject("SELECT status FROM payment WHERE id = ?", String, paymentId)
+    }
+}
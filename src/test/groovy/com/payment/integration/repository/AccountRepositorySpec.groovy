@@ -2,6 +2,7 @@ package com.payment.integration.repository
 
 import com.payment.integration.IntegrationTestBase
 import com.payment.model.Account
+import com.payment.model.Money
 import com.payment.repository.AccountRepository
 import org.springframework.beans.factory.annotation.Autowired
 
@@ -19,7 +20,7 @@ class AccountRepositorySpec extends IntegrationTestBase {
     def "should save and retrieve account"() {
         given:
         def accountId = UUID.randomUUID()
-        def account = new Account(accountId, new BigDecimal("1000.00"), "EUR")
+        def account = new Account(accountId, Money.parse("1000.00", "EUR"))
 
         when:
         accountRepository.save(account)
@@ -28,7 +29,7 @@ class AccountRepositorySpec extends IntegrationTestBase {
         then:
         retrieved.isPresent()
         retrieved.get().id == accountId
-        retrieved.get().balance == new BigDecimal("1000.00")
+        retrieved.get().balance.toBigDecimal() == new BigDecimal("1000.00")
         retrieved.get().currency == "EUR"
         retrieved.get().version == 0L
         retrieved.get().createdAt != null
@@ -38,17 +39,17 @@ class AccountRepositorySpec extends IntegrationTestBase {
     def "should update account balance with optimistic locking"() {
         given:
         def accountId = UUID.randomUUID()
-        def account = new Account(accountId, new BigDecimal("500.00"), "EUR")
+        def account = new Account(accountId, Money.parse("500.00", "EUR"))
         accountRepository.save(account)
 
         when:
         def loaded = accountRepository.findById(accountId).get()
-        loaded.debit(new BigDecimal("100.00"))
+        loaded.debit(Money.parse("100.00", "EUR"))
         accountRepository.save(loaded)
 
         then:
         def updated = accountRepository.findById(accountId).get()
-        updated.balance == new BigDecimal("400.00")
+        updated.balance.toBigDecimal() == new BigDecimal("400.00")
         updated.version == 1L
     }
 
@@ -63,17 +64,17 @@ class AccountRepositorySpec extends IntegrationTestBase {
     def "should detect concurrent modifications with optimistic locking"() {
         given:
         def accountId = UUID.randomUUID()
-        def account = new Account(accountId, new BigDecimal("1000.00"), "EUR")
+        def account = new Account(accountId, Money.parse("1000.00", "EUR"))
         accountRepository.saveAndFlush(account)
 
         when:
         def account1 = accountRepository.findById(accountId).get()
         def account2 = accountRepository.findById(accountId).get()
 
-        account1.debit(new BigDecimal("100.00"))
+        account1.debit(Money.parse("100.00", "EUR"))
         accountRepository.saveAndFlush(account1)
 
-        account2.debit(new BigDecimal("50.00"))
+        account2.debit(Money.parse("50.00", "EUR"))
         accountRepository.saveAndFlush(account2)
 
         then:
@@ -83,7 +84,7 @@ class AccountRepositorySpec extends IntegrationTestBase {
     def "should set audit timestamps on create"() {
         given:
         def accountId = UUID.randomUUID()
-        def account = new Account(accountId, new BigDecimal("100.00"), "EUR")
+        def account = new Account(accountId, Money.parse("100.00", "EUR"))
 
         when:
         def before = Instant.now()
@@ -3,9 +3,11 @@ package com.payment.integration.repository
 import com.payment.exception.ErrorCode
 import com.payment.integration.IntegrationTestBase
 import com.payment.model.Account
+import com.payment.model.Money
 import com.payment.model.Payment
 import com.payment.model.PaymentStatus
 import com.payment.repository.AccountRepository
+import com.payment.repository.PaymentCursor
 import com.payment.repository.PaymentRepository
 import com.payment.repository.PaymentSpecification
 import org.springframework.beans.factory.annotation.Autowired
@@ -13,6 +15,8 @@ import org.springframework.dao.DataIntegrityViolationException
 import org.springframework.data.domain.PageRequest
 import org.springframework.data.domain.Sort
 
+import java.time.Instant
+
 class PaymentRepositorySpec extends IntegrationTestBase {
 
     @Autowired
@@ -27,8 +31,8 @@ class PaymentRepositorySpec extends IntegrationTestBase {
     def setup() {
         senderAccountId = UUID.randomUUID()
         receiverAccountId = UUID.randomUUID()
-        accountRepository.save(new Account(senderAccountId, new BigDecimal("1000.00"), "EUR"))
-        accountRepository.save(new Account(receiverAccountId, new BigDecimal("500.00"), "EUR"))
+        accountRepository.save(new Account(senderAccountId, Money.parse("1000.00", "EUR")))
+        accountRepository.save(new Account(receiverAccountId, Money.parse("500.00", "EUR")))
     }
 
     def cleanup() {
@@ -39,7 +43,7 @@ class PaymentRepositorySpec extends IntegrationTestBase {
     def "should save and retrieve payment"() {
         given:
         def payment = Payment.create("key-123", senderAccountId, receiverAccountId,
-                new BigDecimal("100.00"), "EUR")
+                Money.parse("100.00", "EUR"))
 
         when:
         paymentRepository.save(payment)
@@ -57,7 +61,7 @@ class PaymentRepositorySpec extends IntegrationTestBase {
     def "should find payment by idempotency key"() {
         given:
         def payment = Payment.create("unique-key", senderAccountId, receiverAccountId,
-                new BigDecimal("50.00"), "EUR")
+                Money.parse("50.00", "EUR"))
         paymentRepository.save(payment)
 
         when:
@@ -79,9 +83,9 @@ class PaymentRepositorySpec extends IntegrationTestBase {
     def "should enforce unique idempotency key constraint"() {
         given:
         def payment1 = Payment.create("duplicate-key", senderAccountId, receiverAccountId,
-                new BigDecimal("100.00"), "EUR")
+                Money.parse("100.00", "EUR"))
         def payment2 = Payment.create("duplicate-key", senderAccountId, receiverAccountId,
-                new BigDecimal("200.00"), "EUR")
+                Money.parse("200.00", "EUR"))
 
         when:
         paymentRepository.saveAndFlush(payment1)
@@ -94,14 +98,14 @@ class PaymentRepositorySpec extends IntegrationTestBase {
     def "should find payments by sender account using specification"() {
         given:
         def otherSender = UUID.randomUUID()
-        accountRepository.save(new Account(otherSender, new BigDecimal("100.00"), "EUR"))
+        accountRepository.save(new Account(otherSender, Money.parse("100.00", "EUR")))
 
         paymentRepository.save(Payment.create("key-1", senderAccountId, receiverAccountId,
-                new BigDecimal("100.00"), "EUR"))
+                Money.parse("100.00", "EUR")))
         paymentRepository.save(Payment.create("key-2", senderAccountId, receiverAccountId,
-                new BigDecimal("200.00"), "EUR"))
+                Money.parse("200.00", "EUR")))
         paymentRepository.save(Payment.create("key-3", otherSender, receiverAccountId,
-                new BigDecimal("300.00"), "EUR"))
+                Money.parse("300.00", "EUR")))
 
         when:
         def spec = PaymentSpecification.searchBy(senderAccountId, null)
@@ -115,9 +119,9 @@ class PaymentRepositorySpec extends IntegrationTestBase {
     def "should find payments by status using specification"() {
         given:
         def payment1 = Payment.create("key-1", senderAccountId, receiverAccountId,
-                new BigDecimal("100.00"), "EUR")
+                Money.parse("100.00", "EUR"))
         def payment2 = Payment.create("key-2", senderAccountId, receiverAccountId,
-                new BigDecimal("200.00"), "EUR")
+                Money.parse("200.00", "EUR"))
         payment2.markProcessing()
         payment2.markCompleted()
 
@@ -138,18 +142,18 @@ class PaymentRepositorySpec extends IntegrationTestBase {
     def "should find payments by sender and status using specification"() {
         given:
         def otherSender = UUID.randomUUID()
-        accountRepository.save(new Account(otherSender, new BigDecimal("100.00"), "EUR"))
+        accountRepository.save(new Account(otherSender, Money.parse("100.00", "EUR")))
 
         def payment1 = Payment.create("key-1", senderAccountId, receiverAccountId,
-                new BigDecimal("100.00"), "EUR")
+                Money.parse("100.00", "EUR"))
         payment1.markProcessing()
         payment1.markCompleted()
 
         def payment2 = Payment.create("key-2", senderAccountId, receiverAccountId,
-                new BigDecimal("200.00"), "EUR")
+                Money.parse("200.00", "EUR"))
 
         def payment3 = Payment.create("key-3", otherSender, receiverAccountId,
-                new BigDecimal("300.00"), "EUR")
+                Money.parse("300.00", "EUR"))
         payment3.markProcessing()
         payment3.markCompleted()
 
@@ -168,9 +172,9 @@ class PaymentRepositorySpec extends IntegrationTestBase {
     def "should return all payments when no filters provided"() {
         given:
         paymentRepository.save(Payment.create("key-1", senderAccountId, receiverAccountId,
-                new BigDecimal("100.00"), "EUR"))
+                Money.parse("100.00", "EUR")))
         paymentRepository.save(Payment.create("key-2", senderAccountId, receiverAccountId,
-                new BigDecimal("200.00"), "EUR"))
+                Money.parse("200.00", "EUR")))
 
         when:
         def spec = PaymentSpecification.searchBy(null, null)
@@ -184,7 +188,7 @@ class PaymentRepositorySpec extends IntegrationTestBase {
         given:
         (1..25).each { i ->
             paymentRepository.save(Payment.create("key-$i", senderAccountId, receiverAccountId,
-                    new BigDecimal("$i"), "EUR"))
+                    Money.parse("$i", "EUR")))
         }
 
         when:
@@ -201,14 +205,38 @@ class PaymentRepositorySpec extends IntegrationTestBase {
         page3.content.size() == 5
     }
 
+    def "should page through results by keyset"() {
+        given:
+        (1..25).each { i ->
+            paymentRepository.save(Payment.create("key-$i", senderAccountId, receiverAccountId,
+                    Money.parse("$i", "EUR")))
+        }
+        def spec = PaymentSpecification.searchBy(senderAccountId, null)
+
+        when:
+        def seen = []
+        def page = paymentRepository.findBy(spec, q -> q.sortBy(PaymentSpecification.KEYSET_ORDER).limit(10).all())
+        while (!page.isEmpty()) {
+            seen.addAll(page)
+            def cursor = PaymentCursor.decode(PaymentCursor.of(page.last()).encode())
+            page = paymentRepository.findBy(spec.and(PaymentSpecification.after(cursor)),
+                    q -> q.sortBy(PaymentSpecification.KEYSET_ORDER).limit(10).all())
+        }
+
+        then: "every payment is seen exactly once, newest first"
+        seen.size() == 25
+        seen*.id.unique().size() == 25
+        seen*.createdAt == seen*.createdAt.sort(false).reverse()
+    }
+
     def "should sort results"() {
         given:
         paymentRepository.save(Payment.create("key-1", senderAccountId, receiverAccountId,
-                new BigDecimal("300.00"), "EUR"))
+                Money.parse("300.00", "EUR")))
         paymentRepository.save(Payment.create("key-2", senderAccountId, receiverAccountId,
-                new BigDecimal("100.00"), "EUR"))
+                Money.parse("100.00", "EUR")))
         paymentRepository.save(Payment.create("key-3", senderAccountId, receiverAccountId,
-                new BigDecimal("200.00"), "EUR"))
+                Money.parse("200.00", "EUR")))
 
         when:
         def spec = PaymentSpecification.searchBy(null, null)
@@ -216,16 +244,16 @@ class PaymentRepositorySpec extends IntegrationTestBase {
         def resultDesc = paymentRepository.findAll(spec, PageRequest.of(0, 10, Sort.by("amount").descending()))
 
         then:
-        resultAsc.content[0].amount == new BigDecimal("100.00")
-        resultAsc.content[2].amount == new BigDecimal("300.00")
-        resultDesc.content[0].amount == new BigDecimal("300.00")
-        resultDesc.content[2].amount == new BigDecimal("100.00")
+        resultAsc.content[0].amount.toBigDecimal() == new BigDecimal("100.00")
+        resultAsc.content[2].amount.toBigDecimal() == new BigDecimal("300.00")
+        resultDesc.content[0].amount.toBigDecimal() == new BigDecimal("300.00")
+        resultDesc.content[2].amount.toBigDecimal() == new BigDecimal("100.00")
     }
 
     def "should store error code and message on failure"() {
         given:
         def payment = Payment.create("key-fail", senderAccountId, receiverAccountId,
-                new BigDecimal("100.00"), "EUR")
+                Money.parse("100.00", "EUR"))
         payment.markProcessing()
         payment.markFailed(ErrorCode.INSUFFICIENT_BALANCE, "Not enough funds")
         paymentRepository.save(payment)
@@ -238,4 +266,49 @@ class PaymentRepositorySpec extends IntegrationTestBase {
         retrieved.errorCode == ErrorCode.INSUFFICIENT_BALANCE
         retrieved.errorMessage == "Not enough funds"
     }
+
+    def "should find in-flight payments oldest first"() {
+        given:
+        def pending = paymentRepository.save(Payment.create("in-flight-1", senderAccountId, receiverAccountId,
+                Money.parse("10.00", "EUR")))
+        def processing = Payment.create("in-flight-2", senderAccountId, receiverAccountId,
+                Money.parse("10.00", "EUR"))
+        processing.markProcessing()
+        paymentRepository.save(processing)
+        def completed = Payment.create("in-flight-3", senderAccountId, receiverAccountId,
+                Money.parse("10.00", "EUR"))
+        completed.markCompleted()
+        paymentRepository.save(completed)
+        def failed = Payment.create("in-flight-4", senderAccountId, receiverAccountId,
+                Money.parse("10.00", "EUR"))
+        failed.markFailed(ErrorCode.INSUFFICIENT_BALANCE, "Not enough funds")
+        paymentRepository.save(failed)
+
+        when:
+        def found = paymentRepository.findInFlight(Instant.now().plusSeconds(1), Instant.EPOCH, new UUID(0, 0), 10)
+
+        then:
+        found*.id == [pending.id, processing.id]
+    }
+
+    def "should page through in-flight payments and skip recent ones"() {
+        given:
+        def payments = (1..3).collect {
+            paymentRepository.save(Payment.create("in-flight-page-$it", senderAccountId, receiverAccountId,
+                    Money.parse("10.00", "EUR")))
+        }
+        def before = Instant.now().plusSeconds(1)
+
+        when:
+        def firstPage = paymentRepository.findInFlight(before, Instant.EPOCH, new UUID(0, 0), 2)
+        def cursor = PaymentCursor.of(firstPage.last())
+        def secondPage = paymentRepository.findInFlight(before, cursor.createdAt(), cursor.id(), 2)
+
+        then:
+        firstPage*.id == payments[0..1]*.id
+        secondPage*.id == [payments[2].id]
+
+        and: "payments younger than the threshold are left out"
+        paymentRepository.findInFlight(payments[0].createdAt, Instant.EPOCH, new UUID(0, 0), 10).isEmpty()
+    }
 }
@@ -0,0 +1,93 @@
+package com.payment.integration.service
+
+import com.payment.api.model.PaymentRequest
+import com.payment.integration.IntegrationTestBase
+import com.payment.model.Account
+import com.payment.model.Money
+import com.payment.model.PaymentStatus
+import com.payment.repository.AccountRepository
+import com.payment.repository.PaymentRepository
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.web.client.TestRestTemplate
+import org.springframework.http.HttpEntity
+import org.springframework.http.HttpHeaders
+import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
+import org.springframework.test.context.TestPropertySource
+
+@TestPropertySource(properties = "payment.processing.inline.enabled=true")
+class InlinePaymentProcessingSpec extends IntegrationTestBase {
+
+    @Autowired
+    TestRestTemplate restTemplate
+
+    @Autowired
+    AccountRepository accountRepository
+
+    @Autowired
+    PaymentRepository paymentRepository
+
+    def senderAccountId = UUID.randomUUID()
+    def receiverAccountId = UUID.randomUUID()
+
+    def setup() {
+        accountRepository.save(new Account(senderAccountId, Money.parse("1000.00", "EUR")))
+        accountRepository.save(new Account(receiverAccountId, Money.parse("500.00", "EUR")))
+    }
+
+    def cleanup() {
+        paymentRepository.deleteAll()
+        accountRepository.deleteAll()
+    }
+
+    def "should return COMPLETED status from the submit call"() {
+        when:
+        def response = submit(new PaymentRequest(senderAccountId, receiverAccountId, "100.00", "EUR"))
+
+        then:
+        response.statusCode == HttpStatus.ACCEPTED
+        response.body.status == "COMPLETED"
+
+        and: "the transfer is already committed"
+        paymentRepository.findById(UUID.fromString(response.body.paymentId as String)).get().status == PaymentStatus.COMPLETED
+        accountRepository.findById(senderAccountId).get().balance.toBigDecimal() == new BigDecimal("900.00")
+        accountRepository.findById(receiverAccountId).get().balance.toBigDecimal() == new BigDecimal("600.00")
+    }
+
+    def "should return FAILED status with reason for insufficient balance"() {
+        when:
+        def response = submit(new PaymentRequest(senderAccountId, receiverAccountId, "5000.00", "EUR"))
+
+        then:
+        response.statusCode == HttpStatus.ACCEPTED
+        response.body.status == "FAILED"
+        response.body.message == "Insufficient balance. Available: 1000.00, Required: 5000.00"
+
+        and:
+        def payment = paymentRepository.findById(UUID.fromString(response.body.paymentId as String)).get()
+        payment.status == PaymentStatus.FAILED
+        payment.errorCode.name() == "INSUFFICIENT_BALANCE"
+    }
+
+    def "should return the final status for a duplicate submission"() {
+        given:
+        def idempotencyKey = UUID.randomUUID().toString()
+        def request = new PaymentRequest(senderAccountId, receiverAccountId, "10.00", "EUR")
+
+        when:
+        def first = submit(request, idempotencyKey)
+        def second = submit(request, idempotencyKey)
+
+        then:
+        first.body.paymentId == second.body.paymentId
+        second.body.status == "COMPLETED"
+        accountRepository.findById(senderAccountId).get().balance.toBigDecimal() == new BigDecimal("990.00")
+    }
+
+    private submit(PaymentRequest request, String idempotencyKey = UUID.randomUUID().toString()) {
+        def headers = new HttpHeaders()
+        headers.setContentType(MediaType.APPLICATION_JSON)
+        headers.set("Idempotency-Key", idempotencyKey)
+        restTemplate.postForEntity("/api/v1/payments", new HttpEntity<>(request, headers), Map)
+    }
+}
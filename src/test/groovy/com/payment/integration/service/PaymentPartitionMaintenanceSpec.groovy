@@ -0,0 +1,125 @@
+package com.payment.integration.service
+
+import com.payment.integration.IntegrationTestBase
+import com.payment.model.Account
+import com.payment.model.Money
+import com.payment.repository.AccountRepository
+import com.payment.repository.PaymentPartitionRepository
+import com.payment.repository.PaymentRepository
+import com.payment.service.PaymentPartitionMaintenance
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.test.context.TestPropertySource
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.LocalDate
+import java.time.YearMonth
+import java.util.zip.GZIPInputStream
+
+@TestPropertySource(properties = [
+    "payment.partitions.archive.retention=12m",
+    "payment.partitions.archive.directory=build/tmp/payment-archive-test"
+])
+class PaymentPartitionMaintenanceSpec extends IntegrationTestBase {
+
+    static final Path ARCHIVE_DIRECTORY = Path.of("build/tmp/payment-archive-test")
+
+    @Autowired
+    PaymentPartitionMaintenance maintenance
+
+    @Autowired
+    PaymentPartitionRepository partitionRepository
+
+    @Autowired
+    PaymentRepository paymentRepository
+
+    @Autowired
+    AccountRepository accountRepository
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    UUID senderId = UUID.randomUUID()
+    UUID receiverId = UUID.randomUUID()
+
+    def setup() {
+        accountRepository.save(new Account(senderId, Money.parse("100.00", "EUR")))
+        accountRepository.save(new Account(receiverId, Money.parse("0.00", "EUR")))
+    }
+
+    def cleanup() {
+        paymentRepository.deleteAll()
+        accountRepository.deleteAll()
+    }
+
+    def "should keep partitions ready for the coming months"() {
+        when:
+        maintenance.createUpcomingPartitions()
+
+        then:
+        def months = partitionRepository.findAll()*.month()
+        (0..3).every { months.contains(YearMonth.now().plusMonths(it)) }
+    }
+
+    def "should enforce idempotency keys within a partition"() {
+        given:
+        def month = LocalDate.now().withDayOfMonth(1)
+
+        when:
+        def first = insertPayment("partition-key", month.atTime(1, 0), "COMPLETED")
+        def duplicate = insertPayment("partition-key", month.atTime(2, 0), "COMPLETED")
+
+        then:
+        first == 1
+        duplicate == 0
+    }
+
+    def "should archive settled partitions older than the retention and drop them"() {
+        given:
+        def month = YearMonth.now().minusMonths(14)
+        partitionRepository.createPartitions(month.atDay(1), month.atDay(1))
+        def paymentId = UUID.randomUUID()
+        insertPayment(paymentId, "archived-1", month.atDay(10).atStartOfDay(), "COMPLETED")
+        def name = "payment_p" + month.toString().replace("-", "")
+
+        when:
+        maintenance.archiveExpiredPartitions()
+
+        then:
+        !partitionRepository.findAll()*.name().contains(name)
+        !paymentRepository.existsById(paymentId)
+
+        and:
+        def file = ARCHIVE_DIRECTORY.resolve(name + ".csv.gz")
+        def csv = new GZIPInputStream(Files.newInputStream(file)).text
+        csv.readLines().size() == 2
+        csv.contains(paymentId.toString())
+    }
+
+    def "should keep old partitions with unfinished payments"() {
+        given:
+        def month = YearMonth.now().minusMonths(15)
+        partitionRepository.createPartitions(month.atDay(1), month.atDay(1))
+        insertPayment(UUID.randomUUID(), "stuck-1", month.atDay(3).atStartOfDay(), "PENDING")
+        def name = "payment_p" + month.toString().replace("-", "")
+
+        when:
+        maintenance.archiveExpiredPartitions()
+
+        then:
+        partitionRepository.findAll()*.name().contains(name)
+    }
+
+    private int insertPayment(String idempotencyKey, Object createdAt, String status) {
+        insertPayment(UUID.randomUUID(), idempotencyKey, createdAt, status)
+    }
+
+    private int insertPayment(UUID id, String idempotencyKey, Object createdAt, String status) {
+        jdbcTemplate.update(
+            "INSERT INTO payment (id, idempotency_key, sender_account_id, receiver_account_id, amount, currency, "
+                + "status, version, created_at, updated_at) VALUES (?, ?, ?, ?, 10.00, 'EUR', ?, 0, ?, ?) "
+                + "ON CONFLICT DO NOTHING",
+            id, idempotencyKey, senderId, receiverId, status, createdAt, createdAt)
+    }
+}
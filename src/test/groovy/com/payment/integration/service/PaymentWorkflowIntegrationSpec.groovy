@@ -6,10 +6,13 @@ import com.payment.event.PaymentCompletedEvent
 import com.payment.exception.ErrorCode
 import com.payment.integration.IntegrationTestBase
 import com.payment.model.Account
+import com.payment.model.Money
 import com.payment.model.Payment
 import com.payment.model.PaymentStatus
+import com.payment.repository.AccountBalanceBucketRepository
 import com.payment.repository.AccountRepository
 import com.payment.repository.PaymentRepository
+import com.payment.service.PaymentDispatcher
 import com.payment.temporal.workflow.PaymentWorkflow
 import io.temporal.client.WorkflowClient
 import io.temporal.client.WorkflowOptions
@@ -32,9 +35,15 @@ class PaymentWorkflowIntegrationSpec extends IntegrationTestBase {
     @Autowired
     AccountRepository accountRepository
 
+    @Autowired
+    AccountBalanceBucketRepository bucketRepository
+
     @Autowired
     WorkflowClient workflowClient
 
+    @Autowired
+    PaymentDispatcher paymentDispatcher
+
     KafkaConsumer<String, PaymentCompletedEvent> kafkaConsumer
 
     def setup() {
@@ -56,10 +65,10 @@ class PaymentWorkflowIntegrationSpec extends IntegrationTestBase {
         given: "accounts and pending payment"
         def senderId = UUID.randomUUID()
         def receiverId = UUID.randomUUID()
-        accountRepository.save(new Account(senderId, new BigDecimal("1000.00"), "EUR"))
-        accountRepository.save(new Account(receiverId, new BigDecimal("500.00"), "EUR"))
+        accountRepository.save(new Account(senderId, Money.parse("1000.00", "EUR")))
+        accountRepository.save(new Account(receiverId, Money.parse("500.00", "EUR")))
 
-        def payment = Payment.create("key-success", senderId, receiverId, new BigDecimal("100.00"), "EUR")
+        def payment = Payment.create("key-success", senderId, receiverId, Money.parse("100.00", "EUR"))
         paymentRepository.save(payment)
 
         when: "workflow is started"
@@ -70,18 +79,18 @@ class PaymentWorkflowIntegrationSpec extends IntegrationTestBase {
         updatedPayment.status == PaymentStatus.COMPLETED
 
         and: "balances are updated"
-        accountRepository.findById(senderId).get().balance == new BigDecimal("900.00")
-        accountRepository.findById(receiverId).get().balance == new BigDecimal("600.00")
+        accountRepository.findById(senderId).get().balance.toBigDecimal() == new BigDecimal("900.00")
+        accountRepository.findById(receiverId).get().balance.toBigDecimal() == new BigDecimal("600.00")
     }
 
     def "should fail payment when insufficient funds"() {
         given: "accounts with insufficient funds"
         def senderId = UUID.randomUUID()
         def receiverId = UUID.randomUUID()
-        accountRepository.save(new Account(senderId, new BigDecimal("50.00"), "EUR"))
-        accountRepository.save(new Account(receiverId, new BigDecimal("500.00"), "EUR"))
+        accountRepository.save(new Account(senderId, Money.parse("50.00", "EUR")))
+        accountRepository.save(new Account(receiverId, Money.parse("500.00", "EUR")))
 
-        def payment = Payment.create("key-insufficient", senderId, receiverId, new BigDecimal("100.00"), "EUR")
+        def payment = Payment.create("key-insufficient", senderId, receiverId, Money.parse("100.00", "EUR"))
         paymentRepository.save(payment)
 
         when: "workflow is started"
@@ -93,18 +102,44 @@ class PaymentWorkflowIntegrationSpec extends IntegrationTestBase {
         updatedPayment.errorCode.name() == "INSUFFICIENT_BALANCE"
 
         and: "balances are unchanged"
-        accountRepository.findById(senderId).get().balance == new BigDecimal("50.00")
-        accountRepository.findById(receiverId).get().balance == new BigDecimal("500.00")
+        accountRepository.findById(senderId).get().balance.toBigDecimal() == new BigDecimal("50.00")
+        accountRepository.findById(receiverId).get().balance.toBigDecimal() == new BigDecimal("500.00")
+    }
+
+    def "should settle a payment left PROCESSING by an attempt whose failure was not recorded"() {
+        given: "a payment whose debit failed on an earlier version, which committed PROCESSING"
+        def senderId = UUID.randomUUID()
+        def receiverId = UUID.randomUUID()
+        accountRepository.save(new Account(senderId, Money.parse("50.00", "EUR")))
+        accountRepository.save(new Account(receiverId, Money.parse("500.00", "EUR")))
+
+        def payment = Payment.create("key-stuck-processing", senderId, receiverId, Money.parse("100.00", "EUR"))
+        payment.markProcessing()
+        paymentRepository.save(payment)
+
+        when: "the reconciler redrives it"
+        def redriven = paymentDispatcher.redrive(payment)
+
+        then: "the transfer is re-checked and the failure recorded"
+        redriven
+        Awaitility.await().atMost(Duration.ofSeconds(10)).until {
+            paymentRepository.findById(payment.id).get().status == PaymentStatus.FAILED
+        }
+        paymentRepository.findById(payment.id).get().errorCode.name() == "INSUFFICIENT_BALANCE"
+
+        and: "no money moved"
+        accountRepository.findById(senderId).get().balance.toBigDecimal() == new BigDecimal("50.00")
+        accountRepository.findById(receiverId).get().balance.toBigDecimal() == new BigDecimal("500.00")
     }
 
     def "should publish PaymentCompletedEvent to Kafka after successful payment"() {
         given: "accounts and pending payment"
         def senderId = UUID.randomUUID()
         def receiverId = UUID.randomUUID()
-        accountRepository.save(new Account(senderId, new BigDecimal("1000.00"), "EUR"))
-        accountRepository.save(new Account(receiverId, new BigDecimal("500.00"), "EUR"))
+        accountRepository.save(new Account(senderId, Money.parse("1000.00", "EUR")))
+        accountRepository.save(new Account(receiverId, Money.parse("500.00", "EUR")))
 
-        def payment = Payment.create("key-kafka-success", senderId, receiverId, new BigDecimal("100.00"), "EUR")
+        def payment = Payment.create("key-kafka-success", senderId, receiverId, Money.parse("100.00", "EUR"))
         paymentRepository.save(payment)
         def paymentId = payment.id
 
@@ -134,10 +169,10 @@ class PaymentWorkflowIntegrationSpec extends IntegrationTestBase {
         given: "accounts with insufficient funds"
         def senderId = UUID.randomUUID()
         def receiverId = UUID.randomUUID()
-        accountRepository.save(new Account(senderId, new BigDecimal("50.00"), "EUR"))
-        accountRepository.save(new Account(receiverId, new BigDecimal("500.00"), "EUR"))
+        accountRepository.save(new Account(senderId, Money.parse("50.00", "EUR")))
+        accountRepository.save(new Account(receiverId, Money.parse("500.00", "EUR")))
 
-        def payment = Payment.create("key-kafka-insufficient", senderId, receiverId, new BigDecimal("100.00"), "EUR")
+        def payment = Payment.create("key-kafka-insufficient", senderId, receiverId, Money.parse("100.00", "EUR"))
         paymentRepository.save(payment)
         def paymentId = payment.id
 
@@ -163,12 +198,12 @@ class PaymentWorkflowIntegrationSpec extends IntegrationTestBase {
         given: "accounts"
         def senderId = UUID.randomUUID()
         def receiverId = UUID.randomUUID()
-        accountRepository.save(new Account(senderId, new BigDecimal("1000.00"), "EUR"))
-        accountRepository.save(new Account(receiverId, new BigDecimal("500.00"), "EUR"))
+        accountRepository.save(new Account(senderId, Money.parse("1000.00", "EUR")))
+        accountRepository.save(new Account(receiverId, Money.parse("500.00", "EUR")))
 
         and: "multiple payments"
         def payments = (1..3).collect { i ->
-            def payment = Payment.create("key-multi-$i", senderId, receiverId, new BigDecimal("100.00"), "EUR")
+            def payment = Payment.create("key-multi-$i", senderId, receiverId, Money.parse("100.00", "EUR"))
             paymentRepository.save(payment)
             payment
         }
@@ -200,12 +235,12 @@ class PaymentWorkflowIntegrationSpec extends IntegrationTestBase {
         given: "a sender and receiver account"
         def senderId = UUID.randomUUID()
         def receiverId = UUID.randomUUID()
-        accountRepository.save(new Account(senderId, new BigDecimal("1000.00"), "EUR"))
-        accountRepository.save(new Account(receiverId, new BigDecimal("0.00"), "EUR"))
+        accountRepository.save(new Account(senderId, Money.parse("1000.00", "EUR")))
+        accountRepository.save(new Account(receiverId, Money.parse("0.00", "EUR")))
 
         and: "a pending payment"
-        def paymentAmount = new BigDecimal("100.00")
-        def payment = Payment.create("key-concurrent", senderId, receiverId, paymentAmount, "EUR")
+        def paymentAmount = Money.parse("100.00", "EUR")
+        def payment = Payment.create("key-concurrent", senderId, receiverId, paymentAmount)
         paymentRepository.save(payment)
 
         when: "two threads try to process the same payment concurrently"
@@ -225,11 +260,45 @@ class PaymentWorkflowIntegrationSpec extends IntegrationTestBase {
         def updatedReceiver = accountRepository.findById(receiverId).get()
         def updatedPayment = paymentRepository.findById(payment.id).get()
 
-        updatedSender.balance == new BigDecimal("900.00")
-        updatedReceiver.balance == new BigDecimal("100.00")
+        updatedSender.balance.toBigDecimal() == new BigDecimal("900.00")
+        updatedReceiver.balance.toBigDecimal() == new BigDecimal("100.00")
         updatedPayment.status == PaymentStatus.COMPLETED
     }
 
+    def "should credit striped receiver through balance buckets and sweep them on debit"() {
+        given: "a regular sender and a striped receiver"
+        def senderId = UUID.randomUUID()
+        def receiverId = UUID.randomUUID()
+        def thirdPartyId = UUID.randomUUID()
+        accountRepository.save(new Account(senderId, Money.parse("1000.00", "EUR")))
+        accountRepository.save(new Account(thirdPartyId, Money.parse("0.00", "EUR")))
+        def receiver = accountRepository.save(new Account(receiverId, Money.parse("0.00", "EUR"), 4))
+        bucketRepository.saveAll(receiver.createBuckets())
+
+        and: "several credits to the striped receiver"
+        def credits = (1..3).collect { i ->
+            paymentRepository.save(Payment.create("key-striped-$i", senderId, receiverId, Money.parse("100.00", "EUR")))
+        }
+
+        when: "credits are processed"
+        credits.each { executeWorkflow(it.id) }
+
+        then: "the receiver row is untouched and the buckets hold the credits"
+        accountRepository.findById(receiverId).get().balance.toBigDecimal() == new BigDecimal("0.00")
+        bucketRepository.sumBalanceByAccountId(receiverId) == new BigDecimal("300.00")
+
+        when: "the striped account pays out more than its main balance"
+        def payout = paymentRepository.save(
+                Payment.create("key-striped-payout", receiverId, thirdPartyId, Money.parse("250.00", "EUR")))
+        executeWorkflow(payout.id)
+
+        then: "the buckets were swept into the main balance"
+        paymentRepository.findById(payout.id).get().status == PaymentStatus.COMPLETED
+        accountRepository.findById(receiverId).get().balance.toBigDecimal() == new BigDecimal("50.00")
+        bucketRepository.sumBalanceByAccountId(receiverId) == new BigDecimal("0.00")
+        accountRepository.findById(thirdPartyId).get().balance.toBigDecimal() == new BigDecimal("250.00")
+    }
+
     private void executeWorkflow(UUID paymentId) {
         def workflow = workflowClient.newWorkflowStub(
                 PaymentWorkflow.class,
@@ -0,0 +1,94 @@
+package com.payment.integration.service
+
+import com.payment.api.model.PaymentRequest
+import com.payment.integration.IntegrationTestBase
+import com.payment.model.Account
+import com.payment.model.Money
+import com.payment.model.PaymentStatus
+import com.payment.repository.AccountRepository
+import com.payment.repository.PaymentRepository
+import io.temporal.client.WorkflowClient
+import org.awaitility.Awaitility
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.boot.test.web.client.TestRestTemplate
+import org.springframework.http.HttpEntity
+import org.springframework.http.HttpHeaders
+import org.springframework.http.HttpStatus
+import org.springframework.http.MediaType
+import org.springframework.test.context.TestPropertySource
+
+import java.time.Duration
+
+@TestPropertySource(properties = [
+        "payment.processing.workflow.mode=per-sender",
+        "payment.processing.workflow.max-batch-size=2",
+        "payment.processing.workflow.continue-as-new-after=2"
+])
+class SenderWorkflowProcessingSpec extends IntegrationTestBase {
+
+    @Autowired
+    TestRestTemplate restTemplate
+
+    @Autowired
+    AccountRepository accountRepository
+
+    @Autowired
+    PaymentRepository paymentRepository
+
+    @Autowired
+    WorkflowClient workflowClient
+
+    def senderAccountId = UUID.randomUUID()
+    def receiverAccountId = UUID.randomUUID()
+
+    def setup() {
+        accountRepository.save(new Account(senderAccountId, Money.parse("250.00", "EUR")))
+        accountRepository.save(new Account(receiverAccountId, Money.parse("0.00", "EUR")))
+    }
+
+    def cleanup() {
+        paymentRepository.deleteAll()
+        accountRepository.deleteAll()
+    }
+
+    def "should process a sender's payments in submission order"() {
+        when: "three payments are submitted that the balance only covers two of"
+        def responses = (1..3).collect { submit(new PaymentRequest(senderAccountId, receiverAccountId, "100.00", "EUR")) }
+
+        then:
+        responses.every { it.statusCode == HttpStatus.ACCEPTED && it.body.status == "PENDING" }
+
+        and: "the first two complete and the last one fails"
+        def ids = responses.collect { UUID.fromString(it.body.paymentId as String) }
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(15))
+                .pollInterval(Duration.ofMillis(200))
+                .until { ids.every { paymentRepository.findById(it).get().status.terminal } }
+        ids.collect { paymentRepository.findById(it).get().status } ==
+                [PaymentStatus.COMPLETED, PaymentStatus.COMPLETED, PaymentStatus.FAILED]
+        accountRepository.findById(senderAccountId).get().balance.toBigDecimal() == new BigDecimal("50.00")
+        accountRepository.findById(receiverAccountId).get().balance.toBigDecimal() == new BigDecimal("200.00")
+    }
+
+    def "should run a single workflow per sender"() {
+        when:
+        def response = submit(new PaymentRequest(senderAccountId, receiverAccountId, "10.00", "EUR"))
+        def paymentId = UUID.fromString(response.body.paymentId as String)
+
+        then:
+        Awaitility.await()
+                .atMost(Duration.ofSeconds(15))
+                .pollInterval(Duration.ofMillis(200))
+                .until { paymentRepository.findById(paymentId).get().status == PaymentStatus.COMPLETED }
+
+        and: "the payment went through the sender's workflow, not a workflow of its own"
+        !workflowClient.fetchHistory("sender-$senderAccountId").events.isEmpty()
+    }
+
+    private submit(PaymentRequest request) {
+        def headers = new HttpHeaders()
+        headers.setContentType(MediaType.APPLICATION_JSON)
+        headers.set("Idempotency-Key", UUID.randomUUID().toString())
+        restTemplate.postForEntity("/api/v1/payments", new HttpEntity<>(request, headers), Map)
+    }
+}
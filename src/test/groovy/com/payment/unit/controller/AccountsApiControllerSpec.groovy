@@ -2,6 +2,7 @@ package com.payment.unit.controller
 
 import com.payment.api.model.AccountRequest
 import com.payment.api.model.AccountResponse
+import com.payment.api.model.AccountStatisticsResponse
 import com.payment.controller.AccountsApiController
 import com.payment.exception.ErrorCode
 import com.payment.exception.ResourceNotFoundException
@@ -10,6 +11,8 @@ import org.springframework.http.HttpStatus
 import spock.lang.Specification
 import spock.lang.Subject
 
+import java.time.LocalDate
+
 class AccountsApiControllerSpec extends Specification {
 
     AccountService accountService = Mock()
@@ -80,4 +83,22 @@ class AccountsApiControllerSpec extends Specification {
         def ex = thrown(ResourceNotFoundException)
         ex.errorCode == ErrorCode.ACCOUNT_NOT_FOUND
     }
+
+    def "should get account statistics"() {
+        given:
+        def accountId = UUID.randomUUID()
+        def from = LocalDate.parse("2026-03-01")
+        def to = LocalDate.parse("2026-03-31")
+        def expectedResponse = new AccountStatisticsResponse(accountId, from, to, [], [])
+
+        when:
+        def response = controller.getAccountStatistics(accountId, from, to)
+
+        then:
+        1 * accountService.getStatistics(accountId, from, to) >> expectedResponse
+
+        and:
+        response.statusCode == HttpStatus.OK
+        response.body.is(expectedResponse)
+    }
 }
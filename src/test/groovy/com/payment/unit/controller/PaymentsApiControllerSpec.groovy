@@ -1,25 +1,35 @@
 package com.payment.unit.controller
 
+import com.payment.api.model.PaginationMode
 import com.payment.api.model.PaymentAcceptedResponse
+import com.payment.api.model.PaymentBatchItem
+import com.payment.api.model.PaymentBatchRequest
+import com.payment.api.model.PaymentBatchResponse
 import com.payment.api.model.PaymentListResponse
 import com.payment.api.model.PaymentRequest
 import com.payment.api.model.PaymentResponse
 import com.payment.api.model.PaymentStatus
 import com.payment.controller.PaymentsApiController
+import com.payment.service.PaymentBatchService
+import com.payment.service.PaymentReconciler
 import com.payment.service.PaymentService
 import org.springframework.data.domain.PageRequest
 import org.springframework.data.domain.Pageable
 import org.springframework.data.domain.Sort
 import org.springframework.http.HttpStatus
+
+import java.time.Duration
 import spock.lang.Specification
 import spock.lang.Subject
 
 class PaymentsApiControllerSpec extends Specification {
 
     PaymentService paymentService = Mock()
+    PaymentBatchService paymentBatchService = Mock()
+    PaymentReconciler paymentReconciler = Mock()
 
     @Subject
-    PaymentsApiController controller = new PaymentsApiController(paymentService)
+    PaymentsApiController controller = new PaymentsApiController(paymentService, paymentBatchService, paymentReconciler)
 
     def "should submit payment and return 202 Accepted"() {
         given:
@@ -48,6 +58,26 @@ class PaymentsApiControllerSpec extends Specification {
         response.body.status == PaymentStatus.PENDING
     }
 
+    def "should submit payment batch and return 202 Accepted"() {
+        given:
+        def item = new PaymentBatchItem()
+        item.setIdempotencyKey("batch-key-1")
+        item.setPayment(new PaymentRequest(UUID.randomUUID(), UUID.randomUUID(), "10.00", "EUR"))
+        def request = new PaymentBatchRequest()
+        request.setItems([item])
+        def expectedResponse = new PaymentBatchResponse()
+
+        when:
+        def response = controller.submitPaymentBatch(request)
+
+        then:
+        1 * paymentBatchService.submitBatch([item]) >> expectedResponse
+
+        and:
+        response.statusCode == HttpStatus.ACCEPTED
+        response.body == expectedResponse
+    }
+
     def "should get payment by id"() {
         given:
         def paymentId = UUID.randomUUID()
@@ -80,7 +110,7 @@ class PaymentsApiControllerSpec extends Specification {
         expectedResponse.setTotalPages(0)
 
         when:
-        def response = controller.listPayments(null, null, pageable)
+        def response = controller.listPayments(null, null, PaginationMode.OFFSET, null, pageable)
 
         then:
         1 * paymentService.listPayments(null, null, pageable) >> expectedResponse
@@ -100,7 +130,7 @@ class PaymentsApiControllerSpec extends Specification {
         expectedResponse.setTotalPages(0)
 
         when:
-        def response = controller.listPayments(null, null, pageable)
+        def response = controller.listPayments(null, null, PaginationMode.OFFSET, null, pageable)
 
         then:
         1 * paymentService.listPayments(null, null, pageable) >> expectedResponse
@@ -123,7 +153,7 @@ class PaymentsApiControllerSpec extends Specification {
         expectedResponse.setTotalPages(0)
 
         when:
-        def response = controller.listPayments(senderAccountId, status, pageable)
+        def response = controller.listPayments(senderAccountId, status, PaginationMode.OFFSET, null, pageable)
 
         then:
         1 * paymentService.listPayments(senderAccountId,
@@ -132,4 +162,53 @@ class PaymentsApiControllerSpec extends Specification {
         and:
         response.statusCode == HttpStatus.OK
     }
+
+    def "should list payments by cursor"() {
+        given:
+        def senderAccountId = UUID.randomUUID()
+        def pageable = PageRequest.of(0, 50)
+        def expectedResponse = new PaymentListResponse()
+        expectedResponse.setContent([])
+        expectedResponse.setSize(50)
+
+        when:
+        def response = controller.listPayments(senderAccountId, null, PaginationMode.CURSOR, "abc", pageable)
+
+        then:
+        1 * paymentService.listPaymentsByCursor(senderAccountId, null, "abc", 50) >> expectedResponse
+        0 * paymentService.listPayments(*_)
+
+        and:
+        response.statusCode == HttpStatus.OK
+    }
+
+    def "should list in-flight payments older than the given age"() {
+        given:
+        def expectedResponse = new PaymentListResponse()
+        expectedResponse.setContent([])
+        expectedResponse.setSize(100)
+
+        when:
+        def response = controller.listInFlightPayments(300, "abc", 100)
+
+        then:
+        1 * paymentService.listInFlightPayments(Duration.ofMinutes(5), "abc", 100) >> expectedResponse
+
+        and:
+        response.statusCode == HttpStatus.OK
+        response.body == expectedResponse
+    }
+
+    def "should run a reconciliation sweep and return its counts"() {
+        when:
+        def response = controller.reconcileInFlightPayments()
+
+        then:
+        1 * paymentReconciler.reconcile() >> new PaymentReconciler.Result(3, 2)
+
+        and:
+        response.statusCode == HttpStatus.OK
+        response.body.stuck == 3
+        response.body.redriven == 2
+    }
 }
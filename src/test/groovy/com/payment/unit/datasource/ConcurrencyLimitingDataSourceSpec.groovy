@@ -0,0 +1,105 @@
+package com.payment.unit.datasource
+
+import com.payment.datasource.ConcurrencyLimitingDataSource
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.jdbc.datasource.ConnectionProxy
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.sql.Connection
+import java.sql.SQLException
+import java.sql.SQLTransientConnectionException
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class ConcurrencyLimitingDataSourceSpec extends Specification {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    DataSource pool = Mock()
+
+    def "should return the permit when the connection is closed"() {
+        given:
+        def connection = Mock(Connection)
+        pool.getConnection() >> connection
+        def dataSource = new ConcurrencyLimitingDataSource(pool, "primary", 1, 0, Duration.ofMillis(10), meterRegistry)
+
+        when:
+        def first = dataSource.getConnection()
+        first.close()
+        first.close()
+        def second = dataSource.getConnection()
+
+        then:
+        2 * connection.close()
+        (second as ConnectionProxy).targetConnection.is(connection)
+        meterRegistry.get("payment.db.limiter.active").gauge().value() == 1
+    }
+
+    def "should reject callers beyond the waiting limit without waiting"() {
+        given:
+        pool.getConnection() >> Mock(Connection)
+        def dataSource = new ConcurrencyLimitingDataSource(pool, "primary", 1, 0, Duration.ofSeconds(10), meterRegistry)
+        dataSource.getConnection()
+
+        when:
+        dataSource.getConnection()
+
+        then:
+        thrown(SQLTransientConnectionException)
+        meterRegistry.get("payment.db.limiter.rejected").counter().count() == 1
+    }
+
+    def "should hand the permit to a waiting caller"() {
+        given:
+        pool.getConnection() >> Mock(Connection)
+        def dataSource = new ConcurrencyLimitingDataSource(pool, "primary", 1, 1, Duration.ofSeconds(10), meterRegistry)
+        def held = dataSource.getConnection()
+        def executor = Executors.newVirtualThreadPerTaskExecutor()
+
+        when:
+        def waiter = CompletableFuture.supplyAsync({ dataSource.getConnection() }, executor)
+        Thread.sleep(50)
+        held.close()
+
+        then:
+        waiter.get(5, TimeUnit.SECONDS) != null
+
+        cleanup:
+        executor.close()
+    }
+
+    def "should time out a waiting caller"() {
+        given:
+        pool.getConnection() >> Mock(Connection)
+        def dataSource = new ConcurrencyLimitingDataSource(pool, "primary", 1, 1, Duration.ofMillis(20), meterRegistry)
+        dataSource.getConnection()
+
+        when:
+        dataSource.getConnection()
+
+        then:
+        def e = thrown(SQLTransientConnectionException)
+        e.message.contains("Timed out")
+        meterRegistry.get("payment.db.limiter.waiting").gauge().value() == 0
+    }
+
+    def "should release the permit when the pool fails"() {
+        given:
+        pool.getConnection() >> { throw new SQLException("connection refused") } >> Mock(Connection)
+        def dataSource = new ConcurrencyLimitingDataSource(pool, "primary", 1, 0, Duration.ofMillis(10), meterRegistry)
+
+        when:
+        dataSource.getConnection()
+
+        then:
+        thrown(SQLException)
+
+        when:
+        def connection = dataSource.getConnection()
+
+        then:
+        connection != null
+    }
+}
@@ -0,0 +1,57 @@
+package com.payment.unit.datasource
+
+import com.payment.config.ReadReplicaProperties
+import com.payment.datasource.ReadReplicaRoutingDataSource
+import com.payment.datasource.ReplicaReads
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.sql.Connection
+
+class ReadReplicaRoutingDataSourceSpec extends Specification {
+
+    Connection primaryConnection = Mock()
+    Connection replicaConnection = Mock()
+    DataSource primary = Stub() { getConnection() >> primaryConnection }
+    DataSource replica = Stub() { getConnection() >> replicaConnection }
+
+    ReadReplicaRoutingDataSource dataSource = new ReadReplicaRoutingDataSource(primary, replica)
+    ReplicaReads replicaReads = new ReplicaReads(
+            new ReadReplicaProperties(true, "jdbc:postgresql://replica/payments", null, null, true), new SimpleMeterRegistry())
+
+    def cleanup() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false)
+    }
+
+    def "should route read-only transactions inside replica reads to the replica"() {
+        given:
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true)
+
+        expect:
+        replicaReads.read { dataSource.getConnection() } == replicaConnection
+    }
+
+    def "should keep read-write transactions inside replica reads on the primary"() {
+        expect:
+        replicaReads.read { dataSource.getConnection() } == primaryConnection
+    }
+
+    def "should keep read-only transactions outside replica reads on the primary"() {
+        given:
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true)
+
+        expect:
+        dataSource.getConnection() == primaryConnection
+    }
+
+    def "should return to the primary after replica reads"() {
+        given:
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true)
+        replicaReads.read { replicaReads.read { dataSource.getConnection() } }
+
+        expect:
+        dataSource.getConnection() == primaryConnection
+    }
+}
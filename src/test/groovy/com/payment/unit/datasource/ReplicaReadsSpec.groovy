@@ -0,0 +1,57 @@
+package com.payment.unit.datasource
+
+import com.payment.config.ReadReplicaProperties
+import com.payment.datasource.ReplicaReads
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+
+import java.util.function.Supplier
+
+class ReplicaReadsSpec extends Specification {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    Supplier<Optional<String>> query = Mock()
+
+    def "should look a row missing on the replica up on the primary"() {
+        given:
+        def replicaReads = replicaReads(true, true)
+
+        when:
+        def found = replicaReads.find(query)
+
+        then:
+        2 * query.get() >>> [Optional.empty(), Optional.of("payment")]
+
+        and:
+        found == Optional.of("payment")
+        meterRegistry.get("payment.read-replica.fallbacks").counter().count() == 1
+    }
+
+    def "should not repeat a lookup that found the row"() {
+        when:
+        def found = replicaReads(true, true).find(query)
+
+        then:
+        1 * query.get() >> Optional.of("payment")
+        found == Optional.of("payment")
+    }
+
+    def "should not repeat the lookup when #reason"() {
+        when:
+        def found = replicaReads(enabled, primaryFallback).find(query)
+
+        then:
+        1 * query.get() >> Optional.empty()
+        found.isEmpty()
+        meterRegistry.get("payment.read-replica.fallbacks").counter().count() == 0
+
+        where:
+        reason                      | enabled | primaryFallback
+        "there is no replica"       | false   | true
+        "the fallback is disabled"  | true    | false
+    }
+
+    private ReplicaReads replicaReads(boolean enabled, boolean primaryFallback) {
+        new ReplicaReads(new ReadReplicaProperties(enabled, null, null, null, primaryFallback), meterRegistry)
+    }
+}
@@ -0,0 +1,104 @@
+package com.payment.unit.event
+
+import com.payment.config.KafkaConfig
+import com.payment.event.BinaryPaymentEventDeserializer
+import com.payment.event.BinaryPaymentEventSerializer
+import com.payment.event.PaymentCompletedEvent
+import com.payment.exception.ErrorCode
+import org.apache.kafka.common.errors.SerializationException
+import spock.lang.Specification
+
+class BinaryPaymentEventSerializerSpec extends Specification {
+
+    static final String TOPIC = KafkaConfig.PAYMENT_NOTIFICATIONS_TOPIC
+
+    def serializer = new BinaryPaymentEventSerializer()
+    def deserializer = new BinaryPaymentEventDeserializer()
+
+    def "should round-trip a success event in 66 bytes"() {
+        given:
+        def event = PaymentCompletedEvent.success(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                new BigDecimal("150.00"), "EUR")
+
+        when:
+        def bytes = serializer.serialize(TOPIC, event)
+
+        then:
+        bytes.length == 66
+        bytes[0] == 1 as byte
+        deserializer.deserialize(TOPIC, bytes) == event
+    }
+
+    def "should round-trip a failure event with its error code and message"() {
+        given:
+        def event = PaymentCompletedEvent.failure(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                new BigDecimal("150.00"), "EUR", ErrorCode.INSUFFICIENT_BALANCE,
+                "Insufficient balance. Available: 10.00, Required: 150.00 – ünicode")
+
+        when:
+        def decoded = deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, event))
+
+        then:
+        decoded == event
+    }
+
+    def "should keep the scale of the amount"() {
+        given:
+        def event = PaymentCompletedEvent.success(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                amount, "EUR")
+
+        when:
+        def decoded = deserializer.deserialize(TOPIC, serializer.serialize(TOPIC, event))
+
+        then:
+        decoded.amount() == amount
+        decoded.amount().scale() == amount.scale()
+
+        where:
+        amount << [new BigDecimal("0.01"), new BigDecimal("10"), new BigDecimal("92233720368547758.07")]
+    }
+
+    def "should reject amounts that do not fit a scaled long"() {
+        given:
+        def event = PaymentCompletedEvent.success(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                new BigDecimal("100000000000000000000.00"), "EUR")
+
+        when:
+        serializer.serialize(TOPIC, event)
+
+        then:
+        thrown(SerializationException)
+    }
+
+    def "should reject unknown schema versions"() {
+        given:
+        def bytes = serializer.serialize(TOPIC, PaymentCompletedEvent.success(
+                UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("1.00"), "EUR"))
+        bytes[0] = 2 as byte
+
+        when:
+        deserializer.deserialize(TOPIC, bytes)
+
+        then:
+        def e = thrown(SerializationException)
+        e.message.contains("version: 2")
+    }
+
+    def "should reject truncated events"() {
+        given:
+        def bytes = serializer.serialize(TOPIC, PaymentCompletedEvent.success(
+                UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("1.00"), "EUR"))
+
+        when:
+        deserializer.deserialize(TOPIC, Arrays.copyOf(bytes, 40))
+
+        then:
+        thrown(SerializationException)
+    }
+
+    def "should pass null through"() {
+        expect:
+        serializer.serialize(TOPIC, null) == null
+        deserializer.deserialize(TOPIC, null) == null
+    }
+}
@@ -0,0 +1,134 @@
+package com.payment.unit.event
+
+import com.payment.config.KafkaConfig
+import com.payment.event.PaymentCompletedEvent
+import com.payment.event.PaymentEventPublisher
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.apache.kafka.clients.producer.ProducerRecord
+import org.apache.kafka.common.PartitionInfo
+import org.apache.kafka.common.utils.Utils
+import org.springframework.kafka.core.KafkaTemplate
+import org.springframework.kafka.support.SendResult
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.CompletableFuture
+
+class PaymentEventPublisherSpec extends Specification {
+
+    KafkaTemplate<String, Object> kafkaTemplate = Mock()
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
+    @Subject
+    PaymentEventPublisher publisher = new PaymentEventPublisher(kafkaTemplate, meterRegistry)
+
+    def setup() {
+        kafkaTemplate.partitionsFor(KafkaConfig.PAYMENT_NOTIFICATIONS_TOPIC) >> (0..2).collect {
+            new PartitionInfo(KafkaConfig.PAYMENT_NOTIFICATIONS_TOPIC, it, null, null, null)
+        }
+    }
+
+    def "should send the event keyed by payment id to the partition of its key"() {
+        given:
+        def event = event()
+        def key = event.paymentId().toString()
+        def partition = Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8))) % 3
+
+        when:
+        publisher.publish(event)
+
+        then:
+        1 * kafkaTemplate.send({ ProducerRecord record ->
+            record.topic() == KafkaConfig.PAYMENT_NOTIFICATIONS_TOPIC &&
+                    record.partition() == partition &&
+                    record.key() == key &&
+                    record.value() == event
+        }) >> new CompletableFuture<SendResult<String, Object>>()
+    }
+
+    def "should carry the trace parent as a record header"() {
+        given:
+        def traceParent = "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01"
+
+        when:
+        publisher.publish(event(), traceParent)
+        publisher.publish(event())
+
+        then:
+        1 * kafkaTemplate.send({ ProducerRecord record ->
+            def header = record.headers().lastHeader("traceparent")
+            header != null && new String(header.value(), StandardCharsets.US_ASCII) == traceParent
+        }) >> new CompletableFuture<SendResult<String, Object>>()
+        1 * kafkaTemplate.send({ ProducerRecord record ->
+            record.headers().lastHeader("traceparent") == null
+        }) >> new CompletableFuture<SendResult<String, Object>>()
+    }
+
+    def "should look the partition count up only once"() {
+        when:
+        publisher.publish(event())
+        publisher.publish(event())
+
+        then:
+        1 * kafkaTemplate.partitionsFor(KafkaConfig.PAYMENT_NOTIFICATIONS_TOPIC) >> (0..2).collect {
+            new PartitionInfo(KafkaConfig.PAYMENT_NOTIFICATIONS_TOPIC, it, null, null, null)
+        }
+        2 * kafkaTemplate.send(_ as ProducerRecord) >> new CompletableFuture<SendResult<String, Object>>()
+    }
+
+    def "should count the send as in flight until the broker acknowledges it"() {
+        given:
+        def ack = new CompletableFuture<SendResult<String, Object>>()
+        kafkaTemplate.send(_ as ProducerRecord) >> ack
+
+        when:
+        def published = publisher.publish(event())
+
+        then:
+        !published.done
+        inFlight() == 1
+
+        when:
+        ack.complete(null)
+
+        then:
+        published.done
+        inFlight() == 0
+        meterRegistry.find("payment.events.send").tag("outcome", "success").timer().count() == 1
+    }
+
+    def "should fail the returned future and record the failure when delivery fails"() {
+        given:
+        kafkaTemplate.send(_ as ProducerRecord) >> CompletableFuture.failedFuture(new RuntimeException("timeout"))
+
+        when:
+        def published = publisher.publish(event())
+
+        then:
+        published.completedExceptionally
+        inFlight() == 0
+        meterRegistry.find("payment.events.send").tag("outcome", "failure").timer().count() == 1
+    }
+
+    def "should fail the returned future when the producer rejects the record"() {
+        given:
+        kafkaTemplate.send(_ as ProducerRecord) >> { throw new IllegalStateException("producer closed") }
+
+        when:
+        def published = publisher.publish(event())
+
+        then:
+        published.completedExceptionally
+        inFlight() == 0
+    }
+
+    private double inFlight() {
+        meterRegistry.find("payment.events.in-flight").gauges().sum { it.value() } as double
+    }
+
+    private static PaymentCompletedEvent event() {
+        PaymentCompletedEvent.success(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                new BigDecimal("10.00"), "EUR")
+    }
+}
@@ -0,0 +1,126 @@
+package com.payment.unit.event
+
+import com.payment.config.OutboxProperties
+import com.payment.event.PaymentCompletedEvent
+import com.payment.event.PaymentEventPublisher
+import com.payment.event.PaymentOutboxRelay
+import com.payment.exception.ErrorCode
+import com.payment.model.PaymentStatus
+import com.payment.observability.PaymentMetrics
+import com.payment.repository.PaymentOutboxRepository
+import com.payment.repository.PaymentOutboxRepository.OutboxEntry
+import com.payment.service.IdempotencyCache
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.transaction.PlatformTransactionManager
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.TimeUnit
+
+class PaymentOutboxRelaySpec extends Specification {
+
+    PaymentOutboxRepository outboxRepository = Mock()
+    PaymentEventPublisher eventPublisher = Mock()
+    IdempotencyCache idempotencyCache = Mock()
+    PlatformTransactionManager transactionManager = Mock()
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
+    @Subject
+    PaymentOutboxRelay relay = new PaymentOutboxRelay(outboxRepository, eventPublisher, idempotencyCache, transactionManager,
+            new OutboxProperties(2, Duration.ofSeconds(1), Duration.ofDays(1)), new PaymentMetrics(meterRegistry))
+
+    def "should publish a batch and mark it published in bulk"() {
+        given:
+        def completed = entry(1L, PaymentStatus.COMPLETED)
+        def failed = entry(2L, PaymentStatus.FAILED)
+
+        when:
+        relay.relay()
+
+        then:
+        1 * outboxRepository.lockUnpublished(2) >> [completed, failed]
+        1 * eventPublisher.publish({ PaymentCompletedEvent e ->
+            e.paymentId() == completed.paymentId() && e.status() == PaymentStatus.COMPLETED
+        }, _) >> CompletableFuture.completedFuture(null)
+        1 * eventPublisher.publish({ PaymentCompletedEvent e ->
+            e.paymentId() == failed.paymentId() && e.errorCode() == ErrorCode.INSUFFICIENT_BALANCE
+        }, _) >> CompletableFuture.completedFuture(null)
+        1 * outboxRepository.markPublished([1L, 2L])
+
+        and: "cached idempotency keys learn the final status"
+        1 * idempotencyCache.statusChanged(completed.idempotencyKey(), completed.paymentId(), PaymentStatus.COMPLETED)
+        1 * idempotencyCache.statusChanged(failed.idempotencyKey(), failed.paymentId(), PaymentStatus.FAILED)
+
+        then: "a full batch means more may be waiting"
+        1 * outboxRepository.lockUnpublished(2) >> []
+    }
+
+    def "should leave entries whose send failed in the outbox"() {
+        given:
+        def sent = entry(1L, PaymentStatus.COMPLETED)
+        def rejected = entry(2L, PaymentStatus.COMPLETED)
+
+        when:
+        relay.relay()
+
+        then:
+        1 * outboxRepository.lockUnpublished(2) >> [sent, rejected]
+        1 * eventPublisher.publish({ it.paymentId() == sent.paymentId() }, _) >> CompletableFuture.completedFuture(null)
+        1 * eventPublisher.publish({ it.paymentId() == rejected.paymentId() }, _) >>
+                CompletableFuture.failedFuture(new RuntimeException("broker unavailable"))
+        1 * outboxRepository.markPublished([1L])
+
+        and: "the relay stops until the next run"
+        0 * outboxRepository.lockUnpublished(_)
+    }
+
+    def "should skip entries of payments that are not in a terminal status"() {
+        given:
+        def pending = entry(1L, PaymentStatus.PENDING)
+
+        when:
+        relay.relay()
+
+        then:
+        1 * outboxRepository.lockUnpublished(2) >> [pending]
+        0 * eventPublisher._
+        1 * outboxRepository.markPublished([1L])
+    }
+
+    def "should continue the payment's trace and record its completion latency once published"() {
+        given:
+        def traceParent = "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01"
+        def createdAt = Instant.parse("2026-01-15T10:00:00Z")
+        def completed = entry(1L, PaymentStatus.COMPLETED, traceParent, createdAt, createdAt.plusMillis(250))
+
+        when:
+        relay.relay()
+
+        then:
+        1 * outboxRepository.lockUnpublished(2) >> [completed]
+        1 * eventPublisher.publish({ it.paymentId() == completed.paymentId() }, traceParent) >>
+                CompletableFuture.completedFuture(null)
+
+        and:
+        def latency = meterRegistry.get("payment.completion.latency").tag("status", "COMPLETED").timer()
+        latency.count() == 1
+        latency.totalTime(TimeUnit.MILLISECONDS) == 250
+    }
+
+    private static OutboxEntry entry(long id, PaymentStatus status) {
+        def now = Instant.now()
+        entry(id, status, null, now, now)
+    }
+
+    private static OutboxEntry entry(long id, PaymentStatus status, String traceParent, Instant createdAt,
+                                     Instant finishedAt) {
+        new OutboxEntry(id, UUID.randomUUID(), "key-" + id, UUID.randomUUID(), UUID.randomUUID(),
+                new BigDecimal("10.00"), "EUR", status,
+                status == PaymentStatus.FAILED ? ErrorCode.INSUFFICIENT_BALANCE : null,
+                status == PaymentStatus.FAILED ? "Insufficient balance" : null,
+                traceParent, createdAt, finishedAt)
+    }
+}
@@ -25,7 +25,9 @@ class ErrorCodeSpec extends Specification {
         ErrorCode.SAME_ACCOUNT               | 2005                | HttpStatus.BAD_REQUEST
         ErrorCode.VALIDATION_ERROR           | 3001                | HttpStatus.BAD_REQUEST
         ErrorCode.INVALID_AMOUNT             | 3002                | HttpStatus.BAD_REQUEST
+        ErrorCode.INVALID_CURSOR             | 3004                | HttpStatus.BAD_REQUEST
         ErrorCode.INTERNAL_ERROR             | 5001                | HttpStatus.INTERNAL_SERVER_ERROR
+        ErrorCode.SERVICE_UNAVAILABLE        | 5002                | HttpStatus.SERVICE_UNAVAILABLE
     }
 
     def "payment error codes should be in 1xxx range"() {
@@ -4,8 +4,11 @@ import com.payment.exception.ErrorCode
 import com.payment.exception.GlobalExceptionHandler
 import com.payment.exception.PaymentException
 import com.payment.exception.ResourceNotFoundException
+import com.payment.observability.PaymentMetrics
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import jakarta.servlet.http.HttpServletRequest
 import org.springframework.http.HttpStatus
+import org.springframework.transaction.CannotCreateTransactionException
 import org.springframework.validation.BindingResult
 import org.springframework.validation.FieldError
 import org.springframework.web.bind.MethodArgumentNotValidException
@@ -13,10 +16,14 @@ import spock.lang.Specification
 import spock.lang.Subject
 import spock.lang.Unroll
 
+import java.sql.SQLTransientConnectionException
+
 class GlobalExceptionHandlerSpec extends Specification {
 
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
     @Subject
-    GlobalExceptionHandler handler = new GlobalExceptionHandler()
+    GlobalExceptionHandler handler = new GlobalExceptionHandler(new PaymentMetrics(meterRegistry))
 
     HttpServletRequest request = Mock()
 
@@ -105,6 +112,21 @@ class GlobalExceptionHandlerSpec extends Specification {
         response.body.message.contains("currency")
     }
 
+    def "should map unavailable database connections to 503"() {
+        given:
+        def exception = new CannotCreateTransactionException("Could not open JPA EntityManager for transaction",
+            new SQLTransientConnectionException("Too many callers waiting for a database connection"))
+
+        when:
+        def response = handler.handleDatabaseUnavailable(exception, request)
+
+        then:
+        response.statusCode == HttpStatus.SERVICE_UNAVAILABLE
+        response.body.status == 503
+        response.body.errorCode == "SERVICE_UNAVAILABLE"
+        response.body.numericCode == 5002
+    }
+
     def "should handle generic Exception"() {
         given:
         def exception = new RuntimeException("Something went wrong")
@@ -119,4 +141,14 @@ class GlobalExceptionHandlerSpec extends Specification {
         response.body.numericCode == 5001
         response.body.message == "An unexpected error occurred"
     }
+
+    def "should count error responses by error code"() {
+        when:
+        handler.handlePaymentException(new PaymentException(ErrorCode.INSUFFICIENT_BALANCE, "Test message"), request)
+        handler.handlePaymentException(new PaymentException(ErrorCode.INSUFFICIENT_BALANCE, "Test message"), request)
+
+        then:
+        meterRegistry.get("payment.errors").tags("source", "api", "code", "INSUFFICIENT_BALANCE").counter().count() == 2
+        meterRegistry.get("payment.errors").tags("source", "api", "code", "SAME_ACCOUNT").counter().count() == 0
+    }
 }
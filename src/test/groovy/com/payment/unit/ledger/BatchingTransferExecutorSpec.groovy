@@ -0,0 +1,116 @@
+package com.payment.unit.ledger
+
+import com.payment.config.LedgerProperties
+import com.payment.exception.ErrorCode
+import com.payment.ledger.BatchTransferProcessor
+import com.payment.ledger.BatchingTransferExecutor
+import com.payment.temporal.activity.TransferResult
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+
+class BatchingTransferExecutorSpec extends Specification {
+
+    BatchTransferProcessor processor = Mock()
+
+    @Subject
+    BatchingTransferExecutor executor = new BatchingTransferExecutor(processor, new LedgerProperties(
+            LedgerProperties.Engine.BATCHING,
+            new LedgerProperties.Batch(3, Duration.ofSeconds(2), Duration.ofSeconds(5)),
+            new LedgerProperties.Lanes(false, 8, 1000, Duration.ofSeconds(8))))
+
+    def setup() {
+        executor.start()
+    }
+
+    def cleanup() {
+        executor.stop()
+    }
+
+    def "should apply concurrent transfers in one batch"() {
+        given:
+        def paymentIds = (1..3).collect { UUID.randomUUID() }
+
+        when:
+        def results = paymentIds
+                .collect { id -> CompletableFuture.supplyAsync { executor.execute(id) } }
+                *.join()
+
+        then:
+        1 * processor.process({ it as Set == paymentIds as Set }) >> { List<UUID> ids ->
+            ids.collectEntries { [(it): TransferResult.success()] }
+        }
+
+        and:
+        results.every { it.successful() }
+    }
+
+    def "should queue all transfers of one caller at once"() {
+        given:
+        def paymentIds = (1..5).collect { UUID.randomUUID() }
+
+        when:
+        def results = executor.executeAll(paymentIds)
+
+        then: "two batches of at most three instead of one batch window per payment"
+        1 * processor.process(paymentIds[0..2]) >> { List<UUID> ids ->
+            ids.collectEntries { [(it): TransferResult.success()] }
+        }
+        1 * processor.process(paymentIds[3..4]) >> { List<UUID> ids ->
+            [(ids[0]): TransferResult.success(), (ids[1]): TransferResult.alreadyProcessed()]
+        }
+
+        and:
+        results*.successful() == [true] * 5
+    }
+
+    def "should isolate per-payment failures within a batch"() {
+        given:
+        def ok = UUID.randomUUID()
+        def broke = UUID.randomUUID()
+        def other = UUID.randomUUID()
+
+        when:
+        def futures = [ok, broke, other].collectEntries { id -> [(id): CompletableFuture.supplyAsync { executor.execute(id) }] }
+
+        then:
+        1 * processor.process(_) >> [
+                (ok)    : TransferResult.success(),
+                (broke) : TransferResult.failure(ErrorCode.INSUFFICIENT_BALANCE, "Insufficient balance"),
+                (other) : TransferResult.success()
+        ]
+
+        and:
+        futures[ok].join().successful()
+        !futures[broke].join().successful()
+        futures[broke].join().errorCode() == "INSUFFICIENT_BALANCE"
+        futures[other].join().successful()
+    }
+
+    def "should fail callers whose payment does not exist"() {
+        given:
+        def paymentId = UUID.randomUUID()
+        processor.process(_) >> [:]
+
+        when:
+        executor.execute(paymentId)
+
+        then:
+        def ex = thrown(IllegalStateException)
+        ex.message == "Payment not found: " + paymentId
+    }
+
+    def "should propagate technical failures of the batch to every caller"() {
+        given:
+        processor.process(_) >> { throw new IllegalStateException("database down") }
+
+        when:
+        executor.execute(UUID.randomUUID())
+
+        then:
+        def ex = thrown(IllegalStateException)
+        ex.message == "database down"
+    }
+}
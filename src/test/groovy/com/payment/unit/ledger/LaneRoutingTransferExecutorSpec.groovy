@@ -0,0 +1,184 @@
+package com.payment.unit.ledger
+
+import com.payment.config.LedgerProperties
+import com.payment.ledger.LaneRoutingTransferExecutor
+import com.payment.ledger.TransferExecutor
+import com.payment.observability.PaymentTracing
+import com.payment.repository.PaymentRepository
+import com.payment.temporal.activity.TransferResult
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import io.micrometer.tracing.Tracer
+import io.micrometer.tracing.propagation.Propagator
+import org.slf4j.MDC
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class LaneRoutingTransferExecutorSpec extends Specification {
+
+    PaymentRepository paymentRepository = Mock()
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
+    LaneRoutingTransferExecutor executor
+
+    def cleanup() {
+        executor?.stop()
+    }
+
+    def "should run transfers of the same sender one at a time"() {
+        given:
+        def senderId = UUID.randomUUID()
+        def paymentIds = (1..10).collect { UUID.randomUUID() }
+        paymentRepository.findSenderAccountIdById(_) >> Optional.of(senderId)
+        def running = new AtomicInteger()
+        def maxRunning = new AtomicInteger()
+        executor = lanes(4, { UUID id ->
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max)
+            Thread.sleep(5)
+            running.decrementAndGet()
+            TransferResult.success()
+        })
+
+        when:
+        def results = paymentIds.collect { id -> CompletableFuture.supplyAsync { executor.execute(id) } }*.join()
+
+        then:
+        results.every { it.successful() }
+        maxRunning.get() == 1
+        meterRegistry.get("payment.ledger.lane.wait").timer().count() == 10
+    }
+
+    def "should run transfers of different senders in parallel"() {
+        given:
+        def senders = [UUID.randomUUID(), UUID.randomUUID()]
+        // pick two senders that map to different lanes
+        while (Math.floorMod(senders[0].hashCode(), 2) == Math.floorMod(senders[1].hashCode(), 2)) {
+            senders[1] = UUID.randomUUID()
+        }
+        def payments = [UUID.randomUUID(), UUID.randomUUID()]
+        paymentRepository.findSenderAccountIdById(payments[0]) >> Optional.of(senders[0])
+        paymentRepository.findSenderAccountIdById(payments[1]) >> Optional.of(senders[1])
+        def bothRunning = new CountDownLatch(2)
+        executor = lanes(2, { UUID id ->
+            bothRunning.countDown()
+            bothRunning.await(5, TimeUnit.SECONDS) ? TransferResult.success() : TransferResult.alreadyProcessed()
+        })
+
+        when:
+        def results = payments.collect { id -> CompletableFuture.supplyAsync { executor.execute(id) } }*.join()
+
+        then:
+        results.every { it.successful() }
+        bothRunning.count == 0
+    }
+
+    def "should hand unknown payments straight to the engine"() {
+        given:
+        def paymentId = UUID.randomUUID()
+        paymentRepository.findSenderAccountIdById(paymentId) >> Optional.empty()
+        executor = lanes(2, { UUID id -> throw new IllegalStateException("Payment not found: " + id) })
+
+        when:
+        executor.execute(paymentId)
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message == "Payment not found: " + paymentId
+    }
+
+    def "should carry the caller's MDC onto the lane and clear it afterwards"() {
+        given:
+        paymentRepository.findSenderAccountIdById(_) >> Optional.of(UUID.randomUUID())
+        def seen = []
+        executor = lanes(1, { UUID id ->
+            seen << MDC.get("paymentId")
+            TransferResult.success()
+        })
+        def first = UUID.randomUUID()
+
+        when:
+        CompletableFuture.runAsync {
+            MDC.put("paymentId", first.toString())
+            try {
+                executor.execute(first)
+            } finally {
+                MDC.clear()
+            }
+        }.join()
+        CompletableFuture.runAsync { executor.execute(UUID.randomUUID()) }.join()
+
+        then:
+        seen == [first.toString(), null]
+    }
+
+    def "should reject transfers beyond the queue capacity"() {
+        given:
+        paymentRepository.findSenderAccountIdById(_) >> Optional.of(UUID.randomUUID())
+        def release = new CountDownLatch(1)
+        def started = new CountDownLatch(1)
+        executor = lanes(1, 1, { UUID id ->
+            started.countDown()
+            release.await(5, TimeUnit.SECONDS)
+            TransferResult.success()
+        })
+        def running = CompletableFuture.supplyAsync { executor.execute(UUID.randomUUID()) }
+        started.await(5, TimeUnit.SECONDS)
+        def queued = CompletableFuture.supplyAsync { executor.execute(UUID.randomUUID()) }
+        while (meterRegistry.get("payment.ledger.lane.depth").gauge().value() < 2) {
+            Thread.sleep(1)
+        }
+
+        when:
+        executor.execute(UUID.randomUUID())
+
+        then:
+        def e = thrown(IllegalStateException)
+        e.message.startsWith("Ledger lane full")
+
+        cleanup:
+        release.countDown()
+        running.join()
+        queued.join()
+    }
+
+    def "should refuse to run in front of the batching engine"() {
+        when:
+        new LaneRoutingTransferExecutor({ UUID id -> TransferResult.success() } as TransferExecutor, paymentRepository,
+                tracing(), properties(LedgerProperties.Engine.BATCHING, 2, 1000), meterRegistry)
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "should report lane depth per lane"() {
+        given:
+        executor = lanes(3, { UUID id -> TransferResult.success() })
+
+        expect:
+        meterRegistry.get("payment.ledger.lane.depth").gauges().size() == 3
+    }
+
+    private LaneRoutingTransferExecutor lanes(int count, Closure<TransferResult> engine) {
+        lanes(count, 1000, engine)
+    }
+
+    private LaneRoutingTransferExecutor lanes(int count, int queueCapacity, Closure<TransferResult> engine) {
+        new LaneRoutingTransferExecutor(engine as TransferExecutor, paymentRepository, tracing(),
+                properties(LedgerProperties.Engine.LOCKING, count, queueCapacity), meterRegistry)
+    }
+
+    private static LedgerProperties properties(LedgerProperties.Engine engine, int count, int queueCapacity) {
+        new LedgerProperties(
+                engine,
+                new LedgerProperties.Batch(200, Duration.ofMillis(5), Duration.ofSeconds(8)),
+                new LedgerProperties.Lanes(true, count, queueCapacity, Duration.ofSeconds(5)))
+    }
+
+    private static PaymentTracing tracing() {
+        new PaymentTracing(Tracer.NOOP, Propagator.NOOP)
+    }
+}
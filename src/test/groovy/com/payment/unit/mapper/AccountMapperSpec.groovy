@@ -0,0 +1,26 @@
+package com.payment.unit.mapper
+
+import com.payment.mapper.AccountMapper
+import com.payment.model.Account
+import com.payment.model.Money
+import spock.lang.Specification
+import spock.lang.Subject
+
+class AccountMapperSpec extends Specification {
+
+    @Subject
+    AccountMapper mapper = new AccountMapper()
+
+    def "should map account to response with plain balance"() {
+        given:
+        def account = new Account(UUID.randomUUID(), Money.of(new BigDecimal("1.5E+3"), "EUR"))
+
+        when:
+        def response = mapper.toResponse(account)
+
+        then:
+        response.accountId == account.id
+        response.balance == "1500.00"
+        response.currency == "EUR"
+    }
+}
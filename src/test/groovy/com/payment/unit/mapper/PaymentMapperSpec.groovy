@@ -0,0 +1,72 @@
+package com.payment.unit.mapper
+
+import com.payment.exception.ErrorCode
+import com.payment.mapper.PaymentMapper
+import com.payment.model.Money
+import com.payment.model.Payment
+import com.payment.model.PaymentStatus
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Instant
+import java.time.ZoneOffset
+
+class PaymentMapperSpec extends Specification {
+
+    @Subject
+    PaymentMapper mapper = new PaymentMapper()
+
+    def "should map payment to response"() {
+        given:
+        def payment = Payment.create("key-1", UUID.randomUUID(), UUID.randomUUID(), Money.of(new BigDecimal("1E+2"), "EUR"))
+        payment.markFailed(ErrorCode.INSUFFICIENT_BALANCE, "Not enough funds")
+        def createdAt = Instant.parse("2024-01-15T10:30:00.123456Z")
+        setField(payment, "createdAt", createdAt)
+
+        when:
+        def response = mapper.toResponse(payment)
+
+        then:
+        response.paymentId == payment.id
+        response.senderAccountId == payment.senderAccountId
+        response.receiverAccountId == payment.receiverAccountId
+        response.amount == "100.00"
+        response.currency == "EUR"
+        response.status == com.payment.api.model.PaymentStatus.FAILED
+        response.errorCode == "INSUFFICIENT_BALANCE"
+        response.errorMessage == "Not enough funds"
+        response.createdAt == createdAt.atOffset(ZoneOffset.UTC)
+        response.updatedAt == null
+    }
+
+    def "should map payment to accepted response"() {
+        given:
+        def payment = Payment.create("key-1", UUID.randomUUID(), UUID.randomUUID(), Money.parse("10.00", "EUR"))
+
+        when:
+        def response = mapper.toAcceptedResponse(payment)
+
+        then:
+        response.paymentId == payment.id
+        response.status == com.payment.api.model.PaymentStatus.PENDING
+        response.message == null
+    }
+
+    def "should map #status to the API status of the same name"() {
+        given:
+        def payment = Payment.create("key-1", UUID.randomUUID(), UUID.randomUUID(), Money.parse("10.00", "EUR"))
+        setField(payment, "status", status)
+
+        expect:
+        mapper.toResponse(payment).status.name() == status.name()
+
+        where:
+        status << PaymentStatus.values()
+    }
+
+    private static void setField(Payment payment, String name, Object value) {
+        def field = Payment.getDeclaredField(name)
+        field.accessible = true
+        field.set(payment, value)
+    }
+}
@@ -4,6 +4,8 @@ import com.payment.exception.ErrorCode
 import com.payment.exception.PaymentException
 import com.payment.exception.business.InsufficientBalanceException
 import com.payment.model.Account
+import com.payment.model.AccountBalanceBucket
+import com.payment.model.Money
 import spock.lang.Specification
 
 class AccountSpec extends Specification {
@@ -11,47 +13,46 @@ class AccountSpec extends Specification {
     def "should create account with initial values"() {
         given:
         def id = UUID.randomUUID()
-        def balance = new BigDecimal("1000.00")
-        def currency = "EUR"
+        def balance = Money.parse("1000.00", "EUR")
 
         when:
-        def account = new Account(id, balance, currency)
+        def account = new Account(id, balance)
 
         then:
         account.id == id
         account.balance == balance
-        account.currency == currency
+        account.currency == "EUR"
     }
 
     def "should debit account when sufficient balance"() {
         given:
-        def account = new Account(UUID.randomUUID(), new BigDecimal("100.00"), "EUR")
+        def account = new Account(UUID.randomUUID(), Money.parse("100.00", "EUR"))
 
         when:
-        account.debit(new BigDecimal("30.00"))
+        account.debit(Money.parse("30.00", "EUR"))
 
         then:
-        account.balance == new BigDecimal("70.00")
+        account.balance.toBigDecimal() == new BigDecimal("70.00")
     }
 
     def "should debit exact balance to zero"() {
         given:
-        def account = new Account(UUID.randomUUID(), new BigDecimal("100.00"), "EUR")
+        def account = new Account(UUID.randomUUID(), Money.parse("100.00", "EUR"))
 
         when:
-        account.debit(new BigDecimal("100.00"))
+        account.debit(Money.parse("100.00", "EUR"))
 
         then:
-        account.balance == BigDecimal.ZERO
+        account.balance.toBigDecimal() == BigDecimal.ZERO
     }
 
     def "should throw PaymentException when insufficient balance"() {
         given:
         def accountId = UUID.randomUUID()
-        def account = new Account(accountId, new BigDecimal("50.00"), "EUR")
+        def account = new Account(accountId, Money.parse("50.00", "EUR"))
 
         when:
-        account.debit(new BigDecimal("100.00"))
+        account.debit(Money.parse("100.00", "EUR"))
 
         then:
         def ex = thrown(InsufficientBalanceException)
@@ -62,49 +63,101 @@ class AccountSpec extends Specification {
 
     def "should credit account"() {
         given:
-        def account = new Account(UUID.randomUUID(), new BigDecimal("100.00"), "EUR")
+        def account = new Account(UUID.randomUUID(), Money.parse("100.00", "EUR"))
 
         when:
-        account.credit(new BigDecimal("50.00"))
+        account.credit(Money.parse("50.00", "EUR"))
 
         then:
-        account.balance == new BigDecimal("150.00")
+        account.balance.toBigDecimal() == new BigDecimal("150.00")
     }
 
     def "should credit zero balance account"() {
         given:
-        def account = new Account(UUID.randomUUID(), BigDecimal.ZERO, "EUR")
+        def account = new Account(UUID.randomUUID(), Money.zero("EUR"))
 
         when:
-        account.credit(new BigDecimal("100.00"))
+        account.credit(Money.parse("100.00", "EUR"))
 
         then:
-        account.balance == new BigDecimal("100.00")
+        account.balance.toBigDecimal() == new BigDecimal("100.00")
     }
 
     def "should handle multiple debit operations"() {
         given:
-        def account = new Account(UUID.randomUUID(), new BigDecimal("100.00"), "EUR")
+        def account = new Account(UUID.randomUUID(), Money.parse("100.00", "EUR"))
 
         when:
-        account.debit(new BigDecimal("30.00"))
-        account.debit(new BigDecimal("20.00"))
-        account.debit(new BigDecimal("10.00"))
+        account.debit(Money.parse("30.00", "EUR"))
+        account.debit(Money.parse("20.00", "EUR"))
+        account.debit(Money.parse("10.00", "EUR"))
 
         then:
-        account.balance == new BigDecimal("40.00")
+        account.balance.toBigDecimal() == new BigDecimal("40.00")
     }
 
     def "should handle mixed debit and credit operations"() {
         given:
-        def account = new Account(UUID.randomUUID(), new BigDecimal("100.00"), "EUR")
+        def account = new Account(UUID.randomUUID(), Money.parse("100.00", "EUR"))
 
         when:
-        account.debit(new BigDecimal("30.00"))
-        account.credit(new BigDecimal("50.00"))
-        account.debit(new BigDecimal("20.00"))
+        account.debit(Money.parse("30.00", "EUR"))
+        account.credit(Money.parse("50.00", "EUR"))
+        account.debit(Money.parse("20.00", "EUR"))
 
         then:
-        account.balance == new BigDecimal("100.00")
+        account.balance.toBigDecimal() == new BigDecimal("100.00")
+    }
+
+    def "should debit striped account from main balance without touching buckets when sufficient"() {
+        given:
+        def account = new Account(UUID.randomUUID(), Money.parse("100.00", "EUR"), 4)
+        def bucketsLoaded = false
+
+        when:
+        account.debit(Money.parse("60.00", "EUR"), { bucketsLoaded = true; [] })
+
+        then:
+        account.balance.toBigDecimal() == new BigDecimal("40.00")
+        !bucketsLoaded
+    }
+
+    def "should sweep buckets into main balance when debit exceeds it"() {
+        given:
+        def accountId = UUID.randomUUID()
+        def account = new Account(accountId, Money.parse("10.00", "EUR"), 2)
+        def buckets = account.createBuckets()
+        buckets[0].credit(Money.parse("30.00", "EUR"))
+        buckets[1].credit(Money.parse("20.00", "EUR"))
+
+        when:
+        account.debit(Money.parse("50.00", "EUR"), { buckets })
+
+        then:
+        account.balance.toBigDecimal() == new BigDecimal("10.00")
+        buckets.every { it.balance == 0 }
+    }
+
+    def "should report aggregated balance when striped account is short after sweep"() {
+        given:
+        def account = new Account(UUID.randomUUID(), Money.parse("10.00", "EUR"), 1)
+        def buckets = account.createBuckets()
+        buckets[0].credit(Money.parse("5.00", "EUR"))
+
+        when:
+        account.debit(Money.parse("100.00", "EUR"), { buckets })
+
+        then:
+        def ex = thrown(InsufficientBalanceException)
+        ex.currentBalance.toBigDecimal() == new BigDecimal("15.00")
+    }
+
+    def "should pick a stable bucket for a payment"() {
+        given:
+        def paymentId = UUID.randomUUID()
+
+        expect:
+        AccountBalanceBucket.indexFor(paymentId, 8) == AccountBalanceBucket.indexFor(paymentId, 8)
+        (0..<8).contains(AccountBalanceBucket.indexFor(paymentId, 8))
     }
 }
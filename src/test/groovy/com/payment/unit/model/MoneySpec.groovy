@@ -0,0 +1,107 @@
+package com.payment.unit.model
+
+import com.payment.model.Money
+import spock.lang.Specification
+
+class MoneySpec extends Specification {
+
+    def "should parse #text to #minorUnits minor units"() {
+        expect:
+        Money.parse(text, "EUR") == new Money(minorUnits, "EUR")
+
+        where:
+        text                   || minorUnits
+        "0"                    || 0L
+        "150"                  || 15000L
+        "150.5"                || 15050L
+        "150.50"               || 15050L
+        "0.01"                 || 1L
+        "-12.34"               || -1234L
+        "92233720368547758.07" || Long.MAX_VALUE
+    }
+
+    def "should reject #text"() {
+        when:
+        Money.parse(text, "EUR")
+
+        then:
+        thrown(NumberFormatException)
+
+        where:
+        text << ["", "-", ".50", "150.", "150.123", "1.5E+3", "12a.00", "1.2.3"]
+    }
+
+    def "should reject amounts that do not fit a long"() {
+        when:
+        Money.parse("92233720368547758.08", "EUR")
+
+        then:
+        thrown(ArithmeticException)
+    }
+
+    def "should convert from BigDecimal with at most two decimals"() {
+        expect:
+        Money.of(new BigDecimal("1.5E+3"), "EUR").minorUnits() == 150000L
+        Money.of(new BigDecimal("0.1"), "EUR").minorUnits() == 10L
+
+        when:
+        Money.of(new BigDecimal("0.001"), "EUR")
+
+        then:
+        thrown(ArithmeticException)
+    }
+
+    def "should round trip through BigDecimal"() {
+        given:
+        def money = Money.parse("1234.56", "EUR")
+
+        expect:
+        money.toBigDecimal() == new BigDecimal("1234.56")
+        money.toBigDecimal().scale() == 2
+        Money.of(money.toBigDecimal(), "EUR") == money
+    }
+
+    def "should add and subtract in the same currency"() {
+        given:
+        def a = Money.parse("10.25", "EUR")
+        def b = Money.parse("0.75", "EUR")
+
+        expect:
+        a.plus(b) == Money.parse("11.00", "EUR")
+        a.minus(b) == Money.parse("9.50", "EUR")
+        b.isLessThan(a)
+        !a.isLessThan(b)
+    }
+
+    def "should fail on overflow"() {
+        when:
+        new Money(Long.MAX_VALUE, "EUR").plus(new Money(1, "EUR"))
+
+        then:
+        thrown(ArithmeticException)
+    }
+
+    def "should reject mixing currencies"() {
+        when:
+        Money.parse("1.00", "EUR").plus(Money.parse("1.00", "USD"))
+
+        then:
+        def ex = thrown(IllegalArgumentException)
+        ex.message.contains("EUR")
+        ex.message.contains("USD")
+    }
+
+    def "should print #minorUnits as #text"() {
+        expect:
+        new Money(minorUnits, "EUR").toString() == text
+
+        where:
+        minorUnits || text
+        0L         || "0.00"
+        5L         || "0.05"
+        15000L     || "150.00"
+        15050L     || "150.50"
+        -5L        || "-0.05"
+        -1234L     || "-12.34"
+    }
+}
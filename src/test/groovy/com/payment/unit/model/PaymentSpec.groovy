@@ -1,6 +1,7 @@
 package com.payment.unit.model
 
 import com.payment.exception.ErrorCode
+import com.payment.model.Money
 import com.payment.model.Payment
 import com.payment.model.PaymentStatus
 import spock.lang.Specification
@@ -13,14 +14,15 @@ class PaymentSpec extends Specification {
     def "should create payment with PENDING status"() {
         when:
         def payment = Payment.create("key-123", senderAccountId, receiverAccountId,
-            new BigDecimal("100.00"), "EUR")
+            Money.parse("100.00", "EUR"))
 
         then:
         payment.id != null
+        payment.id.version() == 7
         payment.idempotencyKey == "key-123"
         payment.senderAccountId == senderAccountId
         payment.receiverAccountId == receiverAccountId
-        payment.amount == new BigDecimal("100.00")
+        payment.amount.toBigDecimal() == new BigDecimal("100.00")
         payment.currency == "EUR"
         payment.status == PaymentStatus.PENDING
         payment.errorCode == null
@@ -30,9 +32,9 @@ class PaymentSpec extends Specification {
     def "should generate unique IDs for different payments"() {
         when:
         def payment1 = Payment.create("key-1", senderAccountId, receiverAccountId,
-            new BigDecimal("100.00"), "EUR")
+            Money.parse("100.00", "EUR"))
         def payment2 = Payment.create("key-2", senderAccountId, receiverAccountId,
-            new BigDecimal("100.00"), "EUR")
+            Money.parse("100.00", "EUR"))
 
         then:
         payment1.id != payment2.id
@@ -41,7 +43,7 @@ class PaymentSpec extends Specification {
     def "should transition to PROCESSING status"() {
         given:
         def payment = Payment.create("key", senderAccountId, receiverAccountId,
-            new BigDecimal("100.00"), "EUR")
+            Money.parse("100.00", "EUR"))
 
         when:
         payment.markProcessing()
@@ -55,7 +57,7 @@ class PaymentSpec extends Specification {
     def "should transition to COMPLETED status"() {
         given:
         def payment = Payment.create("key", senderAccountId, receiverAccountId,
-            new BigDecimal("100.00"), "EUR")
+            Money.parse("100.00", "EUR"))
 
         when:
         payment.markCompleted()
@@ -69,7 +71,7 @@ class PaymentSpec extends Specification {
     def "should transition to FAILED status with error details"() {
         given:
         def payment = Payment.create("key", senderAccountId, receiverAccountId,
-            new BigDecimal("100.00"), "EUR")
+            Money.parse("100.00", "EUR"))
 
         when:
         payment.markFailed(ErrorCode.INSUFFICIENT_BALANCE, "Not enough funds")
@@ -83,7 +85,7 @@ class PaymentSpec extends Specification {
     def "should allow full state transition: PENDING -> PROCESSING -> COMPLETED"() {
         given:
         def payment = Payment.create("key", senderAccountId, receiverAccountId,
-            new BigDecimal("100.00"), "EUR")
+            Money.parse("100.00", "EUR"))
 
         expect:
         payment.status == PaymentStatus.PENDING
@@ -104,7 +106,7 @@ class PaymentSpec extends Specification {
     def "should allow full state transition: PENDING -> PROCESSING -> FAILED"() {
         given:
         def payment = Payment.create("key", senderAccountId, receiverAccountId,
-            new BigDecimal("100.00"), "EUR")
+            Money.parse("100.00", "EUR"))
 
         expect:
         payment.status == PaymentStatus.PENDING
@@ -0,0 +1,44 @@
+package com.payment.unit.model
+
+import com.payment.model.Uuids
+import spock.lang.Specification
+
+class UuidsSpec extends Specification {
+
+    def "should generate version 7 UUIDs with the RFC 9562 variant"() {
+        when:
+        def uuid = Uuids.timeOrdered()
+
+        then:
+        uuid.version() == 7
+        uuid.variant() == 2
+    }
+
+    def "should encode the creation time in the leading 48 bits"() {
+        given:
+        def millis = 1_760_000_000_000L
+
+        when:
+        def uuid = Uuids.timeOrdered(millis)
+
+        then:
+        uuid.mostSignificantBits >>> 16 == millis
+    }
+
+    def "should sort UUIDs from later milliseconds after earlier ones"() {
+        when:
+        def earlier = Uuids.timeOrdered(1_760_000_000_000L)
+        def later = Uuids.timeOrdered(1_760_000_000_001L)
+
+        then:
+        earlier.toString() < later.toString()
+    }
+
+    def "should generate unique UUIDs within the same millisecond"() {
+        when:
+        def uuids = (1..10_000).collect { Uuids.timeOrdered(1_760_000_000_000L) } as Set
+
+        then:
+        uuids.size() == 10_000
+    }
+}
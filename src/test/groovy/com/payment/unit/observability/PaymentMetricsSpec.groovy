@@ -0,0 +1,125 @@
+package com.payment.unit.observability
+
+import com.payment.exception.ErrorCode
+import com.payment.model.PaymentStatus
+import com.payment.observability.PaymentMetrics
+import com.payment.observability.PaymentMetrics.ErrorSource
+import com.payment.observability.PaymentMetrics.LockTarget
+import com.payment.observability.PaymentMetrics.SubmitPhase
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Duration
+
+class PaymentMetricsSpec extends Specification {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
+    @Subject
+    PaymentMetrics metrics = new PaymentMetrics(meterRegistry)
+
+    def cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization()
+        }
+    }
+
+    def "should time consecutive phases as laps"() {
+        given:
+        def start = System.nanoTime()
+
+        when:
+        def next = metrics.recordSubmitPhase(SubmitPhase.IDEMPOTENCY_LOOKUP, start)
+        def end = metrics.recordSubmitPhase(SubmitPhase.VALIDATION, next)
+
+        then:
+        next >= start
+        end >= next
+        submitPhase("idempotency-lookup").count() == 1
+        submitPhase("validation").count() == 1
+        submitPhase("insert").count() == 0
+    }
+
+    def "should time the lock and return what it locked"() {
+        when:
+        def locked = metrics.recordLockWait(LockTarget.ACCOUNT, { Optional.of("account") })
+
+        then:
+        locked == Optional.of("account")
+        meterRegistry.get("payment.ledger.lock.wait").tag("target", "account").timer().count() == 1
+    }
+
+    def "should time the lock when it fails"() {
+        when:
+        metrics.recordLockWait(LockTarget.BUCKET, { throw new IllegalStateException("lock timeout") })
+
+        then:
+        thrown(IllegalStateException)
+        meterRegistry.get("payment.ledger.lock.wait").tag("target", "bucket").timer().count() == 1
+    }
+
+    def "should time the commit of the current transaction"() {
+        given:
+        TransactionSynchronizationManager.initSynchronization()
+
+        when:
+        metrics.recordCommitPhase()
+        def synchronizations = TransactionSynchronizationManager.getSynchronizations()
+        synchronizations*.beforeCommit(false)
+        synchronizations*.afterCompletion(TransactionSynchronization.STATUS_COMMITTED)
+
+        then:
+        meterRegistry.get("payment.transfer.phase").tag("phase", "commit").timer().count() == 1
+    }
+
+    def "should not time a commit that rolled back"() {
+        given:
+        TransactionSynchronizationManager.initSynchronization()
+
+        when:
+        metrics.recordCommitPhase()
+        TransactionSynchronizationManager.getSynchronizations()*.afterCompletion(
+                TransactionSynchronization.STATUS_ROLLED_BACK)
+
+        then:
+        meterRegistry.get("payment.transfer.phase").tag("phase", "commit").timer().count() == 0
+    }
+
+    def "should ignore the commit phase outside a transaction"() {
+        when:
+        metrics.recordCommitPhase()
+
+        then:
+        noExceptionThrown()
+        meterRegistry.get("payment.transfer.phase").tag("phase", "commit").timer().count() == 0
+    }
+
+    def "should count errors per source and code"() {
+        when:
+        metrics.recordError(ErrorSource.LEDGER, ErrorCode.INSUFFICIENT_BALANCE)
+
+        then:
+        meterRegistry.get("payment.errors").tags("source", "ledger", "code", "INSUFFICIENT_BALANCE").counter()
+                .count() == 1
+        meterRegistry.get("payment.errors").tags("source", "api", "code", "INSUFFICIENT_BALANCE").counter()
+                .count() == 0
+    }
+
+    def "should record completion latency of terminal payments only"() {
+        when:
+        metrics.recordCompletion(PaymentStatus.COMPLETED, Duration.ofMillis(120))
+        metrics.recordCompletion(PaymentStatus.PENDING, Duration.ofMillis(120))
+        metrics.recordCompletion(PaymentStatus.FAILED, Duration.ofMillis(-5))
+
+        then:
+        meterRegistry.get("payment.completion.latency").tag("status", "COMPLETED").timer().count() == 1
+        meterRegistry.get("payment.completion.latency").tag("status", "FAILED").timer().count() == 0
+    }
+
+    private submitPhase(String phase) {
+        meterRegistry.get("payment.submit.phase").tag("phase", phase).timer()
+    }
+}
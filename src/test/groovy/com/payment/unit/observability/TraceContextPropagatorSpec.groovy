@@ -0,0 +1,58 @@
+package com.payment.unit.observability
+
+import com.payment.observability.PaymentTracing
+import com.payment.observability.TraceContextPropagator
+import io.micrometer.tracing.Tracer
+import io.micrometer.tracing.propagation.Propagator
+import spock.lang.Specification
+import spock.lang.Subject
+
+class TraceContextPropagatorSpec extends Specification {
+
+    static final String TRACE_PARENT = "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01"
+
+    PaymentTracing tracing = new PaymentTracing(Tracer.NOOP, Propagator.NOOP)
+
+    @Subject
+    TraceContextPropagator propagator = new TraceContextPropagator(tracing)
+
+    def cleanup() {
+        propagator.setCurrentContext(null)
+    }
+
+    def "should round trip the trace parent through a header"() {
+        when:
+        def header = propagator.serializeContext(TRACE_PARENT)
+
+        then:
+        header.keySet() == ["traceparent"] as Set
+        propagator.deserializeContext(header) == TRACE_PARENT
+    }
+
+    def "should not add a header without a trace"() {
+        expect:
+        propagator.serializeContext(null).isEmpty()
+        propagator.deserializeContext([:]) == null
+    }
+
+    def "should hand the propagated trace parent on from workflow and activity threads"() {
+        when:
+        propagator.setCurrentContext(TRACE_PARENT)
+
+        then:
+        propagator.getCurrentContext() == TRACE_PARENT
+        tracing.currentTraceParent() == TRACE_PARENT
+
+        when: "the next task on the thread has no trace"
+        propagator.setCurrentContext(null)
+
+        then:
+        propagator.getCurrentContext() == null
+    }
+
+    def "should run the action in a span without a tracer"() {
+        expect:
+        tracing.inSpan("payment.transfer", TRACE_PARENT, { "done" }) == "done"
+        tracing.inSpan("payment.transfer", { "done" }) == "done"
+    }
+}
@@ -0,0 +1,103 @@
+package com.payment.unit.service
+
+import com.payment.config.AccountCacheProperties
+import com.payment.exception.ResourceNotFoundException
+import com.payment.model.Account
+import com.payment.model.AccountMetadata
+import com.payment.model.Money
+import com.payment.repository.AccountRepository
+import com.payment.service.AccountCache
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+
+import java.time.Duration
+
+class AccountCacheSpec extends Specification {
+
+    AccountRepository accountRepository = Mock()
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
+    def "should load metadata once for existing accounts"() {
+        given:
+        def cache = cache(Duration.ZERO)
+        def accountId = UUID.randomUUID()
+
+        when:
+        def first = cache.get(accountId)
+        def second = cache.exists(accountId)
+
+        then:
+        1 * accountRepository.findById(accountId) >> Optional.of(new Account(accountId, Money.parse("10.00", "EUR"), 4))
+        first.get() == new AccountMetadata(accountId, "EUR", 4)
+        second
+    }
+
+    def "should not cache missing accounts"() {
+        given:
+        def cache = cache(Duration.ZERO)
+        def accountId = UUID.randomUUID()
+
+        when:
+        def before = cache.exists(accountId)
+        def after = cache.exists(accountId)
+
+        then:
+        2 * accountRepository.findById(accountId) >>> [Optional.empty(), Optional.of(new Account(accountId, Money.zero("EUR")))]
+        !before
+        after
+    }
+
+    def "should always load balances when the balance cache is disabled"() {
+        given:
+        def cache = cache(Duration.ZERO)
+        def accountId = UUID.randomUUID()
+        def loads = 0
+
+        when:
+        2.times { cache.balance(accountId, { id -> loads++; new Account(id, Money.parse("1.00", "EUR")) }) }
+
+        then:
+        loads == 2
+        meterRegistry.find("cache.gets").tag("cache", "account.balance").meters().isEmpty()
+    }
+
+    def "should serve balances from memory until invalidated"() {
+        given:
+        def cache = cache(Duration.ofMinutes(1))
+        def accountId = UUID.randomUUID()
+        def loads = 0
+        def loader = { UUID id -> loads++; new Account(id, Money.parse("1.00", "EUR")) }
+
+        when:
+        cache.balance(accountId, loader)
+        cache.balance(accountId, loader)
+        cache.invalidate(accountId)
+        cache.balance(accountId, loader)
+
+        then:
+        loads == 2
+        meterRegistry.get("cache.gets").tags("cache", "account.balance", "result", "hit").functionCounter().count() == 1
+    }
+
+    def "should pass loader exceptions on without caching"() {
+        given:
+        def cache = cache(Duration.ofMinutes(1))
+        def accountId = UUID.randomUUID()
+
+        when:
+        cache.balance(accountId, { id -> throw ResourceNotFoundException.accountNotFound(id) })
+
+        then:
+        thrown(ResourceNotFoundException)
+
+        when:
+        def account = cache.balance(accountId, { id -> new Account(id, Money.parse("10.00", "EUR")) })
+
+        then:
+        account.balance.toBigDecimal() == BigDecimal.TEN
+    }
+
+    private AccountCache cache(Duration balanceTtl) {
+        new AccountCache(accountRepository, new AccountCacheProperties(100, balanceTtl), meterRegistry)
+    }
+}
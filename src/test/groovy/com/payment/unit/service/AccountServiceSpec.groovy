@@ -1,22 +1,42 @@
 package com.payment.unit.service
 
 import com.payment.api.model.AccountRequest
+import com.payment.config.AccountCacheProperties
+import com.payment.config.ReadReplicaProperties
+import com.payment.datasource.ReplicaReads
 import com.payment.exception.ErrorCode
 import com.payment.exception.ResourceNotFoundException
+import com.payment.exception.validation.PaymentValidationException
+import com.payment.mapper.AccountMapper
 import com.payment.model.Account
+import com.payment.model.AccountBalanceBucket
+import com.payment.model.Money
+import com.payment.repository.AccountBalanceBucketRepository
 import com.payment.repository.AccountRepository
+import com.payment.repository.AccountStatisticsRepository
+import com.payment.repository.AccountStatisticsRepository.AccountDailyStatistics
+import com.payment.service.AccountCache
 import com.payment.service.AccountService
-import org.modelmapper.ModelMapper
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import spock.lang.Specification
 import spock.lang.Subject
 
+import java.time.Duration
+import java.time.LocalDate
+import java.time.ZoneOffset
+
 class AccountServiceSpec extends Specification {
 
     AccountRepository accountRepository = Mock()
-    ModelMapper modelMapper = new ModelMapper()
+    AccountBalanceBucketRepository bucketRepository = Mock()
+    AccountStatisticsRepository statisticsRepository = Mock()
+    AccountMapper accountMapper = new AccountMapper()
+    AccountCache accountCache = new AccountCache(accountRepository, new AccountCacheProperties(100, Duration.ZERO), new SimpleMeterRegistry())
 
     @Subject
-    AccountService accountService = new AccountService(accountRepository, modelMapper)
+    AccountService accountService = new AccountService(accountRepository, bucketRepository, statisticsRepository, accountCache,
+            accountMapper,
+            new ReplicaReads(new ReadReplicaProperties(false, null, null, null, true), new SimpleMeterRegistry()))
 
     def "should create account with provided id"() {
         given:
@@ -32,7 +52,7 @@ class AccountServiceSpec extends Specification {
         then:
         1 * accountRepository.save({ Account a ->
             a.id == accountId &&
-                    a.balance == new BigDecimal("1000.00") &&
+                    a.balance.toBigDecimal() == new BigDecimal("1000.00") &&
                     a.currency == "EUR"
         })
 
@@ -54,7 +74,7 @@ class AccountServiceSpec extends Specification {
         then:
         1 * accountRepository.save({ Account a ->
             a.id != null &&
-                    a.balance == new BigDecimal("500.00") &&
+                    a.balance.toBigDecimal() == new BigDecimal("500.00") &&
                     a.currency == "USD"
         })
 
@@ -64,10 +84,40 @@ class AccountServiceSpec extends Specification {
         response.currency == "USD"
     }
 
+    def "should create balance buckets for striped account"() {
+        given:
+        def request = new AccountRequest()
+        request.setBalance("0.00")
+        request.setCurrency("EUR")
+        request.setStripeCount(4)
+
+        when:
+        accountService.createAccount(request)
+
+        then:
+        1 * accountRepository.save({ Account a -> a.stripeCount == 4 })
+        1 * bucketRepository.saveAll({ List<AccountBalanceBucket> buckets ->
+            buckets*.id*.bucketIndex == [0, 1, 2, 3]
+        })
+    }
+
+    def "should not create balance buckets for regular account"() {
+        given:
+        def request = new AccountRequest()
+        request.setBalance("10.00")
+        request.setCurrency("EUR")
+
+        when:
+        accountService.createAccount(request)
+
+        then:
+        0 * bucketRepository.saveAll(_)
+    }
+
     def "should return balance for existing account"() {
         given:
         def accountId = UUID.randomUUID()
-        def account = new Account(accountId, new BigDecimal("1500.50"), "EUR")
+        def account = new Account(accountId, Money.parse("1500.50", "EUR"))
 
         when:
         def response = accountService.getAccount(accountId)
@@ -81,6 +131,23 @@ class AccountServiceSpec extends Specification {
         response.currency == "EUR"
     }
 
+    def "should return aggregated balance for striped account"() {
+        given:
+        def accountId = UUID.randomUUID()
+        def account = new Account(accountId, Money.parse("100.00", "EUR"), 8)
+
+        when:
+        def response = accountService.getAccount(accountId)
+
+        then:
+        1 * accountRepository.findById(accountId) >> Optional.of(account)
+        1 * accountRepository.findTotalBalanceById(accountId) >> Optional.of(new BigDecimal("350.50"))
+        0 * bucketRepository.sumBalanceByAccountId(_)
+
+        and:
+        response.balance == "350.50"
+    }
+
     def "should throw ResourceNotFoundException for non-existent account"() {
         given:
         def accountId = UUID.randomUUID()
@@ -95,4 +162,84 @@ class AccountServiceSpec extends Specification {
         def ex = thrown(ResourceNotFoundException)
         ex.errorCode == ErrorCode.ACCOUNT_NOT_FOUND
     }
+
+    def "should return daily statistics with per-currency totals"() {
+        given:
+        def accountId = UUID.randomUUID()
+        def from = LocalDate.parse("2026-03-01")
+        def to = LocalDate.parse("2026-03-31")
+
+        when:
+        def response = accountService.getStatistics(accountId, from, to)
+
+        then:
+        1 * accountRepository.findById(accountId) >> Optional.of(new Account(accountId, Money.parse("10.00", "EUR")))
+        1 * statisticsRepository.findDaily(accountId, from, to) >> [
+                new AccountDailyStatistics(accountId, "EUR", from, 2, new BigDecimal("30.00"), 1, new BigDecimal("5.00")),
+                new AccountDailyStatistics(accountId, "USD", from, 0, BigDecimal.ZERO, 1, new BigDecimal("7.50")),
+                new AccountDailyStatistics(accountId, "EUR", to, 1, new BigDecimal("20.00"), 0, BigDecimal.ZERO)
+        ]
+
+        and:
+        response.accountId == accountId
+        response.from == from
+        response.to == to
+        response.days*.currency == ["EUR", "USD", "EUR"]
+        response.days[0].sentAmount == "30.00"
+        response.totals*.currency == ["EUR", "USD"]
+        response.totals[0].sentCount == 3
+        response.totals[0].sentAmount == "50.00"
+        response.totals[0].receivedCount == 1
+        response.totals[0].receivedAmount == "5.00"
+        response.totals[1].sentAmount == "0.00"
+        response.totals[1].receivedAmount == "7.50"
+    }
+
+    def "should default the statistics range to the last 30 days"() {
+        given:
+        def accountId = UUID.randomUUID()
+        def today = LocalDate.now(ZoneOffset.UTC)
+
+        when:
+        def response = accountService.getStatistics(accountId, null, null)
+
+        then:
+        1 * accountRepository.findById(accountId) >> Optional.of(new Account(accountId, Money.parse("10.00", "EUR")))
+        1 * statisticsRepository.findDaily(accountId, today.minusDays(29), today) >> []
+
+        and:
+        response.totals.isEmpty()
+        response.days.isEmpty()
+    }
+
+    def "should reject a statistics range that is reversed or longer than 366 days"() {
+        when:
+        accountService.getStatistics(UUID.randomUUID(), LocalDate.parse(from), LocalDate.parse(to))
+
+        then:
+        def ex = thrown(PaymentValidationException)
+        ex.errorCode == ErrorCode.INVALID_DATE_RANGE
+        0 * statisticsRepository._
+
+        where:
+        from         | to
+        "2026-03-02" | "2026-03-01"
+        "2025-01-01" | "2026-01-02"
+    }
+
+    def "should throw ResourceNotFoundException for statistics of a non-existent account"() {
+        given:
+        def accountId = UUID.randomUUID()
+
+        when:
+        accountService.getStatistics(accountId, null, null)
+
+        then:
+        1 * accountRepository.findById(accountId) >> Optional.empty()
+        0 * statisticsRepository._
+
+        and:
+        def ex = thrown(ResourceNotFoundException)
+        ex.errorCode == ErrorCode.ACCOUNT_NOT_FOUND
+    }
 }
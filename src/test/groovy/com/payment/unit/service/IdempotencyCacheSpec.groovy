@@ -0,0 +1,73 @@
+package com.payment.unit.service
+
+import com.payment.config.IdempotencyCacheProperties
+import com.payment.model.PaymentStatus
+import com.payment.service.IdempotencyCache
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Duration
+
+class IdempotencyCacheSpec extends Specification {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
+    @Subject
+    IdempotencyCache cache = new IdempotencyCache(new IdempotencyCacheProperties(100, Duration.ofMinutes(1)), meterRegistry)
+
+    def "should return cached payment for a known key"() {
+        given:
+        def paymentId = UUID.randomUUID()
+        cache.put("key-1", paymentId, PaymentStatus.PENDING)
+
+        expect:
+        cache.get("key-1").get() == new IdempotencyCache.Entry(paymentId, PaymentStatus.PENDING)
+        cache.get("key-2").isEmpty()
+    }
+
+    def "should not replace a terminal status with a late one"() {
+        given:
+        def paymentId = UUID.randomUUID()
+        cache.put("key-1", paymentId, PaymentStatus.PENDING)
+        cache.statusChanged("key-1", paymentId, PaymentStatus.COMPLETED)
+
+        when:
+        cache.put("key-1", paymentId, PaymentStatus.PENDING)
+
+        then:
+        cache.get("key-1").get().status() == PaymentStatus.COMPLETED
+    }
+
+    def "should only update statuses of keys already cached"() {
+        when:
+        cache.statusChanged("key-1", UUID.randomUUID(), PaymentStatus.COMPLETED)
+
+        then:
+        cache.get("key-1").isEmpty()
+    }
+
+    def "should forget an invalidated key"() {
+        given:
+        cache.put("key-1", UUID.randomUUID(), PaymentStatus.PENDING)
+
+        when:
+        cache.invalidate("key-1")
+
+        then:
+        cache.get("key-1").isEmpty()
+    }
+
+    def "should record hits and misses"() {
+        given:
+        cache.put("key-1", UUID.randomUUID(), PaymentStatus.PENDING)
+
+        when:
+        cache.get("key-1")
+        cache.get("key-2")
+
+        then:
+        meterRegistry.get("cache.gets").tag("cache", "payment.idempotency").tag("result", "hit").functionCounter().count() == 1
+        meterRegistry.get("cache.gets").tag("cache", "payment.idempotency").tag("result", "miss").functionCounter().count() == 1
+    }
+}
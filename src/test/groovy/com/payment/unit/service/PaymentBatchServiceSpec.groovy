@@ -0,0 +1,173 @@
+package com.payment.unit.service
+
+import com.payment.api.model.PaymentBatchItem
+import com.payment.api.model.PaymentBatchItemOutcome
+import com.payment.api.model.PaymentRequest
+import com.payment.model.Money
+import com.payment.model.Payment
+import com.payment.model.PaymentStatus
+import com.payment.observability.PaymentTracing
+import com.payment.repository.AccountRepository
+import com.payment.repository.PaymentRepository
+import com.payment.service.IdempotencyCache
+import com.payment.service.PaymentBatchService
+import com.payment.service.PaymentDispatcher
+import io.micrometer.tracing.Tracer
+import io.micrometer.tracing.propagation.Propagator
+import spock.lang.Specification
+import spock.lang.Subject
+
+class PaymentBatchServiceSpec extends Specification {
+
+    PaymentRepository paymentRepository = Mock()
+    AccountRepository accountRepository = Mock()
+    PaymentDispatcher paymentDispatcher = Mock()
+    IdempotencyCache idempotencyCache = Mock()
+
+    @Subject
+    PaymentBatchService service = new PaymentBatchService(paymentRepository, accountRepository, paymentDispatcher,
+            idempotencyCache, new PaymentTracing(Tracer.NOOP, Propagator.NOOP))
+
+    def sender = UUID.randomUUID()
+    def receiver = UUID.randomUUID()
+
+    def setup() {
+        paymentDispatcher.dispatchAll(_) >> [:]
+    }
+
+    def "should validate and insert the whole batch with one query each"() {
+        given:
+        def items = [item("k1", sender, receiver, "10.00"), item("k2", sender, receiver, "20.00")]
+
+        when:
+        def response = service.submitBatch(items)
+
+        then:
+        1 * paymentRepository.findAllByIdempotencyKeyIn(["k1", "k2"] as Set) >> []
+        1 * accountRepository.findExistingIds([sender, receiver] as Set) >> ([sender, receiver] as Set)
+        1 * paymentRepository.insertAll({ it.size() == 2 }) >> { List<Payment> payments -> payments*.id as Set }
+        1 * paymentDispatcher.dispatchAll({ it.size() == 2 }) >> [:]
+
+        and:
+        response.results*.outcome == [PaymentBatchItemOutcome.ACCEPTED, PaymentBatchItemOutcome.ACCEPTED]
+        response.results*.index == [0, 1]
+        response.results.every { it.paymentId != null }
+    }
+
+    def "should reject invalid items without affecting the rest"() {
+        given:
+        def unknown = UUID.randomUUID()
+        def items = [
+                item("same", sender, sender, "10.00"),
+                item("unknown-receiver", sender, unknown, "10.00"),
+                item("zero", sender, receiver, "0"),
+                item("valid", sender, receiver, "10.00")
+        ]
+        paymentRepository.findAllByIdempotencyKeyIn(_) >> []
+        accountRepository.findExistingIds(_) >> ([sender, receiver] as Set)
+
+        when:
+        def response = service.submitBatch(items)
+
+        then:
+        1 * paymentRepository.insertAll({ it*.idempotencyKey == ["valid"] }) >> { List<Payment> p -> p*.id as Set }
+
+        and:
+        response.results*.outcome == [
+                PaymentBatchItemOutcome.REJECTED,
+                PaymentBatchItemOutcome.REJECTED,
+                PaymentBatchItemOutcome.REJECTED,
+                PaymentBatchItemOutcome.ACCEPTED
+        ]
+        response.results*.errorCode == ["SAME_ACCOUNT", "RECEIVER_ACCOUNT_NOT_FOUND", "INVALID_AMOUNT", null]
+    }
+
+    def "should report existing and repeated idempotency keys as duplicates"() {
+        given:
+        def existing = Payment.create("known", sender, receiver, Money.parse("5.00", "EUR"))
+        def items = [
+                item("known", sender, receiver, "5.00"),
+                item("new", sender, receiver, "10.00"),
+                item("new", sender, receiver, "10.00")
+        ]
+        paymentRepository.findAllByIdempotencyKeyIn(_) >> [existing]
+        accountRepository.findExistingIds(_) >> ([sender, receiver] as Set)
+
+        when:
+        def response = service.submitBatch(items)
+
+        then:
+        1 * paymentRepository.insertAll({ it*.idempotencyKey == ["new"] }) >> { List<Payment> p -> p*.id as Set }
+
+        and:
+        response.results*.outcome == [
+                PaymentBatchItemOutcome.DUPLICATE,
+                PaymentBatchItemOutcome.ACCEPTED,
+                PaymentBatchItemOutcome.DUPLICATE
+        ]
+        response.results[0].paymentId == existing.id
+        response.results[2].paymentId == response.results[1].paymentId
+    }
+
+    def "should return the concurrent winner when an insert loses the race"() {
+        given:
+        def winner = Payment.create("raced", sender, receiver, Money.parse("10.00", "EUR"))
+        paymentRepository.findAllByIdempotencyKeyIn(["raced"] as Set) >> []
+        accountRepository.findExistingIds(_) >> ([sender, receiver] as Set)
+
+        when:
+        def response = service.submitBatch([item("raced", sender, receiver, "10.00")])
+
+        then:
+        1 * paymentRepository.insertAll(_) >> ([] as Set)
+        1 * paymentRepository.findAllByIdempotencyKeyIn(["raced"]) >> [winner]
+
+        and:
+        response.results[0].outcome == PaymentBatchItemOutcome.DUPLICATE
+        response.results[0].paymentId == winner.id
+        response.results[0].status == com.payment.api.model.PaymentStatus.valueOf(PaymentStatus.PENDING.name())
+    }
+
+    def "should fail only the payments whose dispatch failed"() {
+        given:
+        def items = [
+                item("started", sender, receiver, "10.00"),
+                item("unstarted", sender, receiver, "20.00"),
+                item("unstarted", sender, receiver, "20.00")
+        ]
+        paymentRepository.findAllByIdempotencyKeyIn(_) >> []
+        accountRepository.findExistingIds(_) >> ([sender, receiver] as Set)
+        paymentRepository.insertAll(_) >> { List<Payment> p -> p*.id as Set }
+        def cause = new IllegalStateException("Temporal unavailable")
+        UUID unstartedId = null
+
+        when:
+        def response = service.submitBatch(items)
+
+        then:
+        1 * paymentDispatcher.dispatchAll(_) >> { List args ->
+            unstartedId = args[0].find { it.idempotencyKey == "unstarted" }.id
+            [(unstartedId): cause]
+        }
+        1 * paymentDispatcher.abandon({ it == unstartedId }, cause)
+        1 * idempotencyCache.invalidate("unstarted")
+
+        and:
+        response.results*.outcome == [
+                PaymentBatchItemOutcome.ACCEPTED,
+                PaymentBatchItemOutcome.REJECTED,
+                PaymentBatchItemOutcome.REJECTED
+        ]
+        response.results[1].errorCode == "PAYMENT_PROCESSING_FAILED"
+        response.results[1].paymentId == unstartedId
+        response.results[1].status == com.payment.api.model.PaymentStatus.FAILED
+        response.results[2].paymentId == unstartedId
+    }
+
+    private static PaymentBatchItem item(String key, UUID sender, UUID receiver, String amount) {
+        def item = new PaymentBatchItem()
+        item.setIdempotencyKey(key)
+        item.setPayment(new PaymentRequest(sender, receiver, amount, "EUR"))
+        item
+    }
+}
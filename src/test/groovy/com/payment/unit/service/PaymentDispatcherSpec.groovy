@@ -0,0 +1,211 @@
+package com.payment.unit.service
+
+import com.payment.config.PaymentProcessingProperties
+import com.payment.exception.ErrorCode
+import com.payment.model.Money
+import com.payment.model.Payment
+import com.payment.model.PaymentStatus
+import com.payment.observability.PaymentTracing
+import com.payment.service.PaymentDispatcher
+import com.payment.temporal.activity.LedgerActivities
+import com.payment.temporal.activity.TransferResult
+import com.payment.temporal.workflow.SenderPaymentWorkflow
+import com.payment.temporal.workflow.SenderWorkflowInput
+import io.micrometer.tracing.Tracer
+import io.micrometer.tracing.propagation.Propagator
+import io.temporal.client.BatchRequest
+import io.temporal.client.WorkflowClient
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Duration
+
+class PaymentDispatcherSpec extends Specification {
+
+    WorkflowClient workflowClient = Mock()
+    LedgerActivities ledgerActivities = Mock()
+
+    @Subject
+    PaymentDispatcher dispatcher = new PaymentDispatcher(workflowClient, ledgerActivities,
+            properties(true, PaymentProcessingProperties.WorkflowMode.PER_PAYMENT),
+            new PaymentTracing(Tracer.NOOP, Propagator.NOOP))
+
+    def "should complete payment inline without starting a workflow"() {
+        given:
+        def payment = payment(UUID.randomUUID())
+        def paymentId = payment.id
+
+        when:
+        def result = dispatcher.dispatch(payment)
+
+        then:
+        1 * ledgerActivities.executeTransfer(paymentId) >> TransferResult.success()
+        0 * ledgerActivities.markPaymentFailed(*_)
+        0 * workflowClient._
+
+        and:
+        result.status() == PaymentStatus.COMPLETED
+        result.message() == null
+    }
+
+    def "should mark payment failed inline and return the failure"() {
+        given:
+        def payment = payment(UUID.randomUUID())
+        def paymentId = payment.id
+
+        when:
+        def result = dispatcher.dispatch(payment)
+
+        then:
+        1 * ledgerActivities.executeTransfer(paymentId) >>
+                TransferResult.failure(ErrorCode.INSUFFICIENT_BALANCE, "Insufficient balance")
+        1 * ledgerActivities.markPaymentFailed(paymentId, "INSUFFICIENT_BALANCE", "Insufficient balance")
+        0 * workflowClient._
+
+        and:
+        result.status() == PaymentStatus.FAILED
+        result.message() == "Insufficient balance"
+    }
+
+    def "should fall back to the workflow when the inline attempt fails"() {
+        given:
+        def payment = payment(UUID.randomUUID())
+        def paymentId = payment.id
+        ledgerActivities.executeTransfer(paymentId) >> { throw new IllegalStateException("lock timeout") }
+
+        when:
+        dispatcher.dispatch(payment)
+
+        then: "a workflow stub is requested for the payment"
+        1 * workflowClient.newWorkflowStub(_, { it.workflowId == paymentId.toString() }) >> {
+            throw new UnsupportedOperationException("no Temporal in unit tests")
+        }
+        thrown(UnsupportedOperationException)
+    }
+
+    def "should fall back to the workflow when recording an inline failure fails"() {
+        given:
+        def payment = payment(UUID.randomUUID())
+        def paymentId = payment.id
+        ledgerActivities.executeTransfer(paymentId) >>
+                TransferResult.failure(ErrorCode.INSUFFICIENT_BALANCE, "Insufficient balance")
+
+        when:
+        dispatcher.dispatch(payment)
+
+        then: "the failure could not be recorded"
+        1 * ledgerActivities.markPaymentFailed(paymentId, "INSUFFICIENT_BALANCE", "Insufficient balance") >> {
+            throw new IllegalStateException("connection reset")
+        }
+
+        then: "the workflow takes over, re-runs the transfer and records the failure itself"
+        1 * workflowClient.newWorkflowStub(_, { it.workflowId == paymentId.toString() }) >> {
+            throw new UnsupportedOperationException("no Temporal in unit tests")
+        }
+        thrown(UnsupportedOperationException)
+    }
+
+    def "should signal the sender's workflow in per-sender mode"() {
+        given:
+        def perSender = new PaymentDispatcher(workflowClient, ledgerActivities,
+                properties(false, PaymentProcessingProperties.WorkflowMode.PER_SENDER),
+                new PaymentTracing(Tracer.NOOP, Propagator.NOOP))
+        def senderAccountId = UUID.randomUUID()
+        def payment = payment(senderAccountId)
+        BatchRequest request = Mock()
+
+        when:
+        def result = perSender.dispatch(payment)
+
+        then:
+        1 * workflowClient.newWorkflowStub(SenderPaymentWorkflow, { it.workflowId == "sender-$senderAccountId" }) >>
+                Mock(SenderPaymentWorkflow)
+        1 * workflowClient.newSignalWithStartRequest() >> request
+        1 * request.add(_, { it instanceof SenderWorkflowInput && it.senderAccountId() == senderAccountId })
+        1 * request.add(_, [payment.id])
+        1 * workflowClient.signalWithStart(request)
+        0 * ledgerActivities._
+
+        and:
+        result.status() == PaymentStatus.PENDING
+    }
+
+    def "should signal each sender once with all of its payments"() {
+        given:
+        def perSender = new PaymentDispatcher(workflowClient, ledgerActivities,
+                properties(false, PaymentProcessingProperties.WorkflowMode.PER_SENDER),
+                new PaymentTracing(Tracer.NOOP, Propagator.NOOP))
+        def first = UUID.randomUUID()
+        def second = UUID.randomUUID()
+        def payments = [payment(first), payment(second), payment(first)]
+        def signalled = [].asSynchronized()
+        workflowClient.newWorkflowStub(SenderPaymentWorkflow, _) >> Mock(SenderPaymentWorkflow)
+        workflowClient.newSignalWithStartRequest() >> {
+            Stub(BatchRequest) {
+                add(_, _) >> { args -> if (args[1] instanceof List) signalled << args[1] }
+            }
+        }
+
+        when:
+        perSender.dispatchAll(payments)
+
+        then:
+        2 * workflowClient.signalWithStart(_)
+        signalled as Set == [[payments[0].id, payments[2].id], [payments[1].id]] as Set
+    }
+
+    def "should report the payments of a sender whose signal failed"() {
+        given:
+        def perSender = new PaymentDispatcher(workflowClient, ledgerActivities,
+                properties(false, PaymentProcessingProperties.WorkflowMode.PER_SENDER),
+                new PaymentTracing(Tracer.NOOP, Propagator.NOOP))
+        def failing = UUID.randomUUID()
+        def payments = [payment(failing), payment(UUID.randomUUID()), payment(failing)]
+        def cause = new IllegalStateException("Temporal unavailable")
+        workflowClient.newWorkflowStub(SenderPaymentWorkflow, { it.workflowId == "sender-$failing" }) >> { throw cause }
+        workflowClient.newWorkflowStub(SenderPaymentWorkflow, _) >> Mock(SenderPaymentWorkflow)
+        workflowClient.newSignalWithStartRequest() >> Stub(BatchRequest)
+
+        when:
+        def failures = perSender.dispatchAll(payments)
+
+        then:
+        failures.keySet() == [payments[0].id, payments[2].id] as Set
+        failures.values().every { it.is(cause) }
+        1 * workflowClient.signalWithStart(_)
+    }
+
+    def "should mark a payment that could not be dispatched as failed"() {
+        given:
+        def paymentId = UUID.randomUUID()
+
+        when:
+        dispatcher.abandon(paymentId, new IllegalStateException("Temporal unavailable"))
+
+        then:
+        1 * ledgerActivities.markPaymentFailed(paymentId, "PAYMENT_PROCESSING_FAILED",
+                "Payment could not be dispatched: Temporal unavailable")
+    }
+
+    def "should leave the payment to the reconciler when it cannot be marked failed either"() {
+        given:
+        def paymentId = UUID.randomUUID()
+
+        when:
+        dispatcher.abandon(paymentId, new IllegalStateException("Temporal unavailable"))
+
+        then:
+        1 * ledgerActivities.markPaymentFailed(paymentId, _, _) >> { throw new IllegalStateException("database down") }
+        noExceptionThrown()
+    }
+
+    private static PaymentProcessingProperties properties(boolean inline, PaymentProcessingProperties.WorkflowMode mode) {
+        new PaymentProcessingProperties(
+                new PaymentProcessingProperties.Inline(inline, Duration.ofSeconds(5)),
+                new PaymentProcessingProperties.Workflow(mode, 50, 1000, Duration.ofMinutes(5)))
+    }
+
+    private static Payment payment(UUID senderAccountId) {
+        Payment.create(UUID.randomUUID().toString(), senderAccountId, UUID.randomUUID(), Money.parse("100.00", "EUR"))
+    }
+}
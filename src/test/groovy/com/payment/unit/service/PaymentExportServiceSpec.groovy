@@ -0,0 +1,104 @@
+package com.payment.unit.service
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.payment.config.ReadReplicaProperties
+import com.payment.datasource.ReplicaReads
+import com.payment.exception.ErrorCode
+import com.payment.exception.validation.PaymentValidationException
+import com.payment.repository.PaymentExportFilter
+import com.payment.repository.PaymentExportRepository
+import com.payment.repository.PaymentExportRow
+import com.payment.service.PaymentExportFormat
+import com.payment.service.PaymentExportService
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.charset.StandardCharsets
+import java.time.Instant
+
+class PaymentExportServiceSpec extends Specification {
+
+    PaymentExportRepository exportRepository = Mock()
+
+    @Subject
+    PaymentExportService exportService = new PaymentExportService(exportRepository,
+            new ReplicaReads(new ReadReplicaProperties(false, null, null, null, true), new SimpleMeterRegistry()))
+
+    def filter = new PaymentExportFilter(UUID.randomUUID(), null, null, null)
+    def completed = row("100.00", "COMPLETED", null, null)
+    def failed = row("5000.00", "FAILED", "INSUFFICIENT_BALANCE", 'Insufficient balance. Available: 1,000.00, "EUR"')
+
+    def "should write one JSON object per line"() {
+        given:
+        def out = new ByteArrayOutputStream()
+
+        when:
+        def rows = exportService.export(filter, PaymentExportFormat.NDJSON, out)
+
+        then:
+        1 * exportRepository.stream(filter, _) >> { args -> [completed, failed].each { args[1].accept(it) }; 2L }
+
+        and:
+        rows == 2
+        def lines = out.toString(StandardCharsets.UTF_8).split("\n")
+        lines.length == 2
+        def first = new ObjectMapper().readValue(lines[0], Map)
+        first.paymentId == completed.paymentId().toString()
+        first.amount == "100.00"
+        first.status == "COMPLETED"
+        first.createdAt == "2025-03-01T10:15:30Z"
+        !first.containsKey("errorCode")
+        new ObjectMapper().readValue(lines[1], Map).errorMessage == failed.errorMessage()
+    }
+
+    def "should write CSV with a header row and quoted fields"() {
+        given:
+        def out = new ByteArrayOutputStream()
+
+        when:
+        exportService.export(filter, PaymentExportFormat.CSV, out)
+
+        then:
+        1 * exportRepository.stream(filter, _) >> { args -> [completed, failed].each { args[1].accept(it) }; 2L }
+
+        and:
+        def lines = out.toString(StandardCharsets.UTF_8).split("\r\n")
+        lines[0] == "paymentId,senderAccountId,receiverAccountId,amount,currency,status,errorCode,errorMessage,createdAt,updatedAt"
+        lines[1] == "${completed.paymentId()},${completed.senderAccountId()},${completed.receiverAccountId()}," +
+                "100.00,EUR,COMPLETED,,,2025-03-01T10:15:30Z,"
+        lines[2].endsWith(',FAILED,INSUFFICIENT_BALANCE,"Insufficient balance. Available: 1,000.00, ""EUR""",2025-03-01T10:15:30Z,')
+    }
+
+    def "should write only the header when nothing matches"() {
+        given:
+        def out = new ByteArrayOutputStream()
+
+        when:
+        def rows = exportService.export(filter, PaymentExportFormat.CSV, out)
+
+        then:
+        1 * exportRepository.stream(filter, _) >> 0L
+
+        and:
+        rows == 0
+        out.toString(StandardCharsets.UTF_8).split("\r\n").length == 1
+    }
+
+    def "should reject a range that does not end after it starts"() {
+        given:
+        def instant = Instant.parse("2025-03-01T00:00:00Z")
+
+        when:
+        exportService.validate(new PaymentExportFilter(null, null, instant, instant))
+
+        then:
+        def e = thrown(PaymentValidationException)
+        e.errorCode == ErrorCode.INVALID_DATE_RANGE
+    }
+
+    private static PaymentExportRow row(String amount, String status, String errorCode, String errorMessage) {
+        new PaymentExportRow(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), new BigDecimal(amount), "EUR",
+                status, errorCode, errorMessage, Instant.parse("2025-03-01T10:15:30Z"), null)
+    }
+}
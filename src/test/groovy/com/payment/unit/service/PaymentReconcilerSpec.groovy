@@ -0,0 +1,85 @@
+package com.payment.unit.service
+
+import com.payment.config.ReconcilerProperties
+import com.payment.model.Money
+import com.payment.model.Payment
+import com.payment.repository.PaymentRepository
+import com.payment.service.PaymentDispatcher
+import com.payment.service.PaymentReconciler
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Duration
+import java.time.Instant
+
+class PaymentReconcilerSpec extends Specification {
+
+    PaymentRepository paymentRepository = Mock()
+    PaymentDispatcher paymentDispatcher = Mock()
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
+    @Subject
+    PaymentReconciler reconciler = new PaymentReconciler(paymentRepository, paymentDispatcher,
+            new ReconcilerProperties(true, Duration.ofMinutes(5), 2), meterRegistry)
+
+    def "should redrive stuck payments page by page"() {
+        given:
+        def payments = (1..3).collect { payment(Instant.parse("2026-01-01T00:00:0${it}Z")) }
+
+        when:
+        def result = reconciler.reconcile()
+
+        then:
+        1 * paymentRepository.findInFlight({ it.isBefore(Instant.now().minus(Duration.ofMinutes(4))) },
+                Instant.EPOCH, new UUID(0, 0), 2) >> payments[0..1]
+        1 * paymentRepository.findInFlight(_, payments[1].createdAt, payments[1].id, 2) >> [payments[2]]
+        1 * paymentDispatcher.redrive(payments[0]) >> true
+        1 * paymentDispatcher.redrive(payments[1]) >> false
+        1 * paymentDispatcher.redrive(payments[2]) >> true
+
+        and:
+        result == new PaymentReconciler.Result(3, 2)
+        meterRegistry.counter("payment.reconciler.stuck").count() == 3
+        meterRegistry.counter("payment.reconciler.redriven").count() == 2
+    }
+
+    def "should continue the sweep when one redrive fails"() {
+        given:
+        def payments = (1..2).collect { payment(Instant.parse("2026-01-01T00:00:0${it}Z")) }
+
+        when:
+        def result = reconciler.reconcile()
+
+        then:
+        1 * paymentRepository.findInFlight(*_) >> payments
+        1 * paymentRepository.findInFlight(*_) >> []
+        1 * paymentDispatcher.redrive(payments[0]) >> { throw new IllegalStateException("Temporal unavailable") }
+        1 * paymentDispatcher.redrive(payments[1]) >> true
+
+        and:
+        result == new PaymentReconciler.Result(2, 1)
+    }
+
+    def "should not sweep on schedule when disabled"() {
+        given:
+        def disabled = new PaymentReconciler(paymentRepository, paymentDispatcher,
+                new ReconcilerProperties(false, Duration.ofMinutes(5), 2), meterRegistry)
+
+        when:
+        disabled.reconcileOnSchedule()
+
+        then:
+        0 * paymentRepository._
+        0 * paymentDispatcher._
+    }
+
+    private static Payment payment(Instant createdAt) {
+        def payment = Payment.create(UUID.randomUUID().toString(), UUID.randomUUID(), UUID.randomUUID(),
+                Money.parse("10.00", "EUR"))
+        def field = Payment.getDeclaredField("createdAt")
+        field.accessible = true
+        field.set(payment, createdAt)
+        return payment
+    }
+}